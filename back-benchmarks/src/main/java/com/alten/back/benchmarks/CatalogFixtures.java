@@ -0,0 +1,140 @@
+package com.alten.back.benchmarks;
+
+import com.alten.back.dtos.ProductDetail;
+import com.alten.back.dtos.ProductDto;
+import com.alten.back.dtos.ProductListItem;
+import com.alten.back.dtos.mapper.ProductDtoMapper;
+import com.alten.back.entities.AuditInfo;
+import com.alten.back.entities.Category;
+import com.alten.back.entities.Product;
+import com.alten.back.enums.InventoryStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic catalog resembling the production one: a dozen categories, names of two to four words, descriptions
+ * of one to three sentences close to the 500 character limit, skewed prices and quantities, and images that are
+ * content-addressed digests for most products.
+ */
+public final class CatalogFixtures {
+
+    public static final int CATEGORY_COUNT = 12;
+
+    private static final String[] CATEGORIES = {"Accessories", "Clothing", "Electronics", "Fitness", "Garden", "Home",
+            "Kitchen", "Office", "Outdoor", "Shoes", "Toys", "Travel"};
+    private static final String[] ADJECTIVES = {"Bamboo", "Classic", "Compact", "Deluxe", "Ergonomic", "Foldable",
+            "Gaming", "Handmade", "Leather", "Lightweight", "Organic", "Portable", "Premium", "Smart", "Vintage",
+            "Waterproof", "Wireless", "Wooden"};
+    private static final String[] NOUNS = {"Backpack", "Blanket", "Bracelet", "Camera", "Chair", "Headphones", "Jacket",
+            "Keyboard", "Lamp", "Mug", "Notebook", "Speaker", "Sunglasses", "Tent", "Watch", "Yoga Mat"};
+    private static final String[] SENTENCES = {
+            "Designed for everyday use and built to last with carefully selected materials.",
+            "Ships in recyclable packaging and comes with a two year warranty.",
+            "Its minimalist look fits any interior, from a studio flat to an open space office.",
+            "Easy to clean, easy to carry and tested under demanding conditions by our team.",
+            "A best seller of the season, praised by customers for its value for money."};
+
+    private CatalogFixtures() {
+    }
+
+    public static List<Category> categories() {
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORY_COUNT; i++) {
+            Category category = new Category();
+            category.setId((long) i + 1);
+            category.setName(CATEGORIES[i]);
+            category.setDescription("All our " + CATEGORIES[i].toLowerCase() + " products");
+            category.setAuditInfo(auditInfo(i));
+            categories.add(category);
+        }
+        return categories;
+    }
+
+    /**
+     * Products without ids, ready to be inserted, spread over the given categories.
+     */
+    public static List<Product> products(int count, List<Category> categories) {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ProductDto dto = productDto(random, i);
+            Product product = ProductDtoMapper.toProduct(dto, categories.get(random.nextInt(categories.size())));
+            product.setImage(random.nextInt(10) < 8 ? digest(random) : null);
+            product.setShellId(random.nextInt(50));
+            product.setAuditInfo(auditInfo(i));
+            products.add(product);
+        }
+        return products;
+    }
+
+    /**
+     * Same products as {@link #products(int, List)}, with ids assigned as the database would.
+     */
+    public static List<Product> productsWithIds(int count) {
+        List<Product> products = products(count, categories());
+        for (int i = 0; i < products.size(); i++) {
+            products.get(i).setId((long) i + 1);
+        }
+        return products;
+    }
+
+    public static List<ProductDto> productDtos(int count) {
+        Random random = new Random(42);
+        List<ProductDto> dtos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            dtos.add(productDto(random, i));
+        }
+        return dtos;
+    }
+
+    public static List<ProductListItem> listItems(int count) {
+        return productsWithIds(count).stream().map(ProductDtoMapper::toListItem).toList();
+    }
+
+    public static ProductDetail detail(Product product) {
+        return new ProductDetail(product.getId(), product.getCode(), product.getName(), product.getDescription(),
+                product.getImage(), product.getPrice(), product.getQuantity(), product.getInternalReference(),
+                product.getInventoryStatus(), product.getRating(), product.getShellId(), product.getCategory().getId(),
+                product.getCategory().getName(), product.getAuditInfo().getCreatedAt(), product.getAuditInfo().getUpdatedAt());
+    }
+
+    private static ProductDto productDto(Random random, int index) {
+        String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)]
+                + (random.nextBoolean() ? " " + (index % 7 + 1) + "00" : "");
+        StringBuilder description = new StringBuilder();
+        for (int sentence = 0, sentences = 1 + random.nextInt(3); sentence < sentences; sentence++) {
+            description.append(sentence > 0 ? " " : "").append(SENTENCES[random.nextInt(SENTENCES.length)]);
+        }
+        // Prices follow a long tail: most products are cheap, a few are expensive
+        double price = Math.round(Math.exp(2 + random.nextGaussian() * 1.2) * 100) / 100.0 + 1;
+        int quantity = random.nextInt(10) == 0 ? 0 : (int) Math.abs(random.nextGaussian() * 40);
+        return ProductDto.builder()
+                .code(String.format("P%07d", index))
+                .name(name)
+                .description(description.toString())
+                .price(price)
+                .quantity(quantity)
+                .internalReference(String.format("REF-%07d", index))
+                .inventoryStatus(quantity == 0 ? InventoryStatus.OUTOFSTOCK : quantity < 10 ? InventoryStatus.LOWSTOCK : InventoryStatus.INSTOCK)
+                .rating(1 + random.nextInt(9) / 2.0)
+                .build();
+    }
+
+    private static String digest(Random random) {
+        StringBuilder digest = new StringBuilder(64);
+        for (int i = 0; i < 64; i++) {
+            digest.append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return digest.toString();
+    }
+
+    private static AuditInfo auditInfo(int index) {
+        AuditInfo auditInfo = new AuditInfo();
+        auditInfo.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(index));
+        auditInfo.setUpdatedAt(LocalDateTime.of(2024, 6, 1, 0, 0).plusMinutes(index));
+        return auditInfo;
+    }
+}
@@ -0,0 +1,82 @@
+package com.alten.back.benchmarks;
+
+import com.alten.back.dtos.ProductDto;
+import com.alten.back.dtos.ProductListItem;
+import com.alten.back.dtos.mapper.ProductDtoMapper;
+import com.alten.back.entities.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one mapping between the entity and the DTOs, cycling over a thousand distinct products so that the
+ * measure is not that of a single, perfectly cached object. The {@code *Reflective} benchmarks keep the former
+ * {@code BeanUtils.copyProperties} implementation as a baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductDtoMapperBenchmark {
+
+    private static final int FIXTURE_SIZE = 1024;
+
+    private List<Product> products;
+    private List<ProductDto> productDtos;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        products = CatalogFixtures.productsWithIds(FIXTURE_SIZE);
+        productDtos = CatalogFixtures.productDtos(FIXTURE_SIZE);
+    }
+
+    @Benchmark
+    public ProductDto fromProduct() {
+        return ProductDtoMapper.fromProduct(products.get(next()));
+    }
+
+    @Benchmark
+    public ProductDto fromProductReflective() {
+        ProductDto productDto = new ProductDto();
+        BeanUtils.copyProperties(products.get(next()), productDto);
+        return productDto;
+    }
+
+    @Benchmark
+    public Product toProduct() {
+        int index = next();
+        return ProductDtoMapper.toProduct(productDtos.get(index), products.get(index).getCategory());
+    }
+
+    @Benchmark
+    public Product toProductReflective() {
+        int index = next();
+        Product product = new Product();
+        BeanUtils.copyProperties(productDtos.get(index), product);
+        product.setCategory(products.get(index).getCategory());
+        return product;
+    }
+
+    @Benchmark
+    public ProductListItem toListItem() {
+        return ProductDtoMapper.toListItem(products.get(next()));
+    }
+
+    private int next() {
+        return next = (next + 1) & (FIXTURE_SIZE - 1);
+    }
+}
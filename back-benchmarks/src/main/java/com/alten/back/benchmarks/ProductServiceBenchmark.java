@@ -0,0 +1,125 @@
+package com.alten.back.benchmarks;
+
+import com.alten.back.BackApplication;
+import com.alten.back.dtos.PageResponse;
+import com.alten.back.dtos.ProductDetail;
+import com.alten.back.dtos.ProductListItem;
+import com.alten.back.dtos.ProductPageRequest;
+import com.alten.back.entities.Category;
+import com.alten.back.repositories.CategoryRepository;
+import com.alten.back.repositories.ProductRepository;
+import com.alten.back.services.ProductService;
+import com.alten.back.services.cache.ProductCache;
+import com.alten.back.services.search.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of {@code ProductServiceImpl} through the Spring proxies, on an in-memory H2 database seeded with the
+ * fixture catalog. The database is faster than a networked PostgreSQL, so these numbers isolate the cost of the
+ * application code around the queries rather than predict production latencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private static final int HOT_PRODUCTS = 64;
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductCache productCache;
+    private List<Long> ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--file.storage.directory=target/benchmark-images");
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            List<Category> categories = CatalogFixtures.categories();
+            categories.forEach(category -> category.setId(null));
+            categoryRepository.saveAll(categories);
+            productRepository.saveAll(CatalogFixtures.products(catalogSize, categories));
+        });
+        context.getBean(ProductSearchIndex.class).build();
+        productService = context.getBean(ProductService.class);
+        productCache = context.getBean(ProductCache.class);
+        ids = productRepository.findAllListItems().stream().map(ProductListItem::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductDetail getProductByIdCached() {
+        return productService.getProductById(ids.get(next() % HOT_PRODUCTS));
+    }
+
+    @Benchmark
+    public ProductDetail getProductByIdUncached() {
+        Long id = ids.get(next());
+        productCache.invalidateId(id);
+        return productService.getProductById(id);
+    }
+
+    @Benchmark
+    public List<ProductListItem> getAllProducts() {
+        return productService.getAllProducts();
+    }
+
+    @Benchmark
+    public PageResponse<ProductListItem> getProductsPageByCategory() {
+        return productService.getProductsPage(ProductPageRequest.builder()
+                .size(20)
+                .sort("price,asc")
+                .category((long) (next() % CatalogFixtures.CATEGORY_COUNT) + 1)
+                .build());
+    }
+
+    @Benchmark
+    public List<ProductListItem> searchProducts() {
+        return productService.searchProducts("wireless head", 20);
+    }
+
+    private int next() {
+        next = next + 1 < ids.size() ? next + 1 : 0;
+        return next;
+    }
+}
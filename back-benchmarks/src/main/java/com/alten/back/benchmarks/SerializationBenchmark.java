@@ -0,0 +1,84 @@
+package com.alten.back.benchmarks;
+
+import com.alten.back.dtos.ProductDetail;
+import com.alten.back.dtos.ProductListItem;
+import com.alten.back.entities.Category;
+import com.alten.back.entities.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response bodies, with an {@code ObjectMapper} configured like the one of Spring MVC.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    /**
+     * Size of the serialized product lists: a page, and the whole catalog of {@code GET /products}.
+     */
+    @Param({"50", "10000"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private Product product;
+    private ProductDetail detail;
+    private Category category;
+    private List<ProductListItem> listItems;
+    private List<Category> categories;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Product> products = CatalogFixtures.productsWithIds(listSize);
+        product = products.get(0);
+        detail = CatalogFixtures.detail(product);
+        category = product.getCategory();
+        listItems = CatalogFixtures.listItems(listSize);
+        categories = CatalogFixtures.categories();
+    }
+
+    @Benchmark
+    public byte[] productEntity() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] productDetail() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(detail);
+    }
+
+    @Benchmark
+    public byte[] category() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(category);
+    }
+
+    @Benchmark
+    public byte[] categoryList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(categories);
+    }
+
+    @Benchmark
+    public byte[] productList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(listItems);
+    }
+}
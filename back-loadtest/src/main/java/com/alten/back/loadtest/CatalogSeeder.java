@@ -0,0 +1,171 @@
+package com.alten.back.loadtest;
+
+import com.alten.back.dtos.ImportReport;
+import com.alten.back.dtos.ImportRowResult;
+import com.alten.back.dtos.ProductDetail;
+import com.alten.back.dtos.ProductDto;
+import com.alten.back.entities.Category;
+import com.alten.back.enums.ImportRowStatus;
+import com.alten.back.enums.InventoryStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seeds the catalog through the public API, so that the same code works against the embedded back end and against
+ * any running one: categories one by one, products through the NDJSON import, and products with an image through
+ * multipart uploads. Codes carry the run prefix, so several runs can share a database.
+ */
+public class CatalogSeeder {
+
+    private static final String[] CATEGORIES = {"Accessories", "Clothing", "Electronics", "Fitness", "Garden", "Home",
+            "Kitchen", "Office", "Outdoor", "Shoes", "Toys", "Travel"};
+    private static final String[] ADJECTIVES = {"Bamboo", "Classic", "Compact", "Deluxe", "Ergonomic", "Foldable",
+            "Leather", "Lightweight", "Portable", "Premium", "Smart", "Vintage", "Waterproof", "Wireless", "Wooden"};
+    private static final String[] NOUNS = {"Backpack", "Blanket", "Camera", "Chair", "Headphones", "Jacket", "Keyboard",
+            "Lamp", "Mug", "Notebook", "Speaker", "Tent", "Watch", "Yoga Mat"};
+    private static final int IMPORT_BATCH = 5000;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String runPrefix = UUID.randomUUID().toString().substring(0, 8);
+    private final Random random = new Random(42);
+
+    public CatalogSeeder(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+    }
+
+    public Catalog seed(int products, int imageProducts) throws IOException, InterruptedException {
+        List<Long> categoryIds = new ArrayList<>();
+        for (String name : CATEGORIES) {
+            Category category = new Category();
+            category.setName(name + " " + runPrefix);
+            category.setDescription("All our " + name.toLowerCase() + " products");
+            categoryIds.add(send(post("/categories", "application/json", objectMapper.writeValueAsBytes(category)), Category.class).getId());
+        }
+
+        List<Long> productIds = new ArrayList<>(products);
+        for (int from = 0; from < products; from += IMPORT_BATCH) {
+            StringBuilder body = new StringBuilder();
+            for (int i = from; i < Math.min(products, from + IMPORT_BATCH); i++) {
+                body.append(objectMapper.writeValueAsString(productDto(i, categoryIds))).append('\n');
+            }
+            ImportReport report = send(post("/products/import", "application/x-ndjson",
+                    body.toString().getBytes(StandardCharsets.UTF_8)), ImportReport.class);
+            for (ImportRowResult row : report.getRows()) {
+                if (row.getStatus() == ImportRowStatus.CREATED) {
+                    productIds.add(row.getProductId());
+                }
+            }
+        }
+
+        List<Long> imageProductIds = new ArrayList<>(imageProducts);
+        for (int i = 0; i < imageProducts; i++) {
+            ProductDto dto = productDto(products + i, categoryIds);
+            imageProductIds.add(send(multipart(dto, image()), ProductDetail.class).getId());
+        }
+        return new Catalog(runPrefix, categoryIds, productIds, imageProductIds);
+    }
+
+    /**
+     * A product of the run that does not exist yet, for the create calls.
+     */
+    public ProductDto newProduct(long index, List<Long> categoryIds) {
+        return productDto(index, categoryIds);
+    }
+
+    private ProductDto productDto(long index, List<Long> categoryIds) {
+        Random rows = new Random(index);
+        int quantity = rows.nextInt(10) == 0 ? 0 : 1 + rows.nextInt(200);
+        return ProductDto.builder()
+                .code(runPrefix + "-" + index)
+                .name(ADJECTIVES[rows.nextInt(ADJECTIVES.length)] + " " + NOUNS[rows.nextInt(NOUNS.length)])
+                .description("Designed for everyday use and built to last. Ships in recyclable packaging.")
+                .price(Math.round(Math.exp(2 + rows.nextGaussian()) * 100) / 100.0 + 1)
+                .quantity(quantity)
+                .internalReference("REF-" + runPrefix + "-" + index)
+                .inventoryStatus(quantity == 0 ? InventoryStatus.OUTOFSTOCK : quantity < 10 ? InventoryStatus.LOWSTOCK : InventoryStatus.INSTOCK)
+                .rating(1 + rows.nextInt(9) / 2.0)
+                .categoryId(categoryIds.get(rows.nextInt(categoryIds.size())))
+                .build();
+    }
+
+    private byte[] image() throws IOException {
+        BufferedImage image = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+        graphics.fillRect(0, 0, 640, 480);
+        graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+        graphics.fillOval(random.nextInt(320), random.nextInt(240), 320, 240);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private HttpRequest post(String path, String contentType, byte[] body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private HttpRequest multipart(ProductDto dto, byte[] image) {
+        String boundary = "----loadtest" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        field(body, boundary, "code", dto.getCode());
+        field(body, boundary, "name", dto.getName());
+        field(body, boundary, "description", dto.getDescription());
+        field(body, boundary, "price", String.valueOf(dto.getPrice()));
+        field(body, boundary, "quantity", String.valueOf(dto.getQuantity()));
+        field(body, boundary, "internalReference", dto.getInternalReference());
+        field(body, boundary, "inventoryStatus", dto.getInventoryStatus().name());
+        field(body, boundary, "rating", String.valueOf(dto.getRating()));
+        field(body, boundary, "categoryId", String.valueOf(dto.getCategoryId()));
+        write(body, "--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"" + dto.getCode()
+                + ".png\"\r\nContent-Type: image/png\r\n\r\n");
+        body.writeBytes(image);
+        write(body, "\r\n--" + boundary + "--\r\n");
+        return post("/products", "multipart/form-data; boundary=" + boundary, body.toByteArray());
+    }
+
+    private static void field(ByteArrayOutputStream body, String boundary, String name, String value) {
+        write(body, "--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n");
+    }
+
+    private static void write(ByteArrayOutputStream body, String text) {
+        body.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private <T> T send(HttpRequest request, Class<T> type) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(request.method() + " " + request.uri() + " answered " + response.statusCode() + ": "
+                    + new String(response.body(), StandardCharsets.UTF_8));
+        }
+        return objectMapper.readValue(response.body(), type);
+    }
+
+    /**
+     * What the seeding created, for the load generator to pick request targets from.
+     */
+    public record Catalog(String runPrefix, List<Long> categoryIds, List<Long> productIds, List<Long> imageProductIds) {
+    }
+}
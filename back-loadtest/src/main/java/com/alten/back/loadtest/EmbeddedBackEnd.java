@@ -0,0 +1,46 @@
+package com.alten.back.loadtest;
+
+import com.alten.back.BackApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * The back end started in this JVM on a random port, with an in-memory H2 database in PostgreSQL mode.
+ *
+ * <p>H2 answers faster than a PostgreSQL server reached over the network, so latencies measured this way are a lower
+ * bound; run against a back end on PostgreSQL with {@code -base-url} for figures comparable to production.
+ */
+public final class EmbeddedBackEnd implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedBackEnd(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static EmbeddedBackEnd start() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BackApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=20",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--file.storage.directory=target/loadtest-images");
+        return new EmbeddedBackEnd(context);
+    }
+
+    public String baseUrl() {
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        return "http://localhost:" + port + context.getEnvironment().getProperty("server.servlet.context-path", "");
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
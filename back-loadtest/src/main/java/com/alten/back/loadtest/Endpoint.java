@@ -0,0 +1,27 @@
+package com.alten.back.loadtest;
+
+/**
+ * Calls of the request mix, each reported separately.
+ */
+public enum Endpoint {
+    /**
+     * {@code GET /products/page}, a page of 20 products of a random category sorted by price.
+     */
+    LIST,
+    /**
+     * {@code GET /products/{id}} on a random seeded product.
+     */
+    DETAIL,
+    /**
+     * {@code GET /products/productImage/{id}?size=THUMBNAIL} on a random product with an image.
+     */
+    IMAGE,
+    /**
+     * {@code POST /products/save} of a new product.
+     */
+    CREATE,
+    /**
+     * {@code PATCH /products/{id}} of the price and quantity of a random seeded product.
+     */
+    PATCH
+}
@@ -0,0 +1,177 @@
+package com.alten.back.loadtest;
+
+import com.alten.back.dtos.ProductDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests are started at a fixed rate whatever the response times, as independent users would.
+ *
+ * <p>Latency is measured from the time a request was scheduled to start, not from the time it was actually sent,
+ * so a stalled back end or client shows up in the percentiles instead of silently lowering the rate (coordinated
+ * omission). Requests scheduled while {@code max-in-flight} requests are outstanding are not sent and are counted as
+ * dropped. Requests scheduled during the warmup are sent but not recorded.
+ */
+public class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final CatalogSeeder.Catalog catalog;
+    private final CatalogSeeder seeder;
+    private final LoadTestOptions options;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong created = new AtomicLong();
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    public LoadGenerator(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, CatalogSeeder.Catalog catalog,
+                         CatalogSeeder seeder, LoadTestOptions options) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.catalog = catalog;
+        this.seeder = seeder;
+        this.options = options;
+        for (Endpoint endpoint : options.mix().keySet()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    /**
+     * Runs the warmup and the measured phase, then waits for outstanding requests.
+     *
+     * @return the statistics of the measured phase, by endpoint
+     */
+    public Map<Endpoint, EndpointStats> run() throws JsonProcessingException {
+        List<Endpoint> weighted = new ArrayList<>();
+        options.mix().forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(endpoint);
+            }
+        });
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = weighted.get(random.nextInt(weighted.size()));
+            EndpointStats endpointStats = intended >= measureFrom ? stats.get(endpoint) : null;
+            if (inFlight.get() >= options.maxInFlight()) {
+                if (endpointStats != null) {
+                    endpointStats.dropped.incrementAndGet();
+                }
+                continue;
+            }
+            inFlight.incrementAndGet();
+            httpClient.sendAsync(request(endpoint), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latency = System.nanoTime() - intended;
+                        inFlight.decrementAndGet();
+                        if (endpointStats != null) {
+                            endpointStats.record(latency, error == null && isSuccess(response.statusCode()));
+                        }
+                    });
+        }
+        long deadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        return stats;
+    }
+
+    private HttpRequest request(Endpoint endpoint) throws JsonProcessingException {
+        return switch (endpoint) {
+            case LIST -> get("/products/page?size=20&sort=price,asc&category=" + pick(catalog.categoryIds()));
+            case DETAIL -> get("/products/" + pick(catalog.productIds()));
+            case IMAGE -> get("/products/productImage/" + pick(catalog.imageProductIds()) + "?size=THUMBNAIL");
+            case CREATE -> {
+                ProductDto product = seeder.newProduct(Long.MAX_VALUE / 2 + created.incrementAndGet(), catalog.categoryIds());
+                yield send("POST", "/products/save", objectMapper.writeValueAsBytes(product));
+            }
+            case PATCH -> {
+                ProductDto changes = ProductDto.builder()
+                        .price(1 + random.nextInt(10_000) / 100.0)
+                        .quantity(1 + random.nextInt(200))
+                        .build();
+                yield send("PATCH", "/products/" + pick(catalog.productIds()), objectMapper.writeValueAsBytes(changes));
+            }
+        };
+    }
+
+    private Long pick(List<Long> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, byte[] body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private static boolean isSuccess(int status) {
+        return status / 100 == 2 || status == 304;
+    }
+
+    /**
+     * Latencies in microseconds of the completed requests of one endpoint, successful or not, and failure counts.
+     */
+    public static final class EndpointStats {
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        void record(long latencyNanos, boolean success) {
+            latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+            if (!success) {
+                errors.incrementAndGet();
+            }
+        }
+
+        public Histogram latencies() {
+            return latencies;
+        }
+
+        public long errors() {
+            return errors.get();
+        }
+
+        public long dropped() {
+            return dropped.get();
+        }
+    }
+}
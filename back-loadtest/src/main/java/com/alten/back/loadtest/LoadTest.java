@@ -0,0 +1,79 @@
+package com.alten.back.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Seeds a catalog, drives the configured request mix at a fixed arrival rate and reports throughput and latency
+ * percentiles per endpoint. The full percentile distribution of each endpoint is written to {@code report-dir} in
+ * HdrHistogram's text format, which its plotter reads.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        EmbeddedBackEnd backEnd = options.baseUrl() == null ? EmbeddedBackEnd.start() : null;
+        try {
+            String baseUrl = backEnd != null ? backEnd.baseUrl() : options.baseUrl();
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+            System.out.printf("Seeding %d products (%d with images) into %s%n", options.products(), options.imageProducts(), baseUrl);
+            CatalogSeeder seeder = new CatalogSeeder(httpClient, objectMapper, baseUrl);
+            CatalogSeeder.Catalog catalog = seeder.seed(options.products(), options.imageProducts());
+
+            System.out.printf("Running %d req/s for %s after a %s warmup, mix %s%n", options.rate(), options.duration(),
+                    options.warmup(), options.mix());
+            Map<Endpoint, LoadGenerator.EndpointStats> stats =
+                    new LoadGenerator(httpClient, objectMapper, baseUrl, catalog, seeder, options).run();
+            report(stats, options);
+        } finally {
+            if (backEnd != null) {
+                backEnd.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void report(Map<Endpoint, LoadGenerator.EndpointStats> stats, LoadTestOptions options) throws IOException {
+        Files.createDirectories(options.reportDir());
+        double seconds = options.duration().toMillis() / 1000.0;
+        String header = String.format(Locale.ROOT, "%-8s %9s %8s %8s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "errors", "dropped", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        StringBuilder summary = new StringBuilder(header).append('\n');
+        for (Map.Entry<Endpoint, LoadGenerator.EndpointStats> entry : stats.entrySet()) {
+            Histogram latencies = entry.getValue().latencies();
+            summary.append(String.format(Locale.ROOT, "%-8s %9d %8d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().name().toLowerCase(Locale.ROOT), latencies.getTotalCount(), entry.getValue().errors(),
+                    entry.getValue().dropped(), latencies.getTotalCount() / seconds,
+                    millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getValueAtPercentile(99.9)), millis(latencies.getMaxValue())));
+            try (PrintStream out = new PrintStream(options.reportDir()
+                    .resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm").toFile())) {
+                latencies.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.print(summary);
+        Files.writeString(options.reportDir().resolve("summary.txt"), summary);
+        System.out.println("Percentile distributions written to " + options.reportDir().toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,68 @@
+package com.alten.back.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Settings of a run, given as {@code -name=value} arguments.
+ *
+ * <ul>
+ *     <li>{@code base-url}: back end to load, e.g. {@code http://localhost:8081/api}; when absent one is started in
+ *     process on H2 in PostgreSQL mode</li>
+ *     <li>{@code products}: number of products seeded before the run (default 10000)</li>
+ *     <li>{@code image-products}: number of seeded products that get an uploaded image (default 50)</li>
+ *     <li>{@code rate}: requests started per second, whatever the response times (default 200)</li>
+ *     <li>{@code warmup}, {@code duration}: ISO-8601 durations of the unrecorded and recorded phases
+ *     (default PT15S and PT60S)</li>
+ *     <li>{@code mix}: relative weight of each call (default {@code list=25,detail=45,image=15,create=5,patch=10})</li>
+ *     <li>{@code max-in-flight}: requests outstanding beyond which new ones are counted as dropped (default 2000)</li>
+ *     <li>{@code report-dir}: where the percentile distribution of each endpoint is written</li>
+ * </ul>
+ */
+public record LoadTestOptions(String baseUrl, int products, int imageProducts, int rate, Duration warmup,
+                              Duration duration, Map<Endpoint, Integer> mix, int maxInFlight, Path reportDir) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("-") || separator < 0) {
+                throw new IllegalArgumentException("Expected -name=value, got " + arg);
+            }
+            values.put(arg.substring(1, separator).replaceFirst("^-", ""), arg.substring(separator + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                values.get("base-url"),
+                Integer.parseInt(values.getOrDefault("products", "10000")),
+                Integer.parseInt(values.getOrDefault("image-products", "50")),
+                Integer.parseInt(values.getOrDefault("rate", "200")),
+                Duration.parse(values.getOrDefault("warmup", "PT15S")),
+                Duration.parse(values.getOrDefault("duration", "PT60S")),
+                parseMix(values.getOrDefault("mix", "list=25,detail=45,image=15,create=5,patch=10")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+                Path.of(values.getOrDefault("report-dir", "target/loadtest")));
+        if (options.rate <= 0 || options.products <= 0 || options.mix.isEmpty()) {
+            throw new IllegalArgumentException("rate, products and mix must be positive");
+        }
+        return options;
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,37 @@
+package com.alten.back.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import java.util.List;
+
+/**
+ * Read-only twin of the back end, serving the product and category queries without blocking a thread per request.
+ * Writes go through the JPA back end, which owns the schema this application reads.
+ */
+@SpringBootApplication
+public class ReactiveBackApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveBackApplication.class, args);
+	}
+
+	@Bean
+	public CorsWebFilter corsWebFilter() {
+		CorsConfiguration corsConfiguration = new CorsConfiguration();
+		corsConfiguration.setAllowCredentials(true);
+		corsConfiguration.setAllowedOrigins(List.of("http://localhost:4200"));
+		corsConfiguration.setAllowedHeaders(List.of("Origin", "Content-Type", "Accept", "Authorization",
+				"X-Requested-With", "If-None-Match", "Range"));
+		corsConfiguration.setExposedHeaders(List.of("Content-Type", "ETag", "Accept-Ranges", "Content-Range"));
+		corsConfiguration.setAllowedMethods(List.of("GET", "HEAD", "OPTIONS"));
+		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+		source.registerCorsConfiguration("/**", corsConfiguration);
+		return new CorsWebFilter(source);
+	}
+
+}
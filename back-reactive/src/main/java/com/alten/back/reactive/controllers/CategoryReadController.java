@@ -0,0 +1,28 @@
+package com.alten.back.reactive.controllers;
+
+import com.alten.back.reactive.controllers.api.CategoryReadApi;
+import com.alten.back.reactive.dtos.CategoryDto;
+import com.alten.back.reactive.services.CategoryReadService;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/categories")
+public class CategoryReadController implements CategoryReadApi {
+    private final CategoryReadService categoryReadService;
+
+    public CategoryReadController(CategoryReadService categoryReadService) {
+        this.categoryReadService = categoryReadService;
+    }
+
+    @GetMapping()
+    public Flux<CategoryDto> getAllCategories() {
+        return categoryReadService.getAllCategories();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<CategoryDto> getCategoryById(@PathVariable("id") Long id) {
+        return categoryReadService.getCategoryById(id);
+    }
+}
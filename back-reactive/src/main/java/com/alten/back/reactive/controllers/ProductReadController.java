@@ -0,0 +1,72 @@
+package com.alten.back.reactive.controllers;
+
+import com.alten.back.reactive.controllers.api.ProductReadApi;
+import com.alten.back.reactive.dtos.ProductDetail;
+import com.alten.back.reactive.dtos.ProductListItem;
+import com.alten.back.reactive.enums.ImageRendition;
+import com.alten.back.reactive.services.ProductReadService;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/products")
+public class ProductReadController implements ProductReadApi {
+
+    /**
+     * Same policy as the back end: images may be replaced, so caches revalidate them daily with the ETag.
+     */
+    private static final CacheControl IMAGE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(1)).cachePublic().mustRevalidate();
+
+    /**
+     * Used when the original is served in place of a rendition that is still being generated.
+     */
+    private static final CacheControl PENDING_RENDITION_CACHE_CONTROL = CacheControl.noCache();
+
+    private final ProductReadService productReadService;
+
+    public ProductReadController(ProductReadService productReadService) {
+        this.productReadService = productReadService;
+    }
+
+    @GetMapping(produces = {"application/json", "application/x-ndjson"})
+    public Flux<ProductListItem> getAllProducts(@RequestParam(value = "categoryId", required = false) Long categoryId) {
+        return categoryId == null ? productReadService.getAllProducts() : productReadService.getProductsByCategory(categoryId);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ProductDetail> getProduct(@PathVariable("id") Long id) {
+        return productReadService.getProductById(id);
+    }
+
+    @GetMapping("/productImage/{productId}")
+    public Mono<ResponseEntity<Resource>> getProductImage(@PathVariable("productId") Long productId,
+                                                          @RequestParam(value = "size", defaultValue = "ORIGINAL") ImageRendition size,
+                                                          ServerWebExchange exchange) {
+        return productReadService.getProductImage(productId, size).map(image -> {
+            // A pending rendition is served as the original, under the original's ETag and without caching, so that
+            // neither a cache nor a revalidation keeps the original in place of the rendition once it is generated
+            String etag = image.getDigest() == null ? null : image.getRendition() == ImageRendition.ORIGINAL
+                    ? "\"" + image.getDigest() + "\""
+                    : "\"" + image.getDigest() + "-" + image.getRendition().name().toLowerCase() + "\"";
+            if (etag != null && exchange.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<Resource>build();
+            }
+            boolean pending = image.getDigest() != null && image.getRendition() != size;
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(image.getContentType())
+                    .cacheControl(pending ? PENDING_RENDITION_CACHE_CONTROL : IMAGE_CACHE_CONTROL);
+            if (etag != null) {
+                response.eTag(etag);
+            }
+            return response.body(image.getResource());
+        });
+    }
+}
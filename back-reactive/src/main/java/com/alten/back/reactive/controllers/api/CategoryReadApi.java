@@ -0,0 +1,72 @@
+package com.alten.back.reactive.controllers.api;
+
+import com.alten.back.reactive.dtos.CategoryDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Tag(name = "Categories")
+public interface CategoryReadApi {
+
+    @Operation(
+            summary = "Get all categories",
+            description = "This method streams the list of all categories.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "List of categories",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            array = @ArraySchema(
+                                                    schema = @Schema(
+                                                            implementation = CategoryDto.class
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            }
+    )
+    @GetMapping()
+    Flux<CategoryDto> getAllCategories();
+
+    @Operation(
+            summary = "Get a category by its id",
+            description = "This method allows retrieving a category by its id.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Category found",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(
+                                                    implementation = CategoryDto.class
+                                            )
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Category not found"
+                    )
+            }
+    )
+    @GetMapping("/{id}")
+    Mono<CategoryDto> getCategoryById(
+            @Parameter(
+                    in = ParameterIn.PATH,
+                    description = "Id of the category",
+                    required = true
+            )
+            @PathVariable("id") Long id);
+}
@@ -0,0 +1,121 @@
+package com.alten.back.reactive.controllers.api;
+
+import com.alten.back.reactive.dtos.ProductDetail;
+import com.alten.back.reactive.dtos.ProductListItem;
+import com.alten.back.reactive.enums.ImageRendition;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Tag(name = "Products")
+public interface ProductReadApi {
+
+    @Operation(
+            summary = "Stream the products",
+            description = "This method streams every product, or the products of one category when categoryId is given. "
+                    + "Products are written as they are read from the database, as a JSON array or as NDJSON "
+                    + "(Accept: application/x-ndjson), at the pace the client consumes them.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "List of products",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            array = @ArraySchema(
+                                                    schema = @Schema(
+                                                            implementation = ProductListItem.class
+                                                    )
+                                            )
+                                    ),
+                                    @Content(
+                                            mediaType = "application/x-ndjson",
+                                            schema = @Schema(
+                                                    implementation = ProductListItem.class
+                                            )
+                                    )
+                            }
+                    )
+            }
+    )
+    @GetMapping(produces = {"application/json", "application/x-ndjson"})
+    Flux<ProductListItem> getAllProducts(
+            @Parameter(
+                    in = ParameterIn.QUERY,
+                    description = "Only stream the products of this category"
+            )
+            @RequestParam(value = "categoryId", required = false) Long categoryId);
+
+    @Operation(
+            summary = "Get a product by its id",
+            description = "This method allows retrieving a product by its id.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Product found",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(
+                                                    implementation = ProductDetail.class
+                                            )
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Product not found"
+                    )
+            }
+    )
+    @GetMapping("/{id}")
+    Mono<ProductDetail> getProduct(
+            @Parameter(
+                    in = ParameterIn.PATH,
+                    description = "Id of the product",
+                    required = true
+            )
+            @PathVariable("id") Long id);
+
+    @Operation(
+            summary = "Stream the image of a product",
+            description = "This method streams the image of a product from disk without loading it in memory. Range "
+                    + "requests and If-None-Match on content-addressed images are supported. A rendition the back end has "
+                    + "not generated yet is replaced by the original, under the original's ETag and with no-cache.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Image content"
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Image not modified"
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Product or image not found"
+                    )
+            }
+    )
+    @GetMapping("/productImage/{productId}")
+    Mono<ResponseEntity<Resource>> getProductImage(
+            @Parameter(
+                    in = ParameterIn.PATH,
+                    description = "Id of the product",
+                    required = true
+            )
+            @PathVariable("productId") Long productId,
+            @RequestParam(value = "size", defaultValue = "ORIGINAL") ImageRendition size,
+            @Parameter(hidden = true) ServerWebExchange exchange);
+}
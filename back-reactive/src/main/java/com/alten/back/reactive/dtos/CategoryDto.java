@@ -0,0 +1,22 @@
+package com.alten.back.reactive.dtos;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A category, with the same JSON shape as the {@code Category} entity served by the back end.
+ */
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class CategoryDto {
+    private Long id;
+    private String name;
+    private String description;
+    private AuditInfo auditInfo;
+
+    @NoArgsConstructor @AllArgsConstructor @Getter @Setter
+    public static class AuditInfo {
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+    }
+}
@@ -0,0 +1,28 @@
+package com.alten.back.reactive.dtos;
+
+import com.alten.back.reactive.enums.InventoryStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-side view of a single product, with the same JSON shape as the one of the back end.
+ */
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class ProductDetail {
+    private Long id;
+    private String code;
+    private String name;
+    private String description;
+    private String image;
+    private Double price;
+    private int quantity;
+    private String internalReference;
+    private InventoryStatus inventoryStatus;
+    private double rating;
+    private int shellId;
+    private Long categoryId;
+    private String categoryName;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,22 @@
+package com.alten.back.reactive.dtos;
+
+import com.alten.back.reactive.enums.InventoryStatus;
+import lombok.*;
+
+/**
+ * Read-side view of a product in a listing, with the same JSON shape as the one of the back end.
+ */
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class ProductListItem {
+    private Long id;
+    private String code;
+    private String name;
+    private String description;
+    private String image;
+    private Double price;
+    private int quantity;
+    private InventoryStatus inventoryStatus;
+    private double rating;
+    private Long categoryId;
+    private String categoryName;
+}
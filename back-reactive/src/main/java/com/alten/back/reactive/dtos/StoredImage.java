@@ -0,0 +1,20 @@
+package com.alten.back.reactive.dtos;
+
+import com.alten.back.reactive.enums.ImageRendition;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.MediaType;
+
+/**
+ * An image file ready to be streamed. {@code digest} is the SHA-256 of the content,
+ * or {@code null} for images uploaded before the content-addressed store. {@code rendition}
+ * is the one the file holds, {@link ImageRendition#ORIGINAL} while a requested rendition is not generated yet.
+ */
+@Getter @AllArgsConstructor
+public class StoredImage {
+    private final String digest;
+    private final MediaType contentType;
+    private final FileSystemResource resource;
+    private final ImageRendition rendition;
+}
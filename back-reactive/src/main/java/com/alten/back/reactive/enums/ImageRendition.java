@@ -0,0 +1,8 @@
+package com.alten.back.reactive.enums;
+
+/**
+ * Sizes in which product images are served, as generated by the rendition pipeline of the back end.
+ */
+public enum ImageRendition {
+    ORIGINAL, THUMBNAIL, MEDIUM
+}
@@ -0,0 +1,5 @@
+package com.alten.back.reactive.enums;
+
+public enum InventoryStatus {
+    INSTOCK, LOWSTOCK, OUTOFSTOCK
+}
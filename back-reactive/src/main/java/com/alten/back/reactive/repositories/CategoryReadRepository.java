@@ -0,0 +1,48 @@
+package com.alten.back.reactive.repositories;
+
+import com.alten.back.reactive.dtos.CategoryDto;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Category queries over R2DBC, against the table created by the JPA back end.
+ */
+@Repository
+public class CategoryReadRepository {
+
+    private static final String SELECT = "select id, name, description, created_at, updated_at from category ";
+
+    private final DatabaseClient databaseClient;
+
+    public CategoryReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<CategoryDto> findAll() {
+        return databaseClient.sql(SELECT + "order by id")
+                .map(CategoryReadRepository::toCategory)
+                .all();
+    }
+
+    public Mono<CategoryDto> findById(Long id) {
+        return databaseClient.sql(SELECT + "where id = :id")
+                .bind("id", id)
+                .map(CategoryReadRepository::toCategory)
+                .one();
+    }
+
+    private static CategoryDto toCategory(Readable row) {
+        return CategoryDto.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .auditInfo(new CategoryDto.AuditInfo(row.get("created_at", LocalDateTime.class),
+                        row.get("updated_at", LocalDateTime.class)))
+                .build();
+    }
+}
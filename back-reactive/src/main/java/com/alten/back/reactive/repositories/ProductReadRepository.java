@@ -0,0 +1,131 @@
+package com.alten.back.reactive.repositories;
+
+import com.alten.back.reactive.dtos.ProductDetail;
+import com.alten.back.reactive.dtos.ProductListItem;
+import com.alten.back.reactive.enums.InventoryStatus;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Product queries over R2DBC, against the tables created by the JPA back end.
+ *
+ * <p>Listings are returned as a {@link Flux} of rows decoded one by one: the driver fetches them in batches of
+ * {@code fetchSize} as the subscriber requests more, so a slow client slows the query down instead of having the whole
+ * catalog buffered in memory.
+ */
+@Repository
+public class ProductReadRepository {
+
+    private static final String LIST_SELECT = "select p.id, p.code, p.name, p.description, p.image, p.price, p.quantity, "
+            + "p.inventory_status, p.rating, c.id as category_id, c.name as category_name "
+            + "from product p left join category c on c.id = p.category_id ";
+
+    private static final String DETAIL_SELECT = "select p.id, p.code, p.name, p.description, p.image, p.price, p.quantity, "
+            + "p.internal_reference, p.inventory_status, p.rating, p.shell_id, c.id as category_id, c.name as category_name, "
+            + "p.created_at, p.updated_at from product p left join category c on c.id = p.category_id ";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public ProductReadRepository(DatabaseClient databaseClient,
+                                 @Value("${product.read.fetch-size:256}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    public Flux<ProductListItem> findAllListItems() {
+        return databaseClient.sql(LIST_SELECT + "order by p.id")
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ProductReadRepository::toListItem)
+                .all();
+    }
+
+    public Flux<ProductListItem> findListItemsByCategoryId(Long categoryId) {
+        return databaseClient.sql(LIST_SELECT + "where p.category_id = :categoryId order by p.id")
+                .bind("categoryId", categoryId)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ProductReadRepository::toListItem)
+                .all();
+    }
+
+    public Mono<ProductDetail> findDetailById(Long id) {
+        return databaseClient.sql(DETAIL_SELECT + "where p.id = :id")
+                .bind("id", id)
+                .map(ProductReadRepository::toDetail)
+                .one();
+    }
+
+    /**
+     * Returns the {@code image} column of a product, empty if the product does not exist or has no image.
+     */
+    public Mono<String> findImageById(Long id) {
+        return databaseClient.sql("select image from product where id = :id and image is not null")
+                .bind("id", id)
+                .map(row -> row.get("image", String.class))
+                .one();
+    }
+
+    /**
+     * Returns the content type recorded for a content-addressed image.
+     */
+    public Mono<String> findImageContentType(String digest) {
+        return databaseClient.sql("select content_type from image_blob where digest = :digest")
+                .bind("digest", digest)
+                .map(row -> row.get("content_type", String.class))
+                .one();
+    }
+
+    private static ProductListItem toListItem(Readable row) {
+        return ProductListItem.builder()
+                .id(row.get("id", Long.class))
+                .code(row.get("code", String.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .image(row.get("image", String.class))
+                .price(row.get("price", Double.class))
+                .quantity(intValue(row.get("quantity", Integer.class)))
+                .inventoryStatus(status(row.get("inventory_status", String.class)))
+                .rating(doubleValue(row.get("rating", Double.class)))
+                .categoryId(row.get("category_id", Long.class))
+                .categoryName(row.get("category_name", String.class))
+                .build();
+    }
+
+    private static ProductDetail toDetail(Readable row) {
+        return ProductDetail.builder()
+                .id(row.get("id", Long.class))
+                .code(row.get("code", String.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .image(row.get("image", String.class))
+                .price(row.get("price", Double.class))
+                .quantity(intValue(row.get("quantity", Integer.class)))
+                .internalReference(row.get("internal_reference", String.class))
+                .inventoryStatus(status(row.get("inventory_status", String.class)))
+                .rating(doubleValue(row.get("rating", Double.class)))
+                .shellId(intValue(row.get("shell_id", Integer.class)))
+                .categoryId(row.get("category_id", Long.class))
+                .categoryName(row.get("category_name", String.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+
+    private static InventoryStatus status(String value) {
+        return value != null ? InventoryStatus.valueOf(value) : null;
+    }
+
+    private static int intValue(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private static double doubleValue(Double value) {
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,12 @@
+package com.alten.back.reactive.services;
+
+import com.alten.back.reactive.dtos.CategoryDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface CategoryReadService {
+
+    Flux<CategoryDto> getAllCategories();
+
+    Mono<CategoryDto> getCategoryById(Long id);
+}
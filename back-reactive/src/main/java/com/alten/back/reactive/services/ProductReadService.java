@@ -0,0 +1,19 @@
+package com.alten.back.reactive.services;
+
+import com.alten.back.reactive.dtos.ProductDetail;
+import com.alten.back.reactive.dtos.ProductListItem;
+import com.alten.back.reactive.dtos.StoredImage;
+import com.alten.back.reactive.enums.ImageRendition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ProductReadService {
+
+    Flux<ProductListItem> getAllProducts();
+
+    Flux<ProductListItem> getProductsByCategory(Long categoryId);
+
+    Mono<ProductDetail> getProductById(Long id);
+
+    Mono<StoredImage> getProductImage(Long id, ImageRendition size);
+}
@@ -0,0 +1,42 @@
+package com.alten.back.reactive.services.impl;
+
+import com.alten.back.reactive.dtos.CategoryDto;
+import com.alten.back.reactive.repositories.CategoryReadRepository;
+import com.alten.back.reactive.services.CategoryReadService;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class CategoryReadServiceImpl implements CategoryReadService {
+
+    private final CategoryReadRepository categoryReadRepository;
+
+    public CategoryReadServiceImpl(CategoryReadRepository categoryReadRepository) {
+        this.categoryReadRepository = categoryReadRepository;
+    }
+
+    /**
+     * Streams every category.
+     *
+     * @return the categories ordered by id
+     */
+    @Override
+    public Flux<CategoryDto> getAllCategories() {
+        return categoryReadRepository.findAll();
+    }
+
+    /**
+     * Retrieves a category by its id.
+     *
+     * @param id : the id of the category
+     * @return the category, or an error with status 404 if it does not exist
+     */
+    @Override
+    public Mono<CategoryDto> getCategoryById(Long id) {
+        return categoryReadRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found with ID: " + id)));
+    }
+}
@@ -0,0 +1,148 @@
+package com.alten.back.reactive.services.impl;
+
+import com.alten.back.reactive.dtos.ProductDetail;
+import com.alten.back.reactive.dtos.ProductListItem;
+import com.alten.back.reactive.dtos.StoredImage;
+import com.alten.back.reactive.enums.ImageRendition;
+import com.alten.back.reactive.repositories.ProductReadRepository;
+import com.alten.back.reactive.services.ProductReadService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+@Service
+public class ProductReadServiceImpl implements ProductReadService {
+
+    private static final Pattern DIGEST_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final ProductReadRepository productReadRepository;
+    private final String storageDirectory;
+
+    public ProductReadServiceImpl(ProductReadRepository productReadRepository,
+                                  @Value("${file.storage.directory}") String storageDirectory) {
+        this.productReadRepository = productReadRepository;
+        this.storageDirectory = storageDirectory;
+    }
+
+    /**
+     * Streams the whole catalog.
+     *
+     * <p>Rows are emitted as the database returns them and only as fast as the subscriber requests them; nothing is
+     * collected, so memory use does not grow with the size of the catalog.
+     * </p>
+     *
+     * @return the products ordered by id
+     */
+    @Override
+    public Flux<ProductListItem> getAllProducts() {
+        return productReadRepository.findAllListItems();
+    }
+
+    /**
+     * Streams the products of one category.
+     *
+     * @param categoryId : the id of the category
+     * @return the products of the category ordered by id, empty if the category does not exist
+     */
+    @Override
+    public Flux<ProductListItem> getProductsByCategory(Long categoryId) {
+        return productReadRepository.findListItemsByCategoryId(categoryId);
+    }
+
+    /**
+     * Retrieves a product by its id.
+     *
+     * @param id : the id of the product
+     * @return the product, or an error with status 404 if it does not exist
+     */
+    @Override
+    public Mono<ProductDetail> getProductById(Long id) {
+        return productReadRepository.findDetailById(id)
+                .switchIfEmpty(Mono.error(() -> notFound("Product not found with ID: " + id)));
+    }
+
+    /**
+     * Resolves the image of a product to the file to stream.
+     *
+     * <p>Renditions are only served once the back end has generated them; until then the original is returned, as
+     * told by {@link StoredImage#getRendition()}.
+     * The file system checks run on the bounded elastic scheduler, since they block.
+     * </p>
+     *
+     * @param id : the id of the product
+     * @param size : the requested rendition
+     * @return the image file, or an error with status 404 if the product, its image or the file does not exist
+     */
+    @Override
+    public Mono<StoredImage> getProductImage(Long id, ImageRendition size) {
+        return productReadRepository.findImageById(id)
+                .switchIfEmpty(Mono.error(() -> notFound("Product has no image with ID: " + id)))
+                .flatMap(image -> {
+                    if (!DIGEST_PATTERN.matcher(image).matches()) {
+                        return readable(new StoredImage(null, legacyContentType(image),
+                                new FileSystemResource(Paths.get(image).toAbsolutePath()), ImageRendition.ORIGINAL));
+                    }
+                    return productReadRepository.findImageContentType(image)
+                            .switchIfEmpty(Mono.error(() -> notFound("Image not found with digest: " + image)))
+                            .flatMap(contentType -> Mono.fromCallable(() -> resolve(image, MediaType.parseMediaType(contentType), size))
+                                    .subscribeOn(Schedulers.boundedElastic()));
+                });
+    }
+
+    private StoredImage resolve(String digest, MediaType contentType, ImageRendition size) {
+        if (size != ImageRendition.ORIGINAL) {
+            for (MediaType mediaType : new MediaType[]{MediaType.IMAGE_JPEG, MediaType.IMAGE_PNG}) {
+                Path path = renditionPath(digest, size, mediaType);
+                if (Files.isReadable(path)) {
+                    return new StoredImage(digest, mediaType, new FileSystemResource(path), size);
+                }
+            }
+        }
+        Path path = Paths.get(storageDirectory, "blobs", digest.substring(0, 2), digest.substring(2, 4), digest).toAbsolutePath();
+        if (!Files.isReadable(path)) {
+            throw notFound("Image file not found for digest: " + digest);
+        }
+        return new StoredImage(digest, contentType, new FileSystemResource(path), ImageRendition.ORIGINAL);
+    }
+
+    private Mono<StoredImage> readable(StoredImage image) {
+        return Mono.fromCallable(() -> {
+            if (!image.getResource().isReadable()) {
+                throw notFound("Image file not found: " + image.getResource().getPath());
+            }
+            return image;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Path renditionPath(String digest, ImageRendition rendition, MediaType mediaType) {
+        return Paths.get(storageDirectory, "renditions", rendition.name().toLowerCase(Locale.ROOT),
+                digest.substring(0, 2), digest.substring(2, 4), digest + "." + mediaType.getSubtype()).toAbsolutePath();
+    }
+
+    private MediaType legacyContentType(String image) {
+        String extension = image.substring(image.lastIndexOf(".") + 1).toLowerCase(Locale.ROOT);
+        return switch (extension) {
+            case "png" -> MediaType.IMAGE_PNG;
+            case "jpg", "jpeg" -> MediaType.IMAGE_JPEG;
+            case "gif" -> MediaType.IMAGE_GIF;
+            case "pdf" -> MediaType.APPLICATION_PDF;
+            default -> MediaType.APPLICATION_OCTET_STREAM;
+        };
+    }
+
+    private static ResponseStatusException notFound(String message) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, message);
+    }
+}
@@ -0,0 +1,111 @@
+package com.alten.back.reactive.controllers;
+
+import com.alten.back.reactive.dtos.ProductDetail;
+import com.alten.back.reactive.dtos.ProductListItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+class ProductReadControllerTest {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	@Value("${file.storage.directory}")
+	private String storageDirectory;
+
+	@Test
+	void streamsTheCatalogAsNdjsonOnDemand() {
+		Flux<ProductListItem> products = webTestClient.get().uri("/products")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.returnResult(ProductListItem.class)
+				.getResponseBody();
+
+		StepVerifier.create(products, 10)
+				.expectNextCount(10)
+				.thenRequest(990)
+				.expectNextCount(990)
+				.verifyComplete();
+	}
+
+	@Test
+	void filtersByCategory() {
+		webTestClient.get().uri("/products?categoryId=1")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(ProductListItem.class)
+				.hasSize(500)
+				.value(products -> products.forEach(product -> assertEquals(1L, product.getCategoryId())));
+	}
+
+	@Test
+	void returnsTheDetailOrNotFound() {
+		webTestClient.get().uri("/products/42")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(ProductDetail.class)
+				.value(product -> {
+					assertEquals("P42", product.getCode());
+					assertEquals("Accessories", product.getCategoryName());
+				});
+
+		webTestClient.get().uri("/products/4242").exchange().expectStatus().isNotFound();
+		webTestClient.get().uri("/products/productImage/42").exchange().expectStatus().isNotFound();
+	}
+
+	@Test
+	void pendingRenditionIsTheOriginalUnderItsOwnETag() throws Exception {
+		String digest = "e".repeat(64);
+		Path original = Paths.get(storageDirectory, "blobs", "ee", "ee", digest);
+		Files.createDirectories(original.getParent());
+		Files.write(original, new byte[]{1, 2, 3});
+		Path thumbnail = Paths.get(storageDirectory, "renditions", "thumbnail", "ee", "ee", digest + ".png");
+		Files.deleteIfExists(thumbnail);
+		databaseClient.sql("insert into image_blob values (:digest, 'image/png', 3, 1, current_timestamp, null)")
+				.bind("digest", digest).then()
+				.then(databaseClient.sql("update product set image = :digest where id = 43").bind("digest", digest).then())
+				.block();
+
+		webTestClient.get().uri("/products/productImage/43?size=THUMBNAIL")
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals("ETag", "\"" + digest + "\"")
+				.expectHeader().cacheControl(CacheControl.noCache())
+				.expectBody(byte[].class).isEqualTo(new byte[]{1, 2, 3});
+
+		Files.createDirectories(thumbnail.getParent());
+		Files.write(thumbnail, new byte[]{4});
+
+		// A client holding the original revalidates it against the rendition and gets the rendition
+		webTestClient.get().uri("/products/productImage/43?size=THUMBNAIL")
+				.header("If-None-Match", "\"" + digest + "\"")
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals("ETag", "\"" + digest + "-thumbnail\"")
+				.expectHeader().cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePublic().mustRevalidate())
+				.expectBody(byte[].class).isEqualTo(new byte[]{4});
+	}
+}
@@ -0,0 +1,5 @@
+insert into category values (1, 'Accessories', 'Small items', timestamp '2024-01-01 00:00:00', null);
+insert into category values (2, 'Clothing', 'Things to wear', timestamp '2024-01-01 00:00:00', null);
+insert into product select x, 'P' || x, 'Product ' || x, 'Description ' || x, null, 10.0 + x, x, 'REF' || x, 'INSTOCK', 4.5, 0,
+    case when mod(x, 2) = 0 then 1 else 2 end, timestamp '2024-01-01 00:00:00', timestamp '2024-01-02 00:00:00'
+    from system_range(1, 1000);
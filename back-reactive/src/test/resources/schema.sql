@@ -0,0 +1,8 @@
+create table category (id bigint primary key, name varchar(255), description varchar(255),
+    created_at timestamp not null, updated_at timestamp);
+create table product (id bigint primary key, code varchar(255) not null, name varchar(255) not null,
+    description varchar(500) not null, image varchar(255), price double precision not null, quantity int not null,
+    internal_reference varchar(255) not null, inventory_status varchar(255) not null, rating double precision not null,
+    shell_id int not null, category_id bigint references category, created_at timestamp not null, updated_at timestamp);
+create table image_blob (digest varchar(64) primary key, content_type varchar(255) not null, size bigint not null,
+    reference_count int not null, created_at timestamp not null, updated_at timestamp);
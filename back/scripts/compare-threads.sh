@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Compares request handling on platform threads (default) and virtual threads (Spring profile "virtual").
+#
+# Each mode is started from the same jar, then loaded by the back-loadtest module at a fixed arrival rate, split
+# evenly between the product detail and catalog page, which block on JDBC, and the image download, which blocks on
+# file I/O. The load test seeds its own catalog, with images, through the API, and reports per endpoint the
+# throughput and p50/p99/p99.9 latencies measured from each request's scheduled start. Pinned virtual threads, if
+# any, are counted from the application log of the virtual run.
+#
+# Requires Java 21 for the virtual mode. The database is the one configured for the application; override it with
+# the usual SPRING_DATASOURCE_* variables. LOADER_PATH adds jars to the application classpath, such as the H2 driver
+# for a run without PostgreSQL. MODES selects the modes to run, MVN the Maven launcher.
+#
+# Usage: scripts/compare-threads.sh [rate] [duration] [products]
+#   e.g. MODES=platform MVN=mvn scripts/compare-threads.sh 300 PT30S 2000
+set -euo pipefail
+
+RATE="${1:-400}"
+DURATION="${2:-PT30S}"
+PRODUCTS="${3:-2000}"
+MODES="${MODES:-platform virtual}"
+MVN="${MVN:-./mvnw}"
+PORT=8081
+BASE="http://localhost:${PORT}/api"
+cd "$(dirname "$0")/.."
+
+$MVN -B -q -DskipTests install
+(cd ../back-loadtest && $MVN -B -q compile)
+JAR="$(ls target/*-exec.jar | head -n 1)"
+
+run() {
+    local mode="$1"; shift
+    local log="target/compare-${mode}.log"
+    if [ -n "${LOADER_PATH:-}" ]; then
+        java -Djdk.tracePinnedThreads=short -Dloader.path="$LOADER_PATH" -cp "$JAR" \
+            org.springframework.boot.loader.launch.PropertiesLauncher --server.port="$PORT" "$@" >"$log" 2>&1 &
+    else
+        java -Djdk.tracePinnedThreads=short -jar "$JAR" --server.port="$PORT" "$@" >"$log" 2>&1 &
+    fi
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+    local waited=0
+    until curl -sf -o /dev/null "${BASE}/categories"; do
+        if ! kill -0 "$pid" 2>/dev/null || [ "$waited" -ge 120 ]; then
+            echo "== ${mode} did not start, see ${log}" >&2
+            tail -n 5 "$log" >&2
+            trap - EXIT
+            return 1
+        fi
+        sleep 1
+        waited=$((waited + 1))
+    done
+
+    echo "== ${mode}"
+    (cd ../back-loadtest && $MVN -B -q exec:exec -Dloadtest.args="-base-url=${BASE} -products=${PRODUCTS} \
+        -image-products=50 -rate=${RATE} -warmup=PT10S -duration=${DURATION} -mix=detail=1,list=1,image=1 \
+        -report-dir=$(pwd)/target/compare-${mode}") | grep -E "^(endpoint|list|detail|image) "
+    echo "== ${mode} pinned threads: $(grep -c "pinned" "$log" || true)"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+for mode in $MODES; do
+    if [ "$mode" = virtual ]; then
+        run virtual --spring.profiles.active=virtual || true
+    else
+        run platform || true
+    fi
+done
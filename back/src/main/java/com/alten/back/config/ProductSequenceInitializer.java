@@ -0,0 +1,45 @@
+package com.alten.back.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves {@code product_seq} past the ids already in the {@code product} table.
+ *
+ * <p>Product ids used to come from an identity column. When an existing database is upgraded, Hibernate creates the
+ * sequence starting at 1, which would hand out ids already taken. The sequence is only ever moved forward. Only
+ * PostgreSQL databases are aligned; the other databases, such as the in-memory H2 of the tests, start empty.
+ */
+@Slf4j
+@Component
+public class ProductSequenceInitializer implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            log.debug("Skipping the product_seq alignment on {}", database);
+            return;
+        }
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from product", Long.class);
+        Long lastValue = jdbcTemplate.queryForObject("select last_value from product_seq", Long.class);
+        // Hibernate's pooled optimizer hands out the ids up to the last value of the sequence, so only an id at or
+        // past it is outside the allocated blocks; greatest() keeps the move forward if another instance allocates.
+        if (maxId != null && lastValue != null && maxId >= lastValue) {
+            jdbcTemplate.queryForObject("select setval('product_seq', greatest(?, last_value)) from product_seq",
+                    Long.class, maxId);
+            log.info("Moved product_seq past the existing product ids (max id {})", maxId);
+        }
+    }
+}
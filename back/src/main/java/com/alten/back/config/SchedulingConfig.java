@@ -0,0 +1,12 @@
+package com.alten.back.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the periodic jobs, such as the release of expired stock reservations.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
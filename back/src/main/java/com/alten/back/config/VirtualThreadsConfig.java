@@ -0,0 +1,37 @@
+package com.alten.back.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+/**
+ * Guards the {@code virtual} profile, which handles requests and scheduled jobs on virtual threads.
+ *
+ * <p>Spring Boot silently keeps platform threads when {@code spring.threads.virtual.enabled} is set on a runtime
+ * older than Java 21; the profile also shrinks the connection pool timeouts, so starting it on platform threads would
+ * measure neither mode. Startup fails instead.
+ */
+@Slf4j
+@Configuration
+@Profile("virtual")
+public class VirtualThreadsConfig {
+
+    private final Environment environment;
+
+    public VirtualThreadsConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    @PostConstruct
+    public void checkRuntime() {
+        if (!Threading.VIRTUAL.isActive(environment)) {
+            throw new IllegalStateException("The virtual profile requires Java 21 or later and spring.threads.virtual.enabled=true, running on Java "
+                    + Runtime.version().feature());
+        }
+        log.info("Handling requests on virtual threads, with at most {} database connections",
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", "10"));
+    }
+}
@@ -1,10 +1,13 @@
 package com.alten.back.controllers;
 
 import com.alten.back.controllers.api.CategoryApi;
+import com.alten.back.dtos.CategoryStatistics;
 import com.alten.back.entities.Category;
 import com.alten.back.services.CategoryServices;
+import com.alten.back.services.cache.CatalogVersions;
 import core.exceptions.ExceptionClass;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -12,57 +15,48 @@ import java.util.List;
 @RequestMapping("/categories")
 public class CategoryController implements CategoryApi {
     private final CategoryServices categoryService;
+    private final CatalogVersions catalogVersions;
 
-    public CategoryController(CategoryServices categoryService) {
+    public CategoryController(CategoryServices categoryService, CatalogVersions catalogVersions) {
         this.categoryService = categoryService;
+        this.catalogVersions = catalogVersions;
     }
 
     @PostMapping()
-    public Category saveCategory(@RequestBody Category category){
-        try {
-            return categoryService.saveCategory(category);
-        } catch (ExceptionClass e) {
-            e.printStackTrace();
-        }
-        return category;
+    public Category saveCategory(@RequestBody Category category) throws ExceptionClass {
+        return categoryService.saveCategory(category);
     }
 
     @PatchMapping()
-    public Category editCategory(@RequestBody Category category){
-        try {
-            return categoryService.updateCategory(category);
-        } catch (ExceptionClass e) {
-            e.printStackTrace();
-        }
-        return category;
+    public Category editCategory(@RequestBody Category category) throws ExceptionClass {
+        return categoryService.updateCategory(category);
     }
 
     @GetMapping()
-    public List<Category> getAllCategories(){
-        try {
-            return categoryService.getAllCategories();
-        } catch (ExceptionClass e) {
-            e.printStackTrace();
+    public List<Category> getAllCategories(WebRequest request) throws ExceptionClass {
+        if (request.checkNotModified(catalogVersions.categoriesETag())) {
+            return null;
         }
-        return null;
+        return categoryService.getAllCategories();
+    }
+
+    @GetMapping("/statistics")
+    public List<CategoryStatistics> getCategoryStatistics() throws ExceptionClass {
+        return categoryService.getCategoryStatistics();
+    }
+
+    @PostMapping("/statistics/rebuild")
+    public List<CategoryStatistics> rebuildCategoryStatistics() throws ExceptionClass {
+        return categoryService.rebuildCategoryStatistics();
     }
 
     @GetMapping("/{id}")
-    public Category getCategoryById(@PathVariable("id") Long id){
-        try {
-            return categoryService.getCategoryById(id);
-        } catch (ExceptionClass e) {
-            e.printStackTrace();
-        }
-        return null;
+    public Category getCategoryById(@PathVariable("id") Long id) throws ExceptionClass {
+        return categoryService.getCategoryById(id);
     }
 
     @DeleteMapping("/{categoryId}")
-    public void deleteCategoryById(@PathVariable("categoryId") Long categoryId){
-        try {
-            categoryService.deleteCategory(categoryId);
-        } catch (ExceptionClass e) {
-            e.printStackTrace();
-        }
+    public void deleteCategoryById(@PathVariable("categoryId") Long categoryId) throws ExceptionClass {
+        categoryService.deleteCategory(categoryId);
     }
 }
@@ -1,41 +1,114 @@
 package com.alten.back.controllers;
 
 import com.alten.back.controllers.api.ProductApi;
+import com.alten.back.controllers.support.FileResponses;
+import com.alten.back.dtos.BulkProductUpdate;
+import com.alten.back.dtos.BulkUpdateResult;
+import com.alten.back.dtos.CacheStatistics;
+import com.alten.back.dtos.ImportReport;
+import com.alten.back.dtos.PageResponse;
+import com.alten.back.dtos.ProductBrowseRequest;
+import com.alten.back.dtos.ProductBrowseResult;
+import com.alten.back.dtos.ProductChanges;
+import com.alten.back.dtos.ProductDetail;
 import com.alten.back.dtos.ProductDto;
-import com.alten.back.entities.Product;
+import com.alten.back.dtos.ProductListItem;
+import com.alten.back.dtos.ProductPageRequest;
+import com.alten.back.dtos.StoredImage;
+import com.alten.back.enums.CatalogFormat;
+import com.alten.back.enums.ImageRendition;
 import com.alten.back.enums.InventoryStatus;
+import com.alten.back.services.ImageRenditionService;
+import com.alten.back.services.ImageStorageService;
+import com.alten.back.services.ProductExportService;
+import com.alten.back.services.ProductImportService;
 import com.alten.back.services.ProductService;
+import com.alten.back.services.ProductSyncService;
+import com.alten.back.services.cache.CatalogSnapshot;
+import com.alten.back.services.cache.CatalogVersions;
+import com.alten.back.services.stream.ProductChangeBroadcaster;
 import core.exceptions.ExceptionClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/products")
 public class ProductController implements ProductApi {
 
+    /**
+     * Images may be replaced through {@code PATCH /{id}/image}, so caches keep them for a day and revalidate with the ETag.
+     */
+    private static final CacheControl IMAGE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(1)).cachePublic().mustRevalidate();
+
+    /**
+     * Content-addressed image URLs never change their content, so caches may keep them for a year without revalidating.
+     */
+    private static final CacheControl IMMUTABLE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    /**
+     * Used when the original is served in place of a rendition that is still being generated.
+     */
+    private static final CacheControl PENDING_RENDITION_CACHE_CONTROL = CacheControl.noCache();
+
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final ProductService productService;
+    private final ProductExportService productExportService;
+    private final ImageStorageService imageStorageService;
+    private final ImageRenditionService imageRenditionService;
+    private final ProductImportService productImportService;
+    private final ProductSyncService productSyncService;
+    private final ProductChangeBroadcaster productChangeBroadcaster;
+    private final CatalogVersions catalogVersions;
+    private final CatalogSnapshot catalogSnapshot;
+    private final MeterRegistry meterRegistry;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductExportService productExportService,
+                             ImageStorageService imageStorageService, ImageRenditionService imageRenditionService,
+                             ProductImportService productImportService, ProductSyncService productSyncService,
+                             ProductChangeBroadcaster productChangeBroadcaster, CatalogVersions catalogVersions,
+                             CatalogSnapshot catalogSnapshot, MeterRegistry meterRegistry) {
         this.productService = productService;
+        this.productExportService = productExportService;
+        this.productImportService = productImportService;
+        this.productSyncService = productSyncService;
+        this.productChangeBroadcaster = productChangeBroadcaster;
+        this.catalogVersions = catalogVersions;
+        this.catalogSnapshot = catalogSnapshot;
+        this.imageStorageService = imageStorageService;
+        this.imageRenditionService = imageRenditionService;
+        this.meterRegistry = meterRegistry;
     }
 
     @PostMapping("/save")
-    public Product createProduct(@RequestBody ProductDto productDto) throws ExceptionClass {
+    public ProductDetail createProduct(@RequestBody ProductDto productDto) throws ExceptionClass {
         return productService.savewithoutImage(productDto);
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @ApiResponse(useReturnTypeSchema = true)
-    public Product saveProduct(@RequestParam("file") MultipartFile file,
+    public ProductDetail saveProduct(@RequestParam("file") MultipartFile file,
                               @RequestParam("code") String code,
                               @RequestParam("name") String name,
                               @RequestParam("description") String description,
@@ -59,24 +132,98 @@ public class ProductController implements ProductApi {
         return productService.save(file, productDto);
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ImportReport importProducts(HttpServletRequest request) throws IOException, ExceptionClass {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        CatalogFormat format = "csv".equalsIgnoreCase(contentType.getSubtype()) ? CatalogFormat.CSV : CatalogFormat.NDJSON;
+        return productImportService.importProducts(format, request.getInputStream());
+    }
+
     @GetMapping()
-    public List<Product> getAllProducts() throws ExceptionClass {
-        return productService.getAllProducts();
+    public ResponseEntity<?> getAllProducts(WebRequest request,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) throws ExceptionClass {
+        CatalogSnapshot.Snapshot snapshot = catalogSnapshot.current();
+        if (request.checkNotModified(snapshot != null ? snapshot.etag() : catalogVersions.catalogETag())) {
+            return null;
+        }
+        if (snapshot == null) {
+            return ResponseEntity.ok(productService.getAllProducts());
+        }
+        CatalogSnapshot.Encoded encoded = snapshot.select(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(encoded.body().length)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!CatalogSnapshot.IDENTITY.equals(encoded.encoding())) {
+            response.header(HttpHeaders.CONTENT_ENCODING, encoded.encoding());
+        }
+        return response.body(encoded.body());
+    }
+
+    @GetMapping("/search")
+    public List<ProductListItem> searchProducts(@RequestParam("q") String query,
+                                                @RequestParam(value = "limit", defaultValue = "20") int limit) throws ExceptionClass {
+        return productService.searchProducts(query, Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS));
+    }
+
+    @GetMapping("/page")
+    public PageResponse<ProductListItem> getProductsPage(@ParameterObject ProductPageRequest pageRequest) throws ExceptionClass {
+        return productService.getProductsPage(pageRequest);
+    }
+
+    @GetMapping("/browse")
+    public ProductBrowseResult browseProducts(@ParameterObject ProductBrowseRequest browseRequest) throws ExceptionClass {
+        return productService.browseProducts(browseRequest);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(value = "format", defaultValue = "NDJSON") CatalogFormat format) {
+        MediaType mediaType = format == CatalogFormat.CSV ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON;
+        String fileName = "products." + format.name().toLowerCase();
+        StreamingResponseBody body = outputStream -> productExportService.exportProducts(format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/changes")
+    public ProductChanges getProductChanges(@RequestParam(value = "since", required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) throws ExceptionClass {
+        return productSyncService.getChangesSince(since);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProductChanges(@RequestParam(value = "categoryId", required = false) Long categoryId) throws ExceptionClass {
+        return productChangeBroadcaster.subscribe(categoryId);
+    }
+
+    @GetMapping("/cache/stats")
+    public List<CacheStatistics> getCacheStatistics() {
+        return productService.getCacheStatistics();
     }
 
     @GetMapping("/{id}")
-    public Product getProduct(@PathVariable("id") Long id) throws ExceptionClass {
+    public ProductDetail getProduct(@PathVariable("id") Long id, WebRequest request) throws ExceptionClass {
+        if (request.checkNotModified(catalogVersions.productETag(id))) {
+            return null;
+        }
         return productService.getProductById(id);
     }
 
     @PatchMapping("/{id}")
     @ApiResponse(useReturnTypeSchema = true)
-    public Product updateProduct(@PathVariable("id") Long id, @RequestBody ProductDto updatedProduct) throws ExceptionClass {
+    public ProductDetail updateProduct(@PathVariable("id") Long id, @RequestBody ProductDto updatedProduct) throws ExceptionClass {
         return productService.updateProductById(id, updatedProduct);
     }
+    @PatchMapping()
+    public BulkUpdateResult bulkUpdateProducts(@RequestBody List<BulkProductUpdate> updates) throws ExceptionClass {
+        return productService.bulkUpdateProducts(updates);
+    }
+
     @PatchMapping(path = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @ApiResponse(useReturnTypeSchema = true)
-    public Product updateProductImage(@PathVariable("id") Long id,
+    public ProductDetail updateProductImage(@PathVariable("id") Long id,
                                       @RequestParam("image") MultipartFile image) throws ExceptionClass {
         return productService.updateImageProductById(id, image);
     }
@@ -87,26 +234,62 @@ public class ProductController implements ProductApi {
     }
 
     @GetMapping(path = "/productImage/{productId}")
-    public ResponseEntity<byte[]> getProductImage(@PathVariable Long productId) throws IOException, ExceptionClass {
-        Product product =  productService.getProductById(productId);
-
-        String relativeFilePath = product.getImage();
-
-        Path filePath = Paths.get(relativeFilePath).toAbsolutePath();
+    public ResponseEntity<Resource> getProductImage(@PathVariable Long productId,
+                                                    @RequestParam(value = "size", defaultValue = "ORIGINAL") ImageRendition size,
+                                                    HttpServletRequest request) throws IOException, ExceptionClass {
+        StoredImage image = productService.getProductImageById(productId);
+        if (image.getDigest() == null) {
+            return countServed(FileResponses.serve(image.getResource(), image.getContentType(), IMAGE_CACHE_CONTROL, request),
+                    image, "legacy", request);
+        }
+        return serveRendition(image, size, IMAGE_CACHE_CONTROL, request);
+    }
 
-        String extension = relativeFilePath.substring(relativeFilePath.lastIndexOf(".") + 1).toLowerCase();
-        MediaType mediaType = switch (extension.toLowerCase()){
-            case "png" -> MediaType.IMAGE_PNG;
-            case "jpg", "jpeg" -> MediaType.IMAGE_JPEG;
-            case "gif" -> MediaType.IMAGE_GIF;
-            case "pdf" -> MediaType.APPLICATION_PDF;
-            default -> MediaType.APPLICATION_OCTET_STREAM;
-        };
+    @GetMapping(path = "/images/{digest}")
+    public ResponseEntity<Resource> getImage(@PathVariable String digest,
+                                             @RequestParam(value = "size", defaultValue = "ORIGINAL") ImageRendition size,
+                                             HttpServletRequest request) throws IOException, ExceptionClass {
+        if (!imageStorageService.isDigest(digest)) {
+            return ResponseEntity.notFound().build();
+        }
+        return serveRendition(imageStorageService.load(digest), size, IMMUTABLE_CACHE_CONTROL, request);
+    }
 
-        byte[] fileBytes = Files.readAllBytes(filePath);
+    /**
+     * Serves the requested rendition of a content-addressed image. Until the rendition has been generated the original
+     * is served instead, with a short cache lifetime so that clients pick up the rendition once it is ready.
+     */
+    private ResponseEntity<Resource> serveRendition(StoredImage original, ImageRendition size, CacheControl cacheControl,
+                                                    HttpServletRequest request) throws IOException {
+        if (size == ImageRendition.ORIGINAL) {
+            return countServed(FileResponses.serve(original.getResource(), original.getContentType(), cacheControl,
+                    "\"" + original.getDigest() + "\"", request), original, "original", request);
+        }
+        Optional<StoredImage> rendition = imageRenditionService.findRendition(original.getDigest(), size);
+        if (rendition.isEmpty()) {
+            return countServed(FileResponses.serve(original.getResource(), original.getContentType(),
+                    PENDING_RENDITION_CACHE_CONTROL, "\"" + original.getDigest() + "\"", request), original, "original", request);
+        }
+        return countServed(FileResponses.serve(rendition.get().getResource(), rendition.get().getContentType(), cacheControl,
+                "\"" + original.getDigest() + "-" + size.name().toLowerCase() + "\"", request), rendition.get(),
+                size.name().toLowerCase(), request);
+    }
 
-        return ResponseEntity.ok()
-                .contentType(mediaType)
-                .body(fileBytes);
+    /**
+     * Counts the image bytes about to be written by a full response as {@code images.served}, per rendition. Not
+     * modified responses send no body, and range requests are left out since their length is only known once Spring
+     * has parsed the ranges.
+     */
+    private ResponseEntity<Resource> countServed(ResponseEntity<Resource> response, StoredImage image, String rendition,
+                                                 HttpServletRequest request) throws IOException {
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.OK) && request.getHeader(HttpHeaders.RANGE) == null) {
+            Counter.builder("images.served")
+                    .description("Bytes of image content served in full responses")
+                    .baseUnit("bytes")
+                    .tag("rendition", rendition)
+                    .register(meterRegistry)
+                    .increment(image.getResource().contentLength());
+        }
+        return response;
     }
 }
\ No newline at end of file
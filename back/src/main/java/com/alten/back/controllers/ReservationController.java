@@ -0,0 +1,40 @@
+package com.alten.back.controllers;
+
+import com.alten.back.controllers.api.ReservationApi;
+import com.alten.back.dtos.ReservationDto;
+import com.alten.back.dtos.ReservationRequest;
+import com.alten.back.services.StockReservationService;
+import core.exceptions.ExceptionClass;
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/reservations")
+public class ReservationController implements ReservationApi {
+
+    private final StockReservationService stockReservationService;
+
+    public ReservationController(StockReservationService stockReservationService) {
+        this.stockReservationService = stockReservationService;
+    }
+
+    @PostMapping()
+    public ReservationDto reserve(@Valid @RequestBody ReservationRequest request) throws ExceptionClass {
+        return stockReservationService.reserve(request);
+    }
+
+    @GetMapping("/{id}")
+    public ReservationDto getReservation(@PathVariable("id") String id) throws ExceptionClass {
+        return stockReservationService.getReservation(id);
+    }
+
+    @PostMapping("/{id}/checkout")
+    public ReservationDto checkout(@PathVariable("id") String id) throws ExceptionClass {
+        return stockReservationService.checkout(id);
+    }
+
+    @DeleteMapping("/{id}")
+    public ReservationDto release(@PathVariable("id") String id) throws ExceptionClass {
+        return stockReservationService.release(id);
+    }
+}
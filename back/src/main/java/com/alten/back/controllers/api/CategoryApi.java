@@ -1,6 +1,8 @@
 package com.alten.back.controllers.api;
 
+import com.alten.back.dtos.CategoryStatistics;
 import com.alten.back.entities.Category;
+import core.exceptions.ExceptionClass;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -39,7 +42,7 @@ public interface CategoryApi {
             }
     )
     @PostMapping()
-    Category saveCategory(@RequestBody Category category);
+    Category saveCategory(@RequestBody Category category) throws ExceptionClass;
 
     @Operation(
             summary = "Update a category",
@@ -60,15 +63,20 @@ public interface CategoryApi {
                     @ApiResponse(
                             responseCode = "400",
                             description = "Invalid object"
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Category not found"
                     )
             }
     )
     @PatchMapping()
-    Category editCategory(@RequestBody Category category);
+    Category editCategory(@RequestBody Category category) throws ExceptionClass;
 
     @Operation(
             summary = "Get all categories",
-            description = "This method allows retrieving a list of all categories.",
+            description = "This method allows retrieving a list of all categories. The response carries the categories version "
+                    + "as ETag; a request whose If-None-Match matches it is answered with 304 without reading them.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -83,11 +91,64 @@ public interface CategoryApi {
                                             )
                                     )
                             }
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Categories not modified since the ETag sent in If-None-Match"
                     )
             }
     )
     @GetMapping()
-    List<Category> getAllCategories();
+    List<Category> getAllCategories(WebRequest request) throws ExceptionClass;
+
+    @Operation(
+            summary = "Get the statistics of every category",
+            description = "This method returns, per category, the number of products, the units in stock, the stock value "
+                    + "(price x quantity) and the number of products per inventory status. The figures are kept up to "
+                    + "date in memory by the product writes, so the cost of the request does not grow with the catalog.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Statistics of the categories",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            array = @ArraySchema(
+                                                    schema = @Schema(
+                                                            implementation = CategoryStatistics.class
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            }
+    )
+    @GetMapping("/statistics")
+    List<CategoryStatistics> getCategoryStatistics() throws ExceptionClass;
+
+    @Operation(
+            summary = "Rebuild the category statistics",
+            description = "This method recomputes the category statistics from the database, to repair them after a direct "
+                    + "change to the database. It reads every product once and returns the rebuilt statistics.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Rebuilt statistics of the categories",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            array = @ArraySchema(
+                                                    schema = @Schema(
+                                                            implementation = CategoryStatistics.class
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            }
+    )
+    @PostMapping("/statistics/rebuild")
+    List<CategoryStatistics> rebuildCategoryStatistics() throws ExceptionClass;
 
     @Operation(
             summary = "Get category by ID",
@@ -119,7 +180,7 @@ public interface CategoryApi {
             }
     )
     @GetMapping("/{id}")
-    Category getCategoryById(@PathVariable("id") Long id);
+    Category getCategoryById(@PathVariable("id") Long id) throws ExceptionClass;
 
     @Operation(
             summary = "Delete category by ID",
@@ -139,10 +200,14 @@ public interface CategoryApi {
                     @ApiResponse(
                             responseCode = "404",
                             description = "Category not found"
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "Category still has products"
                     )
             }
     )
     @DeleteMapping("/{categoryId}")
-    void deleteCategoryById(@PathVariable("categoryId") Long categoryId);
+    void deleteCategoryById(@PathVariable("categoryId") Long categoryId) throws ExceptionClass;
 }
 
@@ -1,7 +1,20 @@
 package com.alten.back.controllers.api;
 
+import com.alten.back.dtos.BulkProductUpdate;
+import com.alten.back.dtos.BulkUpdateResult;
+import com.alten.back.dtos.CacheStatistics;
+import com.alten.back.dtos.ImportReport;
+import com.alten.back.dtos.PageResponse;
+import com.alten.back.dtos.ProductBrowseRequest;
+import com.alten.back.dtos.ProductBrowseResult;
+import com.alten.back.dtos.ProductChanges;
+import com.alten.back.dtos.ProductDetail;
 import com.alten.back.dtos.ProductDto;
-import com.alten.back.entities.Product;
+import com.alten.back.dtos.ProductListItem;
+import com.alten.back.dtos.ProductPageRequest;
+import com.alten.back.dtos.ProductStockUpdate;
+import com.alten.back.enums.CatalogFormat;
+import com.alten.back.enums.ImageRendition;
 import core.exceptions.ExceptionClass;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,12 +24,21 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Tag(name = "Products")
@@ -33,7 +55,7 @@ public interface ProductApi {
                                     @Content(
                                             mediaType = "application/json",
                                             schema = @Schema(
-                                                    implementation = Product.class
+                                                    implementation = ProductDetail.class
                                             )
                                     )
                             }
@@ -54,7 +76,7 @@ public interface ProductApi {
             }
     )
     @PostMapping("/save")
-    Product createProduct(@RequestBody ProductDto productDto) throws ExceptionClass;
+    ProductDetail createProduct(@RequestBody ProductDto productDto) throws ExceptionClass;
 
     @Operation(
             summary = "Create product with image",
@@ -67,7 +89,7 @@ public interface ProductApi {
                                     @Content(
                                             mediaType = "application/json",
                                             schema = @Schema(
-                                                    implementation = Product.class
+                                                    implementation = ProductDetail.class
                                             )
                                     )
                             }
@@ -88,7 +110,7 @@ public interface ProductApi {
             }
     )
     @PostMapping()
-    Product saveProduct(
+    ProductDetail saveProduct(
             @RequestParam("file") MultipartFile file,
             @RequestParam("code") String code,
             @RequestParam("name") String name,
@@ -101,9 +123,39 @@ public interface ProductApi {
             @RequestParam("categoryId") Long categoryId
     ) throws ExceptionClass;
 
+    @Operation(
+            summary = "Import products in bulk",
+            description = "This method allows creating many products from a JSON array, newline-delimited JSON or a CSV "
+                    + "file whose header names the product fields. Each row is validated on its own and rows are "
+                    + "inserted in batches; the response reports the outcome of every row.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Import report",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(
+                                                    implementation = ImportReport.class
+                                            )
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Unreadable input"
+                    )
+            }
+    )
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    ImportReport importProducts(@Parameter(hidden = true) HttpServletRequest request) throws IOException, ExceptionClass;
+
     @Operation(
             summary = "Get all products",
-            description = "This method allows retrieving the list of all products.",
+            description = "This method allows retrieving the list of all products. The response carries the catalog version as "
+                    + "ETag; a request whose If-None-Match matches it is answered with 304 without reading the catalog. "
+                    + "The list is served from a pre-serialized snapshot, gzip or deflate encoded according to Accept-Encoding, "
+                    + "which is rebuilt shortly after each change.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -113,20 +165,237 @@ public interface ProductApi {
                                             mediaType = "application/json",
                                             array = @ArraySchema(
                                                     schema = @Schema(
-                                                            implementation = Product.class
+                                                            implementation = ProductListItem.class
                                                     )
                                             )
                                     )
                             }
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Catalog not modified since the ETag sent in If-None-Match"
                     )
             }
     )
     @GetMapping()
-    List<Product> getAllProducts() throws ExceptionClass;
+    ResponseEntity<?> getAllProducts(WebRequest request, @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) throws ExceptionClass;
+
+    @Operation(
+            summary = "Get a page of products",
+            description = "This method allows retrieving products page by page, filtered by search text, category, "
+                    + "inventory status and price range. Pass the returned nextCursor to get the following page.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Page of products",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(
+                                                    implementation = PageResponse.class
+                                            )
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid sort or cursor"
+                    )
+            }
+    )
+    @GetMapping("/page")
+    PageResponse<ProductListItem> getProductsPage(@ParameterObject ProductPageRequest pageRequest) throws ExceptionClass;
+
+    @Operation(
+            summary = "Browse products with facets",
+            description = "This method allows retrieving products page by page, filtered by categories, inventory statuses, "
+                    + "price and rating ranges and sorted by id, price, quantity or rating, from an in-memory copy of the "
+                    + "catalog. The response also counts the products per category, status and price bucket, each facet "
+                    + "ignoring its own filter.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Page of products with the facet counts",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(
+                                                    implementation = ProductBrowseResult.class
+                                            )
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid sort or page"
+                    )
+            }
+    )
+    @GetMapping("/browse")
+    ProductBrowseResult browseProducts(@ParameterObject ProductBrowseRequest browseRequest) throws ExceptionClass;
+
+    @Operation(
+            summary = "Search products",
+            description = "This method searches the products by name, description, code and category name. Every word of "
+                    + "the query must match the start of a word of the product; results are ranked by relevance.",
+            parameters = {
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "q",
+                            description = "Free text to search for"
+                    ),
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "limit",
+                            description = "Maximum number of results, 20 by default and at most 100"
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Matching products, best match first",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            array = @ArraySchema(
+                                                    schema = @Schema(
+                                                            implementation = ProductListItem.class
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            }
+    )
+    @GetMapping("/search")
+    List<ProductListItem> searchProducts(@RequestParam("q") String query,
+                                         @RequestParam(value = "limit", defaultValue = "20") int limit) throws ExceptionClass;
+
+    @Operation(
+            summary = "Export the catalog",
+            description = "This method allows downloading the whole catalog as newline-delimited JSON or CSV. "
+                    + "Rows are streamed as they are read from the database.",
+            parameters = {
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "format",
+                            description = "Export format, NDJSON (default) or CSV"
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Catalog export",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/x-ndjson",
+                                            schema = @Schema(type = "string", format = "binary")
+                                    ),
+                                    @Content(
+                                            mediaType = "text/csv",
+                                            schema = @Schema(type = "string", format = "binary")
+                                    )
+                            }
+                    )
+            }
+    )
+    @GetMapping("/export")
+    ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(value = "format", defaultValue = "NDJSON") CatalogFormat format);
+
+    @Operation(
+            summary = "Get the product changes since a watermark",
+            description = "This method returns the products created or updated, and the IDs of the products deleted, since "
+                    + "the watermark of a previous call. Without a watermark, or with one older than the tombstone retention, "
+                    + "the whole catalog is returned with full set to true. Pass the returned watermark on the next call.",
+            parameters = {
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "since",
+                            description = "Watermark returned by the previous call, ISO-8601 local date-time"
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Product changes",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(
+                                                    implementation = ProductChanges.class
+                                            )
+                                    )
+                            }
+                    )
+            }
+    )
+    @GetMapping("/changes")
+    ProductChanges getProductChanges(@RequestParam(value = "since", required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) throws ExceptionClass;
+
+    @Operation(
+            summary = "Stream stock and price changes",
+            description = "This method opens a server-sent events stream pushing, for each committed transaction changing "
+                    + "products, one stock event holding the array of their quantity, price, inventory status and rating. "
+                    + "Clients too slow to keep up are disconnected and should reconnect.",
+            parameters = {
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "categoryId",
+                            description = "Only stream the products of this category"
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Event stream",
+                            content = {
+                                    @Content(
+                                            mediaType = "text/event-stream",
+                                            array = @ArraySchema(
+                                                    schema = @Schema(
+                                                            implementation = ProductStockUpdate.class
+                                                    )
+                                            )
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Too many subscribers, retry later"
+                    )
+            }
+    )
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter streamProductChanges(@RequestParam(value = "categoryId", required = false) Long categoryId) throws ExceptionClass;
+
+    @Operation(
+            summary = "Get product cache statistics",
+            description = "This method allows retrieving the size, hit, miss and eviction counters of the product cache.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Cache statistics",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            array = @ArraySchema(
+                                                    schema = @Schema(
+                                                            implementation = CacheStatistics.class
+                                                    )
+                                            )
+                                    )
+                            }
+                    )
+            }
+    )
+    @GetMapping("/cache/stats")
+    List<CacheStatistics> getCacheStatistics();
 
     @Operation(
             summary = "Get product by ID",
-            description = "This method allows retrieving a product by its ID.",
+            description = "This method allows retrieving a product by its ID. The response carries the product version as ETag; "
+                    + "a request whose If-None-Match matches it is answered with 304 without reading the product.",
             parameters = {
                     @Parameter(
                             in = ParameterIn.PATH,
@@ -142,7 +411,7 @@ public interface ProductApi {
                                     @Content(
                                             mediaType = "application/json",
                                             schema = @Schema(
-                                                    implementation = Product.class
+                                                    implementation = ProductDetail.class
                                             )
                                     )
                             }
@@ -150,11 +419,15 @@ public interface ProductApi {
                     @ApiResponse(
                             responseCode = "404",
                             description = "Product not found"
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Product not modified since the ETag sent in If-None-Match"
                     )
             }
     )
     @GetMapping("/{id}")
-    Product getProduct(@PathVariable("id") Long id) throws ExceptionClass;
+    ProductDetail getProduct(@PathVariable("id") Long id, WebRequest request) throws ExceptionClass;
 
     @Operation(
             summary = "Update product by ID",
@@ -174,7 +447,7 @@ public interface ProductApi {
                                     @Content(
                                             mediaType = "application/json",
                                             schema = @Schema(
-                                                    implementation = Product.class
+                                                    implementation = ProductDetail.class
                                             )
                                     )
                             }
@@ -186,11 +459,38 @@ public interface ProductApi {
             }
     )
     @PatchMapping("/{id}")
-    Product updateProduct(
+    ProductDetail updateProduct(
             @PathVariable("id") Long id,
             @RequestBody ProductDto updatedProduct
     ) throws ExceptionClass;
 
+    @Operation(
+            summary = "Update products in bulk",
+            description = "This method allows applying partial changes to many products in one transaction. Each entry "
+                    + "applies its changes to all of its IDs; price, quantity, rating and inventory status changes are "
+                    + "applied with set-based updates.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Products updated",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(
+                                                    implementation = BulkUpdateResult.class
+                                            )
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid object"
+                    )
+            }
+    )
+    @PatchMapping()
+    BulkUpdateResult bulkUpdateProducts(@RequestBody List<BulkProductUpdate> updates) throws ExceptionClass;
+
     @Operation(
             summary = "Update product image by ID",
             description = "This method allows updating the image of a product by its ID.",
@@ -209,7 +509,7 @@ public interface ProductApi {
                                     @Content(
                                             mediaType = "application/json",
                                             schema = @Schema(
-                                                    implementation = Product.class
+                                                    implementation = ProductDetail.class
                                             )
                                     )
                             }
@@ -221,7 +521,7 @@ public interface ProductApi {
             }
     )
     @PatchMapping(path = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    Product updateProductImage(
+    ProductDetail updateProductImage(
             @PathVariable("id") Long id,
             @RequestParam("image") MultipartFile image
     ) throws ExceptionClass;
@@ -252,12 +552,19 @@ public interface ProductApi {
 
     @Operation(
             summary = "Get product image by ID",
-            description = "This method allows retrieving a product image by its ID.",
+            description = "This method allows retrieving a product image by its ID. Byte ranges and conditional "
+                    + "requests (If-None-Match, If-Modified-Since) are supported.",
             parameters = {
                     @Parameter(
                             in = ParameterIn.PATH,
                             name = "productId",
                             description = "Product ID"
+                    ),
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "size",
+                            description = "Rendition to serve: ORIGINAL (default), THUMBNAIL or MEDIUM. "
+                                    + "The original is served until the rendition has been generated."
                     )
             },
             responses = {
@@ -271,6 +578,14 @@ public interface ProductApi {
                                     )
                             }
                     ),
+                    @ApiResponse(
+                            responseCode = "206",
+                            description = "Requested byte range of the product image"
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Product image not modified"
+                    ),
                     @ApiResponse(
                             responseCode = "404",
                             description = "Product not found"
@@ -278,6 +593,54 @@ public interface ProductApi {
             }
     )
     @GetMapping(path = "/productImage/{productId}")
-    ResponseEntity<byte[]> getProductImage(@PathVariable("productId") Long productId) throws IOException, ExceptionClass;
-}
+    ResponseEntity<Resource> getProductImage(
+            @PathVariable("productId") Long productId,
+            @RequestParam(value = "size", defaultValue = "ORIGINAL") ImageRendition size,
+            @Parameter(hidden = true) HttpServletRequest request
+    ) throws IOException, ExceptionClass;
 
+    @Operation(
+            summary = "Get image by digest",
+            description = "This method allows retrieving an image by the SHA-256 digest held in the product image field. "
+                    + "The content behind a digest never changes, so the response may be cached indefinitely.",
+            parameters = {
+                    @Parameter(
+                            in = ParameterIn.PATH,
+                            name = "digest",
+                            description = "SHA-256 digest of the image"
+                    ),
+                    @Parameter(
+                            in = ParameterIn.QUERY,
+                            name = "size",
+                            description = "Rendition to serve: ORIGINAL (default), THUMBNAIL or MEDIUM. "
+                                    + "The original is served until the rendition has been generated."
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Image retrieved",
+                            content = {
+                                    @Content(
+                                            mediaType = "image/*",
+                                            schema = @Schema(type = "string", format = "binary")
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Image not modified"
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Image not found"
+                    )
+            }
+    )
+    @GetMapping(path = "/images/{digest}")
+    ResponseEntity<Resource> getImage(
+            @PathVariable("digest") String digest,
+            @RequestParam(value = "size", defaultValue = "ORIGINAL") ImageRendition size,
+            @Parameter(hidden = true) HttpServletRequest request
+    ) throws IOException, ExceptionClass;
+}
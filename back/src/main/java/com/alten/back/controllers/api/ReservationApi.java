@@ -0,0 +1,145 @@
+package com.alten.back.controllers.api;
+
+import com.alten.back.dtos.ReservationDto;
+import com.alten.back.dtos.ReservationRequest;
+import core.exceptions.ExceptionClass;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Reservations")
+public interface ReservationApi {
+
+    @Operation(
+            summary = "Reserve stock for a cart",
+            description = "This method atomically takes the requested quantities from the products and holds them until "
+                    + "the reservation is checked out, released, or expires. Either every item is reserved or none is.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Stock reserved",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(
+                                                    implementation = ReservationDto.class
+                                            )
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid items"
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "Insufficient stock"
+                    )
+            }
+    )
+    @PostMapping()
+    ReservationDto reserve(@Valid @RequestBody ReservationRequest request) throws ExceptionClass;
+
+    @Operation(
+            summary = "Get a reservation",
+            description = "This method allows retrieving a reservation and its status.",
+            parameters = {
+                    @Parameter(
+                            in = ParameterIn.PATH,
+                            name = "id",
+                            description = "Reservation ID"
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Reservation found",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(
+                                                    implementation = ReservationDto.class
+                                            )
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Reservation not found"
+                    )
+            }
+    )
+    @GetMapping("/{id}")
+    ReservationDto getReservation(@PathVariable("id") String id) throws ExceptionClass;
+
+    @Operation(
+            summary = "Check out a reservation",
+            description = "This method confirms an active reservation; the reserved stock is definitively sold.",
+            parameters = {
+                    @Parameter(
+                            in = ParameterIn.PATH,
+                            name = "id",
+                            description = "Reservation ID"
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Reservation checked out",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(
+                                                    implementation = ReservationDto.class
+                                            )
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "Reservation expired, released or already checked out"
+                    )
+            }
+    )
+    @PostMapping("/{id}/checkout")
+    ReservationDto checkout(@PathVariable("id") String id) throws ExceptionClass;
+
+    @Operation(
+            summary = "Release a reservation",
+            description = "This method gives the stock of an active reservation back to the products. "
+                    + "Releasing a reservation that is no longer active does nothing.",
+            parameters = {
+                    @Parameter(
+                            in = ParameterIn.PATH,
+                            name = "id",
+                            description = "Reservation ID"
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Reservation released",
+                            content = {
+                                    @Content(
+                                            mediaType = "application/json",
+                                            schema = @Schema(
+                                                    implementation = ReservationDto.class
+                                            )
+                                    )
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Reservation not found"
+                    )
+            }
+    )
+    @DeleteMapping("/{id}")
+    ReservationDto release(@PathVariable("id") String id) throws ExceptionClass;
+}
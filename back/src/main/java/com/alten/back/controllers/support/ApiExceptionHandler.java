@@ -0,0 +1,93 @@
+package com.alten.back.controllers.support;
+
+import core.exceptions.ConflictException;
+import core.exceptions.ExceptionClass;
+import core.exceptions.NotFoundException;
+import core.exceptions.UnavailableException;
+import core.exceptions.ValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+/**
+ * Maps every exception leaving a controller to an RFC 7807 {@link ProblemDetail} response.
+ *
+ * <p>Domain exceptions get their own status: 404 for {@link NotFoundException}, 409 for {@link ConflictException},
+ * 400 for {@link ValidationException} and 503 for {@link UnavailableException}. Client errors and refusals are
+ * expected traffic, so they are only counted; server errors are logged once, through the asynchronous appender, with a
+ * generic detail so that internal messages do not leak.
+ * Spring MVC's own exceptions (unknown route, unreadable body, type mismatch...) go through the base class and are
+ * counted the same way, as {@code api.errors} tagged with the status and exception type.
+ */
+@Slf4j
+@RestControllerAdvice
+public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
+
+    private final MeterRegistry meterRegistry;
+
+    public ApiExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ExceptionHandler(NotFoundException.class)
+    public ProblemDetail handleNotFound(NotFoundException e) {
+        return problem(HttpStatus.NOT_FOUND, e.getMessage(), e);
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ProblemDetail handleConflict(ConflictException e) {
+        return problem(HttpStatus.CONFLICT, e.getMessage(), e);
+    }
+
+    @ExceptionHandler(ValidationException.class)
+    public ProblemDetail handleValidation(ValidationException e) {
+        return problem(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+    }
+
+    @ExceptionHandler(UnavailableException.class)
+    public ProblemDetail handleUnavailable(UnavailableException e) {
+        return problem(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+    }
+
+    @ExceptionHandler(ExceptionClass.class)
+    public ProblemDetail handleServiceError(ExceptionClass e) {
+        log.error("Request failed", e);
+        return problem(HttpStatus.INTERNAL_SERVER_ERROR, "The request could not be processed", e);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ProblemDetail handleUnexpected(Exception e) {
+        log.error("Unexpected error", e);
+        return problem(HttpStatus.INTERNAL_SERVER_ERROR, "The request could not be processed", e);
+    }
+
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(Exception ex, Object body, HttpHeaders headers,
+                                                             HttpStatusCode statusCode, WebRequest request) {
+        count(statusCode, ex);
+        return super.handleExceptionInternal(ex, body, headers, statusCode, request);
+    }
+
+    private ProblemDetail problem(HttpStatus status, String detail, Exception e) {
+        count(status, e);
+        return ProblemDetail.forStatusAndDetail(status, detail);
+    }
+
+    private void count(HttpStatusCode status, Exception e) {
+        Counter.builder("api.errors")
+                .description("Requests answered with an error, by status and exception type")
+                .tag("status", Integer.toString(status.value()))
+                .tag("exception", e.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+}
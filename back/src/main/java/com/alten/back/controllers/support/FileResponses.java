@@ -0,0 +1,88 @@
+package com.alten.back.controllers.support;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+
+/**
+ * Builds responses serving a file from disk without loading it in memory.
+ *
+ * <p>Conditional requests ({@code If-None-Match}, {@code If-Modified-Since}) are answered with 304 before the file is
+ * opened. Full downloads of large files are handed over to the container's sendfile support when available, so the
+ * kernel copies the file to the socket. Range requests and containers without sendfile get a {@link Resource} body,
+ * which Spring streams (as 206 partial content for ranges) through a fixed-size buffer.
+ */
+public final class FileResponses {
+
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_FILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Files below this size are cheaper to copy than to hand over to sendfile.
+     */
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    private FileResponses() {
+    }
+
+    /**
+     * Serves a file with a strong ETag derived from its size and modification time.
+     */
+    public static ResponseEntity<Resource> serve(FileSystemResource file, MediaType mediaType, CacheControl cacheControl,
+                                                 HttpServletRequest request) throws IOException {
+        long length = file.contentLength();
+        long lastModified = file.lastModified();
+        String eTag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+        return serve(file, mediaType, cacheControl, eTag, request);
+    }
+
+    /**
+     * Serves a file with the given strong ETag.
+     */
+    public static ResponseEntity<Resource> serve(FileSystemResource file, MediaType mediaType, CacheControl cacheControl,
+                                                 String eTag, HttpServletRequest request) throws IOException {
+        long length = file.contentLength();
+        long lastModified = file.lastModified();
+
+        if (new ServletWebRequest(request).checkNotModified(eTag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .lastModified(lastModified)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(mediaType)
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (canSendfile(request, length)) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.getFile().getCanonicalPath());
+            request.setAttribute(SENDFILE_FILE_START_ATTR, 0L);
+            request.setAttribute(SENDFILE_FILE_END_ATTR, length);
+            return response.contentLength(length).build();
+        }
+        return response.body(file);
+    }
+
+    private static boolean canSendfile(HttpServletRequest request, long length) {
+        return length >= SENDFILE_THRESHOLD
+                && HttpMethod.GET.matches(request.getMethod())
+                && request.getHeader(HttpHeaders.RANGE) == null
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR));
+    }
+}
@@ -0,0 +1,15 @@
+package com.alten.back.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One partial change applied to several products. Fields left {@code null} (or zero for quantity and rating)
+ * in {@code changes} are kept, as for a single product update.
+ */
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class BulkProductUpdate {
+    private List<Long> ids;
+    private ProductDto changes;
+}
@@ -0,0 +1,12 @@
+package com.alten.back.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class BulkUpdateResult {
+    private long requested;
+    private long updated;
+    private List<Long> notFound;
+}
@@ -0,0 +1,14 @@
+package com.alten.back.dtos;
+
+import lombok.*;
+
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class CacheStatistics {
+    private String name;
+    private long size;
+    private long maximumSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRate;
+}
@@ -0,0 +1,24 @@
+package com.alten.back.dtos;
+
+import com.alten.back.enums.InventoryStatus;
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * Stock figures of the products of one category. Products without a category are reported with a null
+ * {@code categoryId}.
+ */
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class CategoryStatistics {
+    private Long categoryId;
+    private String categoryName;
+    private long productCount;
+    private long stockUnits;
+
+    /**
+     * Sum of price × quantity over the products of the category.
+     */
+    private double stockValue;
+    private Map<InventoryStatus, Long> statusCounts;
+}
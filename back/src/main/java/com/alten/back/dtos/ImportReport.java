@@ -0,0 +1,13 @@
+package com.alten.back.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class ImportReport {
+    private long total;
+    private long created;
+    private long rejected;
+    private List<ImportRowResult> rows;
+}
@@ -0,0 +1,19 @@
+package com.alten.back.dtos;
+
+import com.alten.back.enums.ImportRowStatus;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Outcome of one row of a bulk import. {@code line} is the 1-based position of the row in the input,
+ * {@code errors} lists why a rejected row was not imported.
+ */
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class ImportRowResult {
+    private long line;
+    private String code;
+    private ImportRowStatus status;
+    private Long productId;
+    private List<String> errors;
+}
@@ -0,0 +1,19 @@
+package com.alten.back.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Page envelope shared with the front-end {@code PageResponse} model.
+ * {@code nextCursor} is an opaque keyset position, {@code null} on the last page.
+ */
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class PageResponse<T> {
+    private List<T> content;
+    private long totalElements;
+    private int totalPages;
+    private int size;
+    private int number;
+    private String nextCursor;
+}
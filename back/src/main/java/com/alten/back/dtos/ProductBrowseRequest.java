@@ -0,0 +1,32 @@
+package com.alten.back.dtos;
+
+import com.alten.back.enums.InventoryStatus;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Query parameters of the faceted product browse, answered from the in-memory column store.
+ *
+ * <p>Several categories or statuses match any of them. {@code sort} has the form {@code field[,asc|desc]}, on the id,
+ * price, quantity or rating. Pages are addressed by number, from 0.
+ */
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class ProductBrowseRequest {
+    private int page;
+    private Integer size;
+    private String sort;
+    private List<Long> category;
+    private List<InventoryStatus> status;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double minRating;
+    private Double maxRating;
+
+    public int resolvedSize() {
+        if (size == null || size <= 0) {
+            return ProductPageRequest.DEFAULT_SIZE;
+        }
+        return Math.min(size, ProductPageRequest.MAX_SIZE);
+    }
+}
@@ -0,0 +1,46 @@
+package com.alten.back.dtos;
+
+import com.alten.back.enums.InventoryStatus;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of the faceted product browse, with the facet counts of the whole result.
+ *
+ * <p>Each facet is counted with every filter applied except its own, so that the counts tell how many products
+ * selecting another value of that facet would add: {@code categories} ignore the category filter, {@code statuses}
+ * the status filter and {@code priceBuckets} the price range.
+ */
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class ProductBrowseResult {
+    private List<ProductListItem> content;
+    private long totalElements;
+    private int totalPages;
+    private int size;
+    private int number;
+    private List<CategoryCount> categories;
+    private Map<InventoryStatus, Long> statuses;
+    private List<PriceBucket> priceBuckets;
+
+    /**
+     * Number of products of a category, with a null {@code categoryId} for products without a category.
+     */
+    @NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+    public static class CategoryCount {
+        private Long categoryId;
+        private long count;
+    }
+
+    /**
+     * Number of products priced from {@code from} included to {@code to} excluded, or above {@code from} for the last
+     * bucket, whose {@code to} is null.
+     */
+    @NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+    public static class PriceBucket {
+        private double from;
+        private Double to;
+        private long count;
+    }
+}
@@ -0,0 +1,18 @@
+package com.alten.back.dtos;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Products changed since a client watermark. When {@code full} is set, {@code changed} is the whole catalog and the
+ * client must replace its copy instead of merging. {@code watermark} is passed back as {@code since} on the next sync.
+ */
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class ProductChanges {
+    private boolean full;
+    private List<ProductListItem> changed;
+    private List<Long> deleted;
+    private LocalDateTime watermark;
+}
@@ -0,0 +1,23 @@
+package com.alten.back.dtos;
+
+import lombok.*;
+
+/**
+ * New quantity and rating of a product waiting in the write-behind buffer. A null field is left unchanged.
+ * Instances are immutable, so that a flush can tell whether an entry was replaced while it was being written.
+ */
+@Value @Builder @AllArgsConstructor
+public class ProductCounterUpdate {
+    Long productId;
+    Integer quantity;
+    Double rating;
+
+    /**
+     * Merges a later update into this one: fields set by {@code later} win, the others are kept.
+     */
+    public ProductCounterUpdate mergedWith(ProductCounterUpdate later) {
+        return new ProductCounterUpdate(productId,
+                later.quantity != null ? later.quantity : quantity,
+                later.rating != null ? later.rating : rating);
+    }
+}
@@ -0,0 +1,46 @@
+package com.alten.back.dtos;
+
+import com.alten.back.entities.Product;
+import com.alten.back.enums.ProductSortField;
+import core.exceptions.ExceptionClass;
+import core.exceptions.ValidationException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last product of a page: the sort column, its direction, the value of
+ * that column and the product id used as tie-breaker. Serialized as an URL-safe base64 token.
+ */
+@Getter @AllArgsConstructor
+public class ProductCursor {
+    private static final String SEPARATOR = ":";
+
+    private final ProductSortField sortField;
+    private final Sort.Direction direction;
+    private final Long id;
+    private final Comparable<?> value;
+
+    public static ProductCursor after(Product product, ProductSortField sortField, Sort.Direction direction) {
+        return new ProductCursor(sortField, direction, product.getId(), sortField.valueOf(product));
+    }
+
+    public String encode() {
+        String raw = sortField.name() + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) throws ExceptionClass {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 4);
+            ProductSortField sortField = ProductSortField.valueOf(parts[0]);
+            return new ProductCursor(sortField, Sort.Direction.valueOf(parts[1]), Long.valueOf(parts[2]), sortField.parse(parts[3]));
+        } catch (Exception e) {
+            throw new ValidationException("Invalid page cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.alten.back.dtos;
+
+import com.alten.back.enums.InventoryStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-side view of a single product, with its category and audit dates flattened.
+ * The constructor argument order is used by the JPQL constructor expressions of {@code ProductRepository}.
+ */
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class ProductDetail {
+    private Long id;
+    private String code;
+    private String name;
+    private String description;
+    private String image;
+    private Double price;
+    private int quantity;
+    private String internalReference;
+    private InventoryStatus inventoryStatus;
+    private double rating;
+    private int shellId;
+    private Long categoryId;
+    private String categoryName;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
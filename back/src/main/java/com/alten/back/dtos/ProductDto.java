@@ -29,7 +29,6 @@ public class ProductDto {
     @NotNull(message = "internal reference cannot be null")
     private String internalReference;
 
-    @NotEmpty(message = "inventory status cannot be empty")
     @NotNull(message = "inventory status cannot be null")
     private InventoryStatus inventoryStatus;
 
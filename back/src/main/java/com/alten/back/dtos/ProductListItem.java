@@ -0,0 +1,23 @@
+package com.alten.back.dtos;
+
+import com.alten.back.enums.InventoryStatus;
+import lombok.*;
+
+/**
+ * Read-side view of a product in a listing: the columns shown by the catalog, with its category flattened.
+ * The constructor argument order is used by the JPQL constructor expressions of {@code ProductRepository}.
+ */
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class ProductListItem {
+    private Long id;
+    private String code;
+    private String name;
+    private String description;
+    private String image;
+    private Double price;
+    private int quantity;
+    private InventoryStatus inventoryStatus;
+    private double rating;
+    private Long categoryId;
+    private String categoryName;
+}
@@ -0,0 +1,33 @@
+package com.alten.back.dtos;
+
+import com.alten.back.enums.InventoryStatus;
+import lombok.*;
+
+/**
+ * Query parameters of the paged product listing, mirroring the front-end {@code PageRequest} model.
+ *
+ * <p>{@code sort} has the form {@code field[,asc|desc]}. {@code cursor} is the {@code nextCursor}
+ * returned by the previous page; {@code page} is only echoed back since positioning is done by the cursor.
+ */
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class ProductPageRequest {
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 200;
+
+    private int page;
+    private Integer size;
+    private String sort;
+    private String cursor;
+    private String search;
+    private Long category;
+    private InventoryStatus status;
+    private Double minPrice;
+    private Double maxPrice;
+
+    public int resolvedSize() {
+        if (size == null || size <= 0) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+}
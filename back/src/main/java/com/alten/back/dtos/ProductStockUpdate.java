@@ -0,0 +1,34 @@
+package com.alten.back.dtos;
+
+import com.alten.back.enums.InventoryStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock, price and rating of a product as committed, pushed to the subscribers of the product stream.
+ * The constructor argument order is used by the JPQL constructor expressions of {@code ProductRepository}.
+ */
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class ProductStockUpdate {
+    private Long productId;
+    private Long categoryId;
+    private Double price;
+    private int quantity;
+    private InventoryStatus inventoryStatus;
+    private double rating;
+
+    /**
+     * Last modification time of the product as stored, which orders the states of a product; null for a product not
+     * flushed yet.
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * Tells whether this state is older than one stored at the given time. A state without a time is older than any
+     * stored one, and states stored at the same time are not ordered.
+     */
+    public boolean isOlderThan(LocalDateTime storedAt) {
+        return storedAt != null && (updatedAt == null || updatedAt.isBefore(storedAt));
+    }
+}
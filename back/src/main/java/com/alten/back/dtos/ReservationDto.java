@@ -0,0 +1,15 @@
+package com.alten.back.dtos;
+
+import com.alten.back.enums.ReservationStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class ReservationDto {
+    private String id;
+    private ReservationStatus status;
+    private LocalDateTime expiresAt;
+    private List<ReservationItemDto> items;
+}
@@ -0,0 +1,15 @@
+package com.alten.back.dtos;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class ReservationItemDto {
+
+    @NotNull(message = "Product ID cannot be null")
+    private Long productId;
+
+    @Positive(message = "Quantity must be a positive number")
+    private int quantity;
+}
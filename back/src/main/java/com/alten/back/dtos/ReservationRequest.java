@@ -0,0 +1,14 @@
+package com.alten.back.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.util.List;
+
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @Builder
+public class ReservationRequest {
+
+    @NotEmpty(message = "A reservation needs at least one item")
+    private List<@Valid ReservationItemDto> items;
+}
@@ -0,0 +1,17 @@
+package com.alten.back.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.MediaType;
+
+/**
+ * An image file ready to be served. {@code digest} is the SHA-256 of the content,
+ * or {@code null} for images uploaded before the content-addressed store.
+ */
+@Getter @AllArgsConstructor
+public class StoredImage {
+    private final String digest;
+    private final MediaType contentType;
+    private final FileSystemResource resource;
+}
@@ -1,21 +1,86 @@
 package com.alten.back.dtos.mapper;
 
+import com.alten.back.dtos.ProductDetail;
 import com.alten.back.dtos.ProductDto;
+import com.alten.back.dtos.ProductListItem;
+import com.alten.back.dtos.ProductStockUpdate;
+import com.alten.back.entities.Category;
 import com.alten.back.entities.Product;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
 
+/**
+ * Mappings between the product entity and its DTOs, written out field by field: no introspection, no reflective
+ * calls and no allocation besides the target object, so they cost the same as the getters and setters they call.
+ * A field added to both sides has to be added here too.
+ */
 @Component
 public class ProductDtoMapper {
+    /**
+     * Reading the id of a lazy category does not load it.
+     */
     public static ProductDto fromProduct(Product product) {
         ProductDto productDto = new ProductDto();
-        BeanUtils.copyProperties(product, productDto);
+        productDto.setCode(product.getCode());
+        productDto.setName(product.getName());
+        productDto.setDescription(product.getDescription());
+        productDto.setPrice(product.getPrice());
+        productDto.setQuantity(product.getQuantity());
+        productDto.setInternalReference(product.getInternalReference());
+        productDto.setInventoryStatus(product.getInventoryStatus());
+        productDto.setRating(product.getRating());
+        productDto.setCategoryId(product.getCategory() != null ? product.getCategory().getId() : null);
         return productDto;
     }
 
-    public static Product toProduct(ProductDto productDto) {
+    /**
+     * Maps a new product; {@code category} is the entity the caller resolved from {@link ProductDto#getCategoryId()},
+     * since the mapper cannot look it up.
+     */
+    public static Product toProduct(ProductDto productDto, Category category) {
         Product product = new Product();
-        BeanUtils.copyProperties(productDto, product);
+        product.setCode(productDto.getCode());
+        product.setName(productDto.getName());
+        product.setDescription(productDto.getDescription());
+        product.setPrice(productDto.getPrice());
+        product.setQuantity(productDto.getQuantity());
+        product.setInternalReference(productDto.getInternalReference());
+        product.setInventoryStatus(productDto.getInventoryStatus());
+        product.setRating(productDto.getRating());
+        product.setCategory(category);
         return product;
     }
+
+    /**
+     * Maps a product whose category is already loaded; reading the category otherwise triggers its lazy load.
+     */
+    public static ProductListItem toListItem(Product product) {
+        return ProductListItem.builder()
+                .id(product.getId())
+                .code(product.getCode())
+                .name(product.getName())
+                .description(product.getDescription())
+                .image(product.getImage())
+                .price(product.getPrice())
+                .quantity(product.getQuantity())
+                .inventoryStatus(product.getInventoryStatus())
+                .rating(product.getRating())
+                .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
+                .categoryName(product.getCategory() != null ? product.getCategory().getName() : null)
+                .build();
+    }
+
+    /**
+     * Maps the stock columns of a product. Only the category id is read, which does not load a lazy category.
+     */
+    public static ProductStockUpdate toStockUpdate(Product product) {
+        return ProductStockUpdate.builder()
+                .productId(product.getId())
+                .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
+                .price(product.getPrice())
+                .quantity(product.getQuantity())
+                .inventoryStatus(product.getInventoryStatus())
+                .rating(product.getRating())
+                .updatedAt(product.getAuditInfo() != null ? product.getAuditInfo().getUpdatedAt() : null)
+                .build();
+    }
 }
@@ -0,0 +1,28 @@
+package com.alten.back.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Image content stored once per SHA-256 digest and shared by every product pointing to it.
+ */
+@Entity
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @ToString
+public class ImageBlob {
+    @Id
+    @Column(length = 64)
+    private String digest;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    private long size;
+
+    /**
+     * Number of products whose {@code image} is this digest. The blob is deleted when it drops to zero.
+     */
+    private int referenceCount;
+
+    @Embedded
+    private AuditInfo auditInfo;
+}
@@ -5,10 +5,23 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_product_category_id", columnList = "category_id, id"),
+        @Index(name = "idx_product_price_id", columnList = "price, id"),
+        @Index(name = "idx_product_name_id", columnList = "name, id"),
+        @Index(name = "idx_product_status_id", columnList = "inventory_status, id"),
+        @Index(name = "idx_product_updated_at_id", columnList = "updated_at, id")
+})
 @NoArgsConstructor @AllArgsConstructor @Getter @Setter @ToString @Builder
 public class Product {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Sequence-generated with a pooled allocation so that Hibernate can batch inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = Product.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -39,7 +52,11 @@ public class Product {
 
     private int shellId;
 
-    @ManyToOne
+    /**
+     * Lazy, so that reads which only need the category id or name fetch them through a join or a projection.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     private Category category;
 
     @Embedded
@@ -0,0 +1,20 @@
+package com.alten.back.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records the deletion of a product so that clients syncing since an earlier watermark learn about it.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_product_tombstone_deleted_at", columnList = "deleted_at"))
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @ToString
+public class ProductTombstone {
+    @Id
+    private Long productId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,14 @@
+package com.alten.back.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+@Embeddable
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @ToString
+public class ReservationLine {
+    @Column(nullable = false)
+    private Long productId;
+
+    private int quantity;
+}
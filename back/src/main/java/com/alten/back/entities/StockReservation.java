@@ -0,0 +1,35 @@
+package com.alten.back.entities;
+
+import com.alten.back.enums.ReservationStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Stock held for a cart until it is checked out, released, or expires.
+ * The quantities of its lines are already subtracted from the products while it is {@link ReservationStatus#ACTIVE}.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_reservation_status_expires_at", columnList = "status, expires_at"))
+@NoArgsConstructor @AllArgsConstructor @Getter @Setter @ToString @Builder
+public class StockReservation {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ReservationStatus status;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "stock_reservation_line", joinColumns = @JoinColumn(name = "reservation_id"))
+    private List<ReservationLine> lines;
+
+    @Embedded
+    private AuditInfo auditInfo;
+}
@@ -0,0 +1,5 @@
+package com.alten.back.enums;
+
+public enum CatalogFormat {
+    NDJSON, CSV
+}
@@ -0,0 +1,19 @@
+package com.alten.back.enums;
+
+/**
+ * Sizes in which product images are served. Derived renditions fit in a square box
+ * of {@code maxSize} pixels; images already smaller than the box are not upscaled.
+ */
+public enum ImageRendition {
+    ORIGINAL(0), THUMBNAIL(160), MEDIUM(480);
+
+    private final int maxSize;
+
+    ImageRendition(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,5 @@
+package com.alten.back.enums;
+
+public enum ImportRowStatus {
+    CREATED, REJECTED
+}
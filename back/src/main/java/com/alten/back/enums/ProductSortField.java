@@ -0,0 +1,45 @@
+package com.alten.back.enums;
+
+import com.alten.back.entities.Product;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Columns a product listing can be ordered by. Every ordering is made stable by
+ * using the product id as a tie-breaker, which is what keyset cursors rely on.
+ */
+public enum ProductSortField {
+    ID("id", Product::getId, Long::valueOf),
+    CODE("code", Product::getCode, value -> value),
+    NAME("name", Product::getName, value -> value),
+    PRICE("price", Product::getPrice, Double::valueOf),
+    QUANTITY("quantity", Product::getQuantity, Integer::valueOf),
+    RATING("rating", Product::getRating, Double::valueOf);
+
+    private final String attribute;
+    private final Function<Product, Comparable<?>> extractor;
+    private final Function<String, Comparable<?>> parser;
+
+    ProductSortField(String attribute, Function<Product, Comparable<?>> extractor, Function<String, Comparable<?>> parser) {
+        this.attribute = attribute;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public Comparable<?> valueOf(Product product) {
+        return extractor.apply(product);
+    }
+
+    public Comparable<?> parse(String value) {
+        return parser.apply(value);
+    }
+
+    public static ProductSortField fromAttribute(String attribute) {
+        return ProductSortField.valueOf(attribute.trim().toUpperCase(Locale.ROOT));
+    }
+}
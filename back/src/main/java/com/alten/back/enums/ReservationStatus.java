@@ -0,0 +1,5 @@
+package com.alten.back.enums;
+
+public enum ReservationStatus {
+    ACTIVE, CHECKED_OUT, RELEASED, EXPIRED
+}
@@ -0,0 +1,12 @@
+package com.alten.back.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published once the last reference on a stored image is released and its blob has been deleted.
+ */
+@Getter @AllArgsConstructor
+public class ImageBlobDeletedEvent {
+    private final String digest;
+}
@@ -0,0 +1,12 @@
+package com.alten.back.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a product is deleted.
+ */
+@Getter @AllArgsConstructor
+public class ProductDeletedEvent {
+    private final Long productId;
+}
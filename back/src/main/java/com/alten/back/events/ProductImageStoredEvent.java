@@ -0,0 +1,14 @@
+package com.alten.back.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when an image has been attached to a product, either at creation or through an image update.
+ * {@code image} is the new value of {@code Product.image}, a digest for content-addressed images.
+ */
+@Getter @AllArgsConstructor
+public class ProductImageStoredEvent {
+    private final Long productId;
+    private final String image;
+}
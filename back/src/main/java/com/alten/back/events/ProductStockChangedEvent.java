@@ -0,0 +1,16 @@
+package com.alten.back.events;
+
+import com.alten.back.dtos.ProductStockUpdate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published when the quantity, price, inventory status, rating or category of products changed.
+ * {@code updates} hold the new values as written by the publishing transaction.
+ */
+@Getter @AllArgsConstructor
+public class ProductStockChangedEvent {
+    private final List<ProductStockUpdate> updates;
+}
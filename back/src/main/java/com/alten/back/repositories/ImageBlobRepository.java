@@ -0,0 +1,22 @@
+package com.alten.back.repositories;
+
+import com.alten.back.entities.ImageBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+
+    @Modifying
+    @Query("update ImageBlob b set b.referenceCount = b.referenceCount + 1 where b.digest = :digest")
+    int incrementReferenceCount(@Param("digest") String digest);
+
+    @Modifying
+    @Query("update ImageBlob b set b.referenceCount = b.referenceCount - 1 where b.digest = :digest and b.referenceCount > 0")
+    int decrementReferenceCount(@Param("digest") String digest);
+
+    @Modifying
+    @Query("delete from ImageBlob b where b.digest = :digest and b.referenceCount = 0")
+    int deleteIfUnreferenced(@Param("digest") String digest);
+}
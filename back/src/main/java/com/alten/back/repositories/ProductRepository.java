@@ -1,9 +1,100 @@
 package com.alten.back.repositories;
 
+import com.alten.back.dtos.ProductDetail;
+import com.alten.back.dtos.ProductListItem;
+import com.alten.back.dtos.ProductStockUpdate;
 import com.alten.back.entities.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
+
+    /**
+     * Number of rows the JDBC driver fetches per round trip when streaming the catalog.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
+    String DETAIL_SELECT = "select new com.alten.back.dtos.ProductDetail(p.id, p.code, p.name, p.description, p.image, "
+            + "p.price, p.quantity, p.internalReference, p.inventoryStatus, p.rating, p.shellId, c.id, c.name, "
+            + "p.auditInfo.createdAt, p.auditInfo.updatedAt) from Product p left join p.category c ";
 
     Product findByName(String name);
+
+    Product findByCode(String code);
+
+    /**
+     * Reads the listing columns of every product and the name of its category in a single query.
+     */
+    @Query("select new com.alten.back.dtos.ProductListItem(p.id, p.code, p.name, p.description, p.image, p.price, "
+            + "p.quantity, p.inventoryStatus, p.rating, c.id, c.name) from Product p left join p.category c order by p.id")
+    List<ProductListItem> findAllListItems();
+
+    @Query("select new com.alten.back.dtos.ProductListItem(p.id, p.code, p.name, p.description, p.image, p.price, "
+            + "p.quantity, p.inventoryStatus, p.rating, c.id, c.name) from Product p left join p.category c where p.id in :ids")
+    List<ProductListItem> findListItemsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.alten.back.dtos.ProductListItem(p.id, p.code, p.name, p.description, p.image, p.price, "
+            + "p.quantity, p.inventoryStatus, p.rating, c.id, c.name) from Product p left join p.category c "
+            + "where p.auditInfo.updatedAt > :since order by p.auditInfo.updatedAt, p.id")
+    List<ProductListItem> findListItemsUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Marks every product of a category as changed, so that delta syncs pick up a new category name.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Product p set p.auditInfo.updatedAt = :now where p.category.id = :categoryId")
+    int touchCategory(@Param("categoryId") Long categoryId, @Param("now") LocalDateTime now);
+
+    @Query("select new com.alten.back.dtos.ProductStockUpdate(p.id, p.category.id, p.price, p.quantity, p.inventoryStatus, "
+            + "p.rating, p.auditInfo.updatedAt) from Product p where p.id in :ids")
+    List<ProductStockUpdate> findStockUpdates(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.alten.back.dtos.ProductStockUpdate(p.id, c.id, p.price, p.quantity, p.inventoryStatus, "
+            + "p.rating, p.auditInfo.updatedAt) from Product p left join p.category c")
+    List<ProductStockUpdate> findAllStockUpdates();
+
+    @Query(DETAIL_SELECT + "where p.id = :id")
+    Optional<ProductDetail> findDetailById(@Param("id") Long id);
+
+    @Query(DETAIL_SELECT + "where p.code = :code")
+    Optional<ProductDetail> findDetailByCode(@Param("code") String code);
+
+    @Query(DETAIL_SELECT + "where p.name = :name")
+    Optional<ProductDetail> findDetailByName(@Param("name") String name);
+
+    @Query("select p.code from Product p where p.code in :codes")
+    List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+    @Query("select p.id from Product p where p.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.internalReference from Product p where p.internalReference in :internalReferences")
+    List<String> findExistingInternalReferences(@Param("internalReferences") Collection<String> internalReferences);
+
+    /**
+     * Streams the whole catalog ordered by id through a server-side cursor.
+     * Must be consumed inside a read-only transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select p from Product p left join fetch p.category order by p.id")
+    Stream<Product> streamAllByOrderById();
 }
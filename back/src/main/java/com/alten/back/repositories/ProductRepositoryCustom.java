@@ -0,0 +1,34 @@
+package com.alten.back.repositories;
+
+import com.alten.back.dtos.ProductCounterUpdate;
+import com.alten.back.dtos.ProductDto;
+
+import java.util.Collection;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Applies the price, quantity, rating and inventory status of {@code changes} to every product of {@code ids}
+     * with a single UPDATE statement, following the same "null or zero means unchanged" rule as a product update.
+     *
+     * @return the number of updated rows
+     */
+    int bulkUpdateScalars(Collection<Long> ids, ProductDto changes);
+
+    /**
+     * Adds {@code delta} to the quantity of a product with a single conditional UPDATE, provided the quantity stays
+     * positive or zero, and recomputes its inventory status in the same statement. The row lock taken by the update
+     * serializes concurrent adjustments of the same product without any read beforehand.
+     *
+     * @return 1 if the stock was adjusted, 0 if the product is unknown or does not have enough stock
+     */
+    int adjustStock(Long id, int delta, int lowStockThreshold);
+
+    /**
+     * Writes the quantity and rating of many products as one JDBC batch of single-row UPDATE statements, leaving null
+     * fields unchanged. Unknown products are skipped.
+     *
+     * @return the number of updated rows
+     */
+    int batchUpdateCounters(Collection<ProductCounterUpdate> updates);
+}
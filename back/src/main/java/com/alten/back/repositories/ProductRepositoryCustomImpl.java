@@ -0,0 +1,114 @@
+package com.alten.back.repositories;
+
+import com.alten.back.dtos.ProductCounterUpdate;
+import com.alten.back.dtos.ProductDto;
+import com.alten.back.entities.Product;
+import com.alten.back.enums.InventoryStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final String UPDATE_COUNTERS = "update product set quantity = coalesce(?, quantity), "
+            + "rating = coalesce(?, rating), updated_at = ? where id = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Runs on the connection of the current transaction, like the entity manager.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int bulkUpdateScalars(Collection<Long> ids, ProductDto changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Product> update = cb.createCriteriaUpdate(Product.class);
+        Root<Product> root = update.from(Product.class);
+        if (changes.getPrice() != null) {
+            update.set(root.<Double>get("price"), changes.getPrice());
+        }
+        if (changes.getQuantity() != 0) {
+            update.set(root.<Integer>get("quantity"), changes.getQuantity());
+        }
+        if (changes.getRating() != 0.0) {
+            update.set(root.<Double>get("rating"), changes.getRating());
+        }
+        if (changes.getInventoryStatus() != null) {
+            update.set(root.get("inventoryStatus"), changes.getInventoryStatus());
+        }
+        // Bulk statements bypass @UpdateTimestamp
+        update.set(root.get("auditInfo").<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+        update.where(root.get("id").in(ids));
+
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    @Override
+    public int adjustStock(Long id, int delta, int lowStockThreshold) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Product> update = cb.createCriteriaUpdate(Product.class);
+        Root<Product> root = update.from(Product.class);
+        Path<Integer> quantity = root.get("quantity");
+        Expression<Integer> adjusted = cb.sum(quantity, delta);
+        update.set(quantity, adjusted);
+        update.set(root.<InventoryStatus>get("inventoryStatus"), cb.<InventoryStatus>selectCase()
+                .when(cb.le(adjusted, 0), InventoryStatus.OUTOFSTOCK)
+                .when(cb.le(adjusted, lowStockThreshold), InventoryStatus.LOWSTOCK)
+                .otherwise(InventoryStatus.INSTOCK));
+        update.set(root.get("auditInfo").<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+        update.where(cb.equal(root.get("id"), id), cb.ge(adjusted, 0));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public int batchUpdateCounters(Collection<ProductCounterUpdate> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_COUNTERS, new ArrayList<>(updates), updates.size(),
+                (statement, update) -> {
+                    if (update.getQuantity() != null) {
+                        statement.setInt(1, update.getQuantity());
+                    } else {
+                        statement.setNull(1, Types.INTEGER);
+                    }
+                    if (update.getRating() != null) {
+                        statement.setDouble(2, update.getRating());
+                    } else {
+                        statement.setNull(2, Types.DOUBLE);
+                    }
+                    statement.setTimestamp(3, now);
+                    statement.setLong(4, update.getProductId());
+                });
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+                updated += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+            }
+        }
+        return updated;
+    }
+}
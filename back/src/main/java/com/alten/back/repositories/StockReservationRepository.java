@@ -0,0 +1,36 @@
+package com.alten.back.repositories;
+
+import com.alten.back.entities.StockReservation;
+import com.alten.back.enums.ReservationStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Status changes are conditional updates on the current status, so that among a concurrent checkout, release and
+ * expiry of the same reservation exactly one succeeds.
+ */
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    @Modifying
+    @Query("update StockReservation r set r.status = :to where r.id = :id and r.status = :from and r.expiresAt > :now")
+    int transitionBeforeExpiry(@Param("id") String id, @Param("from") ReservationStatus from,
+                               @Param("to") ReservationStatus to, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update StockReservation r set r.status = :to where r.id = :id and r.status = :from")
+    int transition(@Param("id") String id, @Param("from") ReservationStatus from, @Param("to") ReservationStatus to);
+
+    @Modifying
+    @Query("update StockReservation r set r.status = :to where r.id = :id and r.status = :from and r.expiresAt <= :now")
+    int transitionAfterExpiry(@Param("id") String id, @Param("from") ReservationStatus from,
+                              @Param("to") ReservationStatus to, @Param("now") LocalDateTime now);
+
+    @Query("select r.id from StockReservation r where r.status = :status and r.expiresAt <= :now order by r.expiresAt")
+    List<String> findExpiredIds(@Param("status") ReservationStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,71 @@
+package com.alten.back.repositories.specifications;
+
+import com.alten.back.dtos.ProductCursor;
+import com.alten.back.dtos.ProductPageRequest;
+import com.alten.back.entities.Product;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Criteria building blocks for product listings.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    /**
+     * Builds the filter part of a listing (search text, category, inventory status and price range).
+     * Parameters left {@code null} are ignored.
+     */
+    public static Specification<Product> matching(ProductPageRequest request) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (request.getSearch() != null && !request.getSearch().isBlank()) {
+                String pattern = "%" + request.getSearch().trim().toLowerCase(Locale.ROOT) + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("name")), pattern),
+                        cb.like(cb.lower(root.get("code")), pattern)));
+            }
+            if (request.getCategory() != null) {
+                predicates.add(cb.equal(root.get("category").get("id"), request.getCategory()));
+            }
+            if (request.getStatus() != null) {
+                predicates.add(cb.equal(root.get("inventoryStatus"), request.getStatus()));
+            }
+            if (request.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), request.getMinPrice()));
+            }
+            if (request.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), request.getMaxPrice()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Restricts a listing to the rows strictly after the given keyset position, i.e.
+     * {@code (column > value) OR (column = value AND id > lastId)} for an ascending order.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static Specification<Product> after(ProductCursor cursor) {
+        return (root, query, cb) -> {
+            boolean ascending = cursor.getDirection() == Sort.Direction.ASC;
+            Path<Long> id = root.get("id");
+            Predicate idBeyond = ascending ? cb.greaterThan(id, cursor.getId()) : cb.lessThan(id, cursor.getId());
+            if ("id".equals(cursor.getSortField().getAttribute())) {
+                return idBeyond;
+            }
+            Path<Comparable> column = root.get(cursor.getSortField().getAttribute());
+            Comparable value = cursor.getValue();
+            Predicate beyond = ascending ? cb.greaterThan(column, value) : cb.lessThan(column, value);
+            return cb.or(beyond, cb.and(cb.equal(column, value), idBeyond));
+        };
+    }
+}
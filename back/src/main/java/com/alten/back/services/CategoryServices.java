@@ -1,5 +1,6 @@
 package com.alten.back.services;
 
+import com.alten.back.dtos.CategoryStatistics;
 import com.alten.back.entities.Category;
 import core.exceptions.ExceptionClass;
 
@@ -12,4 +13,6 @@ public interface CategoryServices {
     Category updateCategory(Category category) throws ExceptionClass;
     void deleteCategory(Long categoryId) throws ExceptionClass;
     List<Category> getAllCategories() throws ExceptionClass;
+    List<CategoryStatistics> getCategoryStatistics() throws ExceptionClass;
+    List<CategoryStatistics> rebuildCategoryStatistics() throws ExceptionClass;
 }
@@ -0,0 +1,11 @@
+package com.alten.back.services;
+
+import com.alten.back.dtos.StoredImage;
+import com.alten.back.enums.ImageRendition;
+
+import java.util.Optional;
+
+public interface ImageRenditionService {
+    void scheduleRenditions(String digest);
+    Optional<StoredImage> findRendition(String digest, ImageRendition rendition);
+}
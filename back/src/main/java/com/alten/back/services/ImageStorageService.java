@@ -0,0 +1,12 @@
+package com.alten.back.services;
+
+import com.alten.back.dtos.StoredImage;
+import core.exceptions.ExceptionClass;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface ImageStorageService {
+    String store(MultipartFile file) throws ExceptionClass;
+    void release(String image) throws ExceptionClass;
+    StoredImage load(String image) throws ExceptionClass;
+    boolean isDigest(String image);
+}
@@ -0,0 +1,10 @@
+package com.alten.back.services;
+
+import com.alten.back.enums.CatalogFormat;
+import core.exceptions.ExceptionClass;
+
+import java.io.OutputStream;
+
+public interface ProductExportService {
+    void exportProducts(CatalogFormat format, OutputStream outputStream) throws ExceptionClass;
+}
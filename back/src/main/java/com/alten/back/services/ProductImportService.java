@@ -0,0 +1,11 @@
+package com.alten.back.services;
+
+import com.alten.back.dtos.ImportReport;
+import com.alten.back.enums.CatalogFormat;
+import core.exceptions.ExceptionClass;
+
+import java.io.InputStream;
+
+public interface ProductImportService {
+    ImportReport importProducts(CatalogFormat format, InputStream inputStream) throws ExceptionClass;
+}
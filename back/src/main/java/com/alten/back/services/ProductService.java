@@ -1,20 +1,35 @@
 package com.alten.back.services;
 
+import com.alten.back.dtos.BulkProductUpdate;
+import com.alten.back.dtos.BulkUpdateResult;
+import com.alten.back.dtos.CacheStatistics;
+import com.alten.back.dtos.PageResponse;
+import com.alten.back.dtos.ProductBrowseRequest;
+import com.alten.back.dtos.ProductBrowseResult;
+import com.alten.back.dtos.ProductDetail;
 import com.alten.back.dtos.ProductDto;
-import com.alten.back.entities.Product;
+import com.alten.back.dtos.ProductListItem;
+import com.alten.back.dtos.ProductPageRequest;
+import com.alten.back.dtos.StoredImage;
 import core.exceptions.ExceptionClass;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
 public interface ProductService {
-    Product save(MultipartFile image, ProductDto productDto) throws ExceptionClass;
-    Product savewithoutImage(ProductDto productDto) throws ExceptionClass;
-    Product getProductById(Long id) throws ExceptionClass;
-    Product getProductByName(String name) throws ExceptionClass;
-    List<Product> getAllProducts() throws ExceptionClass;
+    ProductDetail save(MultipartFile image, ProductDto productDto) throws ExceptionClass;
+    ProductDetail savewithoutImage(ProductDto productDto) throws ExceptionClass;
+    ProductDetail getProductById(Long id) throws ExceptionClass;
+    ProductDetail getProductByName(String name) throws ExceptionClass;
+    ProductDetail getProductByCode(String code) throws ExceptionClass;
+    List<ProductListItem> getAllProducts() throws ExceptionClass;
+    List<ProductListItem> searchProducts(String query, int limit) throws ExceptionClass;
+    PageResponse<ProductListItem> getProductsPage(ProductPageRequest pageRequest) throws ExceptionClass;
+    ProductBrowseResult browseProducts(ProductBrowseRequest browseRequest) throws ExceptionClass;
     void deleteProductById(Long id) throws ExceptionClass;
-    Product updateProductById(Long productId, ProductDto updatedProduct) throws ExceptionClass;
-    Product updateImageProductById(Long productId, MultipartFile image) throws ExceptionClass;
-    byte[] getProductImageById(Long id) throws ExceptionClass;
+    ProductDetail updateProductById(Long productId, ProductDto updatedProduct) throws ExceptionClass;
+    BulkUpdateResult bulkUpdateProducts(List<BulkProductUpdate> updates) throws ExceptionClass;
+    ProductDetail updateImageProductById(Long productId, MultipartFile image) throws ExceptionClass;
+    StoredImage getProductImageById(Long id) throws ExceptionClass;
+    List<CacheStatistics> getCacheStatistics();
 }
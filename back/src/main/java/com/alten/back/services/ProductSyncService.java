@@ -0,0 +1,12 @@
+package com.alten.back.services;
+
+import com.alten.back.dtos.ProductChanges;
+import core.exceptions.ExceptionClass;
+
+import java.time.LocalDateTime;
+
+public interface ProductSyncService {
+    ProductChanges getChangesSince(LocalDateTime since) throws ExceptionClass;
+    void recordDeletion(Long productId);
+    int purgeTombstones();
+}
@@ -0,0 +1,13 @@
+package com.alten.back.services;
+
+import com.alten.back.dtos.ReservationDto;
+import com.alten.back.dtos.ReservationRequest;
+import core.exceptions.ExceptionClass;
+
+public interface StockReservationService {
+    ReservationDto reserve(ReservationRequest request) throws ExceptionClass;
+    ReservationDto getReservation(String id) throws ExceptionClass;
+    ReservationDto checkout(String id) throws ExceptionClass;
+    ReservationDto release(String id) throws ExceptionClass;
+    int expireReservations();
+}
@@ -0,0 +1,196 @@
+package com.alten.back.services.cache;
+
+import com.alten.back.repositories.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized form of the whole product list, kept ready to be written as is by {@code GET /products}.
+ *
+ * <p>The JSON body is built once together with its gzip and deflate encodings, so serving the catalog costs a lookup
+ * and a socket write instead of a query, a serialization and a compression per request. Catalog changes schedule a
+ * rebuild on a background thread after a short debounce delay, so that a burst of writes leads to a single rebuild.
+ * Meanwhile the previous snapshot is served with its own ETag; once it has been stale for longer than the allowed
+ * staleness, {@link #current()} returns {@code null} and the caller falls back to reading the catalog.
+ */
+@Slf4j
+@Component
+public class CatalogSnapshot {
+
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+    public static final String IDENTITY = "identity";
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersions catalogVersions;
+    private final boolean enabled;
+    private final long debounceMillis;
+    private final long maxStalenessNanos;
+    private final ScheduledExecutorService builder;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Time at which the served snapshot was first known to be stale, or 0 while it is current.
+     */
+    private volatile long staleSince;
+
+    public CatalogSnapshot(ProductRepository productRepository, ObjectMapper objectMapper, CatalogVersions catalogVersions,
+                           @Value("${product.snapshot.enabled:true}") boolean enabled,
+                           @Value("${product.snapshot.debounce:PT0.2S}") Duration debounce,
+                           @Value("${product.snapshot.max-staleness:PT5S}") Duration maxStaleness) {
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+        this.catalogVersions = catalogVersions;
+        this.enabled = enabled;
+        this.debounceMillis = debounce.toMillis();
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.builder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            catalogVersions.addListener(this::scheduleRebuild);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (enabled) {
+            scheduleRebuild();
+        }
+    }
+
+    /**
+     * Returns the snapshot to serve, or {@code null} when there is none yet or it is too stale to be served.
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        if (current.etag().equals(catalogVersions.catalogETag())) {
+            return current;
+        }
+        long since = staleSince;
+        // No change notified yet: a write is in flight and its commit will schedule the rebuild
+        return since == 0 || System.nanoTime() - since <= maxStalenessNanos ? current : null;
+    }
+
+    /**
+     * Schedules a rebuild after the debounce delay, unless one is already pending.
+     */
+    public void scheduleRebuild() {
+        if (staleSince == 0) {
+            staleSince = System.nanoTime();
+        }
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            try {
+                builder.schedule(this::rebuild, debounceMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                rebuildScheduled.set(false);
+            }
+        }
+    }
+
+    private void rebuild() {
+        // Changes notified from now on need another rebuild, since this one may read the catalog before they commit
+        rebuildScheduled.set(false);
+        long start = System.nanoTime();
+        try {
+            // Version read before the catalog, so the snapshot is never labelled newer than its content
+            String etag = catalogVersions.catalogETag();
+            byte[] identity = objectMapper.writeValueAsBytes(productRepository.findAllListItems());
+            snapshot = new Snapshot(etag, identity, compress(identity, true), compress(identity, false));
+            if (etag.equals(catalogVersions.catalogETag())) {
+                staleSince = 0;
+            }
+            log.debug("Rebuilt catalog snapshot {} ({} bytes) in {} ms", etag, identity.length,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Could not rebuild the catalog snapshot", e);
+        }
+    }
+
+    private static byte[] compress(byte[] data, boolean gzip) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (OutputStream out = gzip ? new GZIPOutputStream(buffer) : new DeflaterOutputStream(buffer,
+                new Deflater(Deflater.DEFAULT_COMPRESSION))) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+
+    /**
+     * One serialized catalog and its encodings. The arrays are never modified once the snapshot is published.
+     */
+    public record Snapshot(String etag, byte[] identity, byte[] gzip, byte[] deflate) {
+
+        /**
+         * Picks the smallest encoding accepted by the client, according to an {@code Accept-Encoding} header.
+         */
+        public Encoded select(String acceptEncoding) {
+            if (acceptEncoding != null) {
+                String accepted = acceptEncoding.toLowerCase(Locale.ROOT);
+                if (accepts(accepted, GZIP)) {
+                    return new Encoded(GZIP, gzip);
+                }
+                if (accepts(accepted, DEFLATE)) {
+                    return new Encoded(DEFLATE, deflate);
+                }
+            }
+            return new Encoded(IDENTITY, identity);
+        }
+
+        private static boolean accepts(String acceptEncoding, String coding) {
+            for (String part : acceptEncoding.split(",")) {
+                String[] parameters = part.split(";");
+                String name = parameters[0].trim();
+                if (name.equals(coding) || name.equals("*")) {
+                    for (int i = 1; i < parameters.length; i++) {
+                        String parameter = parameters[i].trim();
+                        if (parameter.startsWith("q=")) {
+                            try {
+                                return Double.parseDouble(parameter.substring(2)) > 0;
+                            } catch (NumberFormatException e) {
+                                return false;
+                            }
+                        }
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public record Encoded(String encoding, byte[] body) {
+    }
+}
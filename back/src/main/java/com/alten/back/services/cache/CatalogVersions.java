@@ -0,0 +1,110 @@
+package com.alten.back.services.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters of the catalog, of each product and of the categories, from which the ETags of the read endpoints
+ * are derived without touching the database.
+ *
+ * <p>Every write bumps the counters it affects, now and again after its transaction commits: a reader that saw the
+ * first bump but still read the uncommitted state gets an ETag that the second bump makes stale. Counters live in
+ * memory and restart with the application, so the ETags carry the start time of this instance.
+ */
+@Component
+public class CatalogVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong catalog = new AtomicLong();
+    private final AtomicLong categories = new AtomicLong();
+
+    /**
+     * Catalog version at the last change of each product; products never changed since startup have version 0.
+     */
+    private final Map<Long, Long> products = new ConcurrentHashMap<>();
+
+    /**
+     * Catalog version at the last category change, below which no product version is reported, since a category
+     * change alters the details of every product of the category.
+     */
+    private final AtomicLong productsFloor = new AtomicLong();
+
+    /**
+     * Callbacks run once a change of the catalog is visible to readers.
+     */
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Records a change of one product, which also changes the catalog.
+     */
+    public void productChanged(Long id) {
+        bumpProduct(id);
+        afterCommit(() -> bumpProduct(id));
+    }
+
+    /**
+     * Records products added to the catalog, which no product ETag handed out so far can refer to.
+     */
+    public void catalogChanged() {
+        catalog.incrementAndGet();
+        afterCommit(catalog::incrementAndGet);
+    }
+
+    /**
+     * Records a category change, which also changes every product showing the category name.
+     */
+    public void categoriesChanged() {
+        bumpCategories();
+        afterCommit(this::bumpCategories);
+    }
+
+    /**
+     * Registers a callback run after every catalog change, once the change is committed. Callbacks run on the writing
+     * thread and must return quickly.
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public String catalogETag() {
+        return "\"catalog-" + epoch + "-" + catalog.get() + "\"";
+    }
+
+    public String productETag(Long id) {
+        return "\"product-" + id + "-" + epoch + "-" + Math.max(products.getOrDefault(id, 0L), productsFloor.get()) + "\"";
+    }
+
+    public String categoriesETag() {
+        return "\"categories-" + epoch + "-" + categories.get() + "\"";
+    }
+
+    private void bumpProduct(Long id) {
+        products.put(id, catalog.incrementAndGet());
+    }
+
+    private void bumpCategories() {
+        categories.incrementAndGet();
+        productsFloor.accumulateAndGet(catalog.incrementAndGet(), Math::max);
+    }
+
+    private void afterCommit(Runnable bump) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump.run();
+                    listeners.forEach(Runnable::run);
+                }
+            });
+        } else {
+            listeners.forEach(Runnable::run);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.alten.back.services.cache;
+
+import com.alten.back.dtos.CategoryStatistics;
+import com.alten.back.dtos.ProductStockUpdate;
+import com.alten.back.enums.InventoryStatus;
+import com.alten.back.events.ProductDeletedEvent;
+import com.alten.back.events.ProductStockChangedEvent;
+import com.alten.back.repositories.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-category product count, stock units, stock value and inventory status counts, kept up to date in memory.
+ *
+ * <p>Every write path publishes the stock columns of the products it changed, as committed. The last known state of
+ * each product is kept, so that applying a new state subtracts the old contribution from its former category and adds
+ * the new one to its current category: reads cost O(categories) and each write O(1). The whole table is rebuilt from
+ * the database at startup and on demand, to repair any drift. Changes committed while a rebuild reads the catalog are
+ * replayed on top of it, which is safe since each change carries the full state of its product.
+ *
+ * <p>Events of concurrent transactions may be delivered out of commit order, so each state carries the stored
+ * {@code updatedAt} of its product and a state older than the one held is ignored. Products deleted within the last
+ * minute are remembered, so that a late state cannot bring them back. Two writers stamping the same product within the
+ * same instant remain unordered, and the figures are those of this instance only; a rebuild realigns them with the
+ * database.
+ */
+@Slf4j
+@Component
+public class CategoryAggregates {
+
+    private static final InventoryStatus[] STATUSES = InventoryStatus.values();
+    private static final long DELETION_WINDOW_NANOS = Duration.ofMinutes(1).toNanos();
+
+    private final ProductRepository productRepository;
+
+    /**
+     * Guards the state below. Held for a few map operations per change, never across I/O.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Serializes rebuilds, which read the catalog without holding {@link #lock}.
+     */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private Map<Long, ProductStockUpdate> products = new HashMap<>();
+
+    /**
+     * Ids of the recently deleted products, in deletion order, with the {@link System#nanoTime()} of their deletion. A
+     * late state can only come from a transaction committed before the deletion, whose listeners run as soon as it
+     * commits, so a deletion is forgotten after {@link #DELETION_WINDOW_NANOS}.
+     */
+    private final LinkedHashMap<Long, Long> deleted = new LinkedHashMap<>();
+
+    /**
+     * Keyed by category id, with a null key for products without a category.
+     */
+    private Map<Long, Totals> categories = new HashMap<>();
+
+    /**
+     * Changes applied while a rebuild is reading the catalog, or null when no rebuild is running.
+     */
+    private List<Change> replay;
+
+    public CategoryAggregates(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductStockChanged(ProductStockChangedEvent event) {
+        lock.lock();
+        try {
+            for (ProductStockUpdate update : event.getUpdates()) {
+                apply(new Change(update.getProductId(), update));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        lock.lock();
+        try {
+            apply(new Change(event.getProductId(), null));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Recomputes every aggregate from the database.
+     *
+     * @return the number of products read
+     */
+    public int rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            lock.lock();
+            try {
+                replay = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+            Map<Long, ProductStockUpdate> rebuiltProducts = new HashMap<>();
+            Map<Long, Totals> rebuiltCategories = new HashMap<>();
+            try {
+                for (ProductStockUpdate product : productRepository.findAllStockUpdates()) {
+                    rebuiltProducts.put(product.getProductId(), product);
+                    rebuiltCategories.computeIfAbsent(product.getCategoryId(), id -> new Totals()).add(product, 1);
+                }
+            } catch (RuntimeException e) {
+                lock.lock();
+                try {
+                    replay = null;
+                } finally {
+                    lock.unlock();
+                }
+                throw e;
+            }
+            lock.lock();
+            try {
+                List<Change> missed = replay;
+                replay = null;
+                forgetDeletions();
+                products = rebuiltProducts;
+                categories = rebuiltCategories;
+                missed.forEach(this::apply);
+            } finally {
+                lock.unlock();
+            }
+            log.info("Rebuilt the statistics of {} categories from {} products in {} ms", rebuiltCategories.size(),
+                    rebuiltProducts.size(), (System.nanoTime() - start) / 1_000_000);
+            return rebuiltProducts.size();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the figures of every category holding at least one product, without category names.
+     */
+    public List<CategoryStatistics> statistics() {
+        lock.lock();
+        try {
+            List<CategoryStatistics> statistics = new ArrayList<>(categories.size());
+            categories.forEach((categoryId, totals) -> statistics.add(totals.toStatistics(categoryId)));
+            return statistics;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(Change change) {
+        if (replay != null) {
+            replay.add(change);
+        }
+        if (change.state() == null) {
+            forgetDeletions();
+            deleted.put(change.productId(), System.nanoTime());
+        } else if (isStale(change.state())) {
+            return;
+        }
+        ProductStockUpdate previous = change.state() != null
+                ? products.put(change.productId(), change.state())
+                : products.remove(change.productId());
+        if (previous != null) {
+            Totals totals = categories.get(previous.getCategoryId());
+            if (totals != null) {
+                totals.add(previous, -1);
+                if (totals.productCount == 0) {
+                    categories.remove(previous.getCategoryId());
+                }
+            }
+        }
+        if (change.state() != null) {
+            categories.computeIfAbsent(change.state().getCategoryId(), id -> new Totals()).add(change.state(), 1);
+        }
+    }
+
+    private boolean isStale(ProductStockUpdate state) {
+        if (deleted.containsKey(state.getProductId())) {
+            return true;
+        }
+        ProductStockUpdate current = products.get(state.getProductId());
+        return current != null && state.isOlderThan(current.getUpdatedAt());
+    }
+
+    /**
+     * Drops the deletions older than the window, which no late state can follow any more.
+     */
+    private void forgetDeletions() {
+        long now = System.nanoTime();
+        Iterator<Long> deletedAt = deleted.values().iterator();
+        while (deletedAt.hasNext() && now - deletedAt.next() > DELETION_WINDOW_NANOS) {
+            deletedAt.remove();
+        }
+    }
+
+    /**
+     * New state of a product, or null once it is deleted.
+     */
+    private record Change(Long productId, ProductStockUpdate state) {
+    }
+
+    private static final class Totals {
+        private long productCount;
+        private long stockUnits;
+
+        /**
+         * Kept exact, so that adding and later subtracting the same product leaves no rounding drift.
+         */
+        private BigDecimal stockValue = BigDecimal.ZERO;
+        private final long[] statusCounts = new long[STATUSES.length];
+
+        void add(ProductStockUpdate product, int sign) {
+            productCount += sign;
+            stockUnits += (long) sign * product.getQuantity();
+            if (product.getPrice() != null) {
+                stockValue = stockValue.add(BigDecimal.valueOf(product.getPrice())
+                        .multiply(BigDecimal.valueOf((long) sign * product.getQuantity())));
+            }
+            if (product.getInventoryStatus() != null) {
+                statusCounts[product.getInventoryStatus().ordinal()] += sign;
+            }
+        }
+
+        CategoryStatistics toStatistics(Long categoryId) {
+            Map<InventoryStatus, Long> counts = new EnumMap<>(InventoryStatus.class);
+            for (InventoryStatus status : STATUSES) {
+                counts.put(status, statusCounts[status.ordinal()]);
+            }
+            return CategoryStatistics.builder()
+                    .categoryId(categoryId)
+                    .productCount(productCount)
+                    .stockUnits(stockUnits)
+                    .stockValue(stockValue.doubleValue())
+                    .statusCounts(counts)
+                    .build();
+        }
+    }
+}
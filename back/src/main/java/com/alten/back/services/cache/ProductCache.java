@@ -0,0 +1,226 @@
+package com.alten.back.services.cache;
+
+import com.alten.back.dtos.CacheStatistics;
+import com.alten.back.dtos.ProductDetail;
+import com.alten.back.entities.Product;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of product details, keyed by id with secondary code and name indexes.
+ *
+ * <p>Entries are evicted by size (W-TinyLFU) and after a fixed time since they were loaded. The code and name
+ * indexes only hold ids, so a product is stored once. Writers call {@link #invalidate(Product)} with the product as it
+ * was before the change; the eviction is repeated after the transaction commits so that a concurrent reader cannot
+ * put the uncommitted state back in the cache. The three caches are exported as {@code cache.*} meters, tagged
+ * {@code products.byId}, {@code products.idByCode} and {@code products.idByName}.
+ */
+@Component
+public class ProductCache implements MeterBinder {
+
+    private final long maximumSize;
+    private final AsyncCache<Long, ProductDetail> pendingById;
+    private final Cache<Long, ProductDetail> byId;
+    private final Cache<String, Long> idByCode;
+    private final Cache<String, Long> idByName;
+
+    public ProductCache(@Value("${product.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${product.cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.maximumSize = maximumSize;
+        this.pendingById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        this.byId = pendingById.synchronous();
+        this.idByCode = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.idByName = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, pendingById, "products.byId");
+        CaffeineCacheMetrics.monitor(registry, idByCode, "products.idByCode");
+        CaffeineCacheMetrics.monitor(registry, idByName, "products.idByName");
+    }
+
+    /**
+     * Returns the cached product with this id, loading it on a miss. Products the loader does not find are not cached.
+     *
+     * <p>Concurrent misses on the same id share one load. The load runs on the calling thread outside of any cache
+     * lock, so a virtual thread waiting on the database does not pin its carrier, and an eviction during the load
+     * discards its result instead of waiting for it.
+     */
+    public ProductDetail getById(Long id, Function<Long, ProductDetail> loader) {
+        CompletableFuture<ProductDetail> load = new CompletableFuture<>();
+        CompletableFuture<ProductDetail> cached = pendingById.get(id, (key, executor) -> load);
+        if (cached != load) {
+            try {
+                return cached.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            ProductDetail product = loader.apply(id);
+            load.complete(product);
+            return product;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the product with this code. A code already resolved is served through {@link #getById}, with
+     * {@code idLoader}; otherwise the product is loaded by code with {@code loader} and only its id is indexed.
+     */
+    public ProductDetail getByCode(String code, Function<String, ProductDetail> loader,
+                                   Function<Long, ProductDetail> idLoader) {
+        return getByKey(idByCode, ProductDetail::getCode, code, loader, idLoader);
+    }
+
+    /**
+     * Returns the product with this name. A name already resolved is served through {@link #getById}, with
+     * {@code idLoader}; otherwise the product is loaded by name with {@code loader} and only its id is indexed.
+     */
+    public ProductDetail getByName(String name, Function<String, ProductDetail> loader,
+                                   Function<Long, ProductDetail> idLoader) {
+        return getByKey(idByName, ProductDetail::getName, name, loader, idLoader);
+    }
+
+    /**
+     * Evicts a product and its code and name entries, now and again after the current transaction commits.
+     */
+    public void invalidate(Product product) {
+        if (product == null) {
+            return;
+        }
+        Long id = product.getId();
+        String code = product.getCode();
+        String name = product.getName();
+        evict(id, code, name);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id, code, name);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evicts a product by id only, for changes that leave its code and name untouched.
+     */
+    public void invalidateId(Long id) {
+        byId.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    byId.invalidate(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evicts every product, for changes shared by many products such as a category rename.
+     */
+    public void invalidateAll() {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        }
+    }
+
+    public List<CacheStatistics> statistics() {
+        return List.of(
+                statistics("products.byId", byId),
+                statistics("products.idByCode", idByCode),
+                statistics("products.idByName", idByName));
+    }
+
+    /**
+     * The product loaded by key is not put in {@link #byId}: the load may have read the state a concurrent write is
+     * about to replace, after that write's eviction, and nothing would evict it again. Only {@link #getById} installs
+     * its pending load before reading, so that an eviction discards it. An index entry left stale the same way is
+     * harmless, since the product it points to is checked against the key.
+     */
+    private ProductDetail getByKey(Cache<String, Long> index, Function<ProductDetail, String> keyOf, String key,
+                                   Function<String, ProductDetail> loader, Function<Long, ProductDetail> idLoader) {
+        Long id = index.getIfPresent(key);
+        if (id != null) {
+            ProductDetail product = getById(id, idLoader);
+            if (product != null && key.equals(keyOf.apply(product))) {
+                return product;
+            }
+            index.asMap().remove(key, id);
+        }
+        ProductDetail product = loader.apply(key);
+        if (product != null) {
+            index.put(key, product.getId());
+        }
+        return product;
+    }
+
+    private void evict(Long id, String code, String name) {
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        if (code != null) {
+            idByCode.invalidate(code);
+        }
+        if (name != null) {
+            idByName.invalidate(name);
+        }
+    }
+
+    private void clear() {
+        byId.invalidateAll();
+        idByCode.invalidateAll();
+        idByName.invalidateAll();
+    }
+
+    private CacheStatistics statistics(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return CacheStatistics.builder()
+                .name(name)
+                .size(cache.estimatedSize())
+                .maximumSize(maximumSize)
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .evictions(stats.evictionCount())
+                .hitRate(stats.hitRate())
+                .build();
+    }
+}
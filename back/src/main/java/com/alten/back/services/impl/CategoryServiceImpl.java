@@ -1,19 +1,47 @@
 package com.alten.back.services.impl;
 
+import com.alten.back.dtos.CategoryStatistics;
 import com.alten.back.entities.Category;
+import com.alten.back.enums.InventoryStatus;
 import com.alten.back.repositories.CategoryRepository;
+import com.alten.back.repositories.ProductRepository;
 import com.alten.back.services.CategoryServices;
+import com.alten.back.services.cache.CatalogVersions;
+import com.alten.back.services.cache.CategoryAggregates;
+import com.alten.back.services.cache.ProductCache;
+import com.alten.back.services.search.ProductSearchIndex;
+import core.exceptions.ConflictException;
 import core.exceptions.ExceptionClass;
+import core.exceptions.NotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class CategoryServiceImpl implements CategoryServices {
 
     private final CategoryRepository categoryRepository;
-    public CategoryServiceImpl(CategoryRepository categoryRepository) {
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final CatalogVersions catalogVersions;
+    private final CategoryAggregates categoryAggregates;
+    public CategoryServiceImpl(CategoryRepository categoryRepository, ProductRepository productRepository, ProductCache productCache,
+                               ProductSearchIndex productSearchIndex, CatalogVersions catalogVersions,
+                               CategoryAggregates categoryAggregates) {
         this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.productSearchIndex = productSearchIndex;
+        this.catalogVersions = catalogVersions;
+        this.categoryAggregates = categoryAggregates;
     }
 
     /**
@@ -50,8 +78,10 @@ public class CategoryServiceImpl implements CategoryServices {
     @Override
     public Category getCategoryById(Long categoryId) throws ExceptionClass {
         try {
-            return categoryRepository.findById(categoryId).get();
-        }catch (Exception e) {
+            return categoryRepository.findById(categoryId).orElseThrow(() -> new NotFoundException("Category", categoryId));
+        } catch (ExceptionClass e) {
+            throw e;
+        } catch (Exception e) {
             throw new ExceptionClass("Error while getting the category with id: " + categoryId + e.getMessage(), e);
         }
     }
@@ -69,7 +99,9 @@ public class CategoryServiceImpl implements CategoryServices {
     @Override
     public Category saveCategory(Category category) throws ExceptionClass {
         try {
-            return categoryRepository.save(category);
+            Category savedCategory = categoryRepository.save(category);
+            catalogVersions.categoriesChanged();
+            return savedCategory;
         }catch (Exception e) {
             throw new ExceptionClass("Error while saving the category with name: " + category.getName() + e.getMessage(), e);
         }
@@ -81,21 +113,32 @@ public class CategoryServiceImpl implements CategoryServices {
      * <p>This method updates the fields of an existing category based on the provided category object.
      * If the category is not found in the repository, an exception is thrown.
      * If the update operation is successful, the updated category is returned.
+     * Cached products embed their category, so the product cache is cleared.
+     * The products of the category are marked as updated so that delta syncs return their new category name; the rename
+     * and this mark commit together, so a rename is never visible without its products being returned by the next sync.
      *
      * @param category the {@link Category} object containing the updated information
      * @return the updated {@link Category} object
      * @throws ExceptionClass if an error occurs while updating the category or if the category is not found
      */
     @Override
+    @Transactional
     public Category updateCategory(Category category) throws ExceptionClass {
         try {
             Category existingCategory = categoryRepository.findById(category.getId())
-                    .orElseThrow(() -> new ExceptionClass("Category not found with ID: " + category.getId()));
+                    .orElseThrow(() -> new NotFoundException("Category", category.getId()));
 
             existingCategory.setName(category.getName() != null ? category.getName() : existingCategory.getName());
             existingCategory.setDescription(category.getDescription() != null ? category.getDescription() : existingCategory.getDescription());
 
-            return categoryRepository.save(existingCategory);
+            Category savedCategory = categoryRepository.save(existingCategory);
+            productCache.invalidateAll();
+            catalogVersions.categoriesChanged();
+            productRepository.touchCategory(savedCategory.getId(), LocalDateTime.now());
+            productSearchIndex.renameCategory(savedCategory.getId(), savedCategory.getName());
+            return savedCategory;
+        } catch (ExceptionClass e) {
+            throw e;
         } catch (Exception e) {
             throw new ExceptionClass("Error while updating the category: " + category.getName() + e.getMessage(), e);
         }
@@ -105,7 +148,8 @@ public class CategoryServiceImpl implements CategoryServices {
      * Deletes a category from the repository by its ID.
      *
      * <p>This method first retrieves the category by its ID. If the category exists, it is deleted from the repository.
-     * If any error occurs during the deletion process, an exception is thrown.
+     * A category still holding products cannot be deleted and raises a {@link ConflictException}.
+     * If any other error occurs during the deletion process, an exception is thrown.
      *
      * @param categoryId the ID of the {@link Category} to be deleted
      * @throws ExceptionClass if an error occurs while retrieving or deleting the category
@@ -116,7 +160,13 @@ public class CategoryServiceImpl implements CategoryServices {
             Category category = this.getCategoryById(categoryId);
             if (category != null) {
                 categoryRepository.delete(category);
+                productCache.invalidateAll();
+                catalogVersions.categoriesChanged();
             }
+        } catch (ExceptionClass e) {
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("The category with ID " + categoryId + " still has products", e);
         } catch (Exception e) {
             throw new ExceptionClass("Error while deleting the category with ID: " + categoryId + e.getMessage(), e);
         }
@@ -139,4 +189,68 @@ public class CategoryServiceImpl implements CategoryServices {
             throw new ExceptionClass("Error while getting the all the categories" + e.getMessage(), e);
         }
     }
+
+    /**
+     * Returns the stock figures of every category.
+     *
+     * <p>The figures come from the in-memory {@link CategoryAggregates}, updated by every product write, so the cost of
+     * this method grows with the number of categories rather than with the number of products. Categories without
+     * products are reported with zeros, and products without a category are reported last, with a null category id.
+     * If any error occurs during the retrieval process, an exception is thrown.
+     * </p>
+     *
+     * @return a {@link List} of {@link CategoryStatistics}, one per category
+     * @throws ExceptionClass if an error occurs while retrieving the categories
+     */
+    @Override
+    public List<CategoryStatistics> getCategoryStatistics() throws ExceptionClass {
+        try {
+            Map<Long, CategoryStatistics> figures = new HashMap<>();
+            categoryAggregates.statistics().forEach(statistics -> figures.put(statistics.getCategoryId(), statistics));
+            List<CategoryStatistics> statistics = new ArrayList<>();
+            for (Category category : categoryRepository.findAll()) {
+                CategoryStatistics categoryStatistics = figures.remove(category.getId());
+                if (categoryStatistics == null) {
+                    categoryStatistics = emptyStatistics(category.getId());
+                }
+                categoryStatistics.setCategoryName(category.getName());
+                statistics.add(categoryStatistics);
+            }
+            statistics.addAll(figures.values());
+            return statistics;
+        } catch (Exception e) {
+            throw new ExceptionClass("Error while getting the category statistics" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recomputes the category statistics from the database and returns them.
+     *
+     * <p>The statistics are maintained incrementally; this method repairs them after a direct change to the database or
+     * any other drift. It reads the stock columns of every product once.
+     * </p>
+     *
+     * @return the rebuilt {@link CategoryStatistics}, one per category
+     * @throws ExceptionClass if an error occurs while reading the products
+     */
+    @Override
+    public List<CategoryStatistics> rebuildCategoryStatistics() throws ExceptionClass {
+        try {
+            categoryAggregates.rebuild();
+        } catch (Exception e) {
+            throw new ExceptionClass("Error while rebuilding the category statistics" + e.getMessage(), e);
+        }
+        return getCategoryStatistics();
+    }
+
+    private CategoryStatistics emptyStatistics(Long categoryId) {
+        Map<InventoryStatus, Long> statusCounts = new EnumMap<>(InventoryStatus.class);
+        for (InventoryStatus status : InventoryStatus.values()) {
+            statusCounts.put(status, 0L);
+        }
+        return CategoryStatistics.builder()
+                .categoryId(categoryId)
+                .statusCounts(statusCounts)
+                .build();
+    }
 }
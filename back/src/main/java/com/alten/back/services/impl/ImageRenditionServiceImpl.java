@@ -0,0 +1,307 @@
+package com.alten.back.services.impl;
+
+import com.alten.back.dtos.StoredImage;
+import com.alten.back.enums.ImageRendition;
+import com.alten.back.events.ImageBlobDeletedEvent;
+import com.alten.back.events.ProductImageStoredEvent;
+import com.alten.back.services.ImageRenditionService;
+import com.alten.back.services.ImageStorageService;
+import core.exceptions.ExceptionClass;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+public class ImageRenditionServiceImpl implements ImageRenditionService {
+
+    /**
+     * Side of the largest derived rendition, the only size an original is decoded at.
+     */
+    private static final int MAX_RENDITION_SIZE = Arrays.stream(ImageRendition.values())
+            .mapToInt(ImageRendition::getMaxSize).max().orElseThrow();
+
+    /**
+     * Delay before a job that failed for another reason than the image itself, such as a full disk, is tried again.
+     */
+    private static final long RETRY_DELAY_NANOS = Duration.ofMinutes(10).toNanos();
+
+    /**
+     * Directory path for file storage, configurable via the application properties.
+     */
+    private final String storageDirectory;
+
+    /**
+     * Store from which the original images are read.
+     */
+    private final ImageStorageService imageStorageService;
+
+    /**
+     * Bounded pool decoding and resizing images in the background. When its queue is full new jobs are dropped;
+     * they are scheduled again the next time the missing rendition is requested.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Digests with a job queued or running, so the same image is never processed twice at the same time.
+     */
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Digests ImageIO cannot decode, or larger than {@link #maxPixels}, for which the original is always served.
+     */
+    private final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Digests whose last job failed, with the {@link System#nanoTime()} before which no job is queued again.
+     */
+    private final Map<String, Long> failed = new ConcurrentHashMap<>();
+
+    /**
+     * Largest number of pixels an original may declare to be decoded; the header is checked before any allocation.
+     */
+    private final long maxPixels;
+
+    public ImageRenditionServiceImpl(ImageStorageService imageStorageService,
+                                     @Value("${file.storage.directory}") String storageDirectory,
+                                     @Value("${image.renditions.workers:2}") int workers,
+                                     @Value("${image.renditions.queue-capacity:256}") int queueCapacity,
+                                     @Value("${image.renditions.max-pixels:50000000}") long maxPixels) {
+        this.imageStorageService = imageStorageService;
+        this.storageDirectory = storageDirectory;
+        this.maxPixels = maxPixels;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-rendition-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Generates the renditions of a newly stored product image once the product change is committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductImageStored(ProductImageStoredEvent event) {
+        if (imageStorageService.isDigest(event.getImage())) {
+            scheduleRenditions(event.getImage());
+        }
+    }
+
+    /**
+     * Deletes the renditions of an image whose blob is gone.
+     */
+    @EventListener
+    public void onImageBlobDeleted(ImageBlobDeletedEvent event) {
+        unsupported.remove(event.getDigest());
+        failed.remove(event.getDigest());
+        for (ImageRendition rendition : ImageRendition.values()) {
+            if (rendition == ImageRendition.ORIGINAL) {
+                continue;
+            }
+            for (MediaType mediaType : new MediaType[]{MediaType.IMAGE_JPEG, MediaType.IMAGE_PNG}) {
+                try {
+                    Files.deleteIfExists(renditionPath(event.getDigest(), rendition, mediaType));
+                } catch (IOException e) {
+                    log.warn("Could not delete the {} rendition of image {}", rendition, event.getDigest(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues the generation of every derived rendition of an image.
+     *
+     * <p>Nothing is queued if the image is already being processed, if ImageIO cannot decode it, or if all its
+     * renditions already exist on disk (the same content uploaded for another product). When the worker queue is full
+     * the job is dropped: the original keeps being served and the job is queued again on a later request. A job that
+     * failed is not queued again before a retry delay, so a failing image is not decoded on every request.
+     * </p>
+     *
+     * @param digest the digest of the original image
+     */
+    @Override
+    public void scheduleRenditions(String digest) {
+        Long retryAt = failed.get(digest);
+        if (unsupported.contains(digest) || retryAt != null && System.nanoTime() - retryAt < 0
+                || !pending.add(digest)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generateRenditions(digest);
+                    failed.remove(digest);
+                } catch (Exception e) {
+                    failed.put(digest, System.nanoTime() + RETRY_DELAY_NANOS);
+                    log.warn("Could not generate the renditions of image {}", digest, e);
+                } finally {
+                    pending.remove(digest);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(digest);
+            log.debug("Rendition queue full, image {} will be processed on a later request", digest);
+        }
+    }
+
+    /**
+     * Looks up a derived rendition of an image.
+     *
+     * <p>If the rendition has not been generated yet, its generation is scheduled and an empty result is returned,
+     * letting the caller serve the original meanwhile.
+     * </p>
+     *
+     * @param digest the digest of the original image
+     * @param rendition the requested rendition, other than {@link ImageRendition#ORIGINAL}
+     * @return the rendition if it is ready, empty otherwise
+     */
+    @Override
+    public Optional<StoredImage> findRendition(String digest, ImageRendition rendition) {
+        if (rendition == ImageRendition.ORIGINAL || !imageStorageService.isDigest(digest)) {
+            return Optional.empty();
+        }
+        for (MediaType mediaType : new MediaType[]{MediaType.IMAGE_JPEG, MediaType.IMAGE_PNG}) {
+            Path path = renditionPath(digest, rendition, mediaType);
+            if (Files.isReadable(path)) {
+                return Optional.of(new StoredImage(digest, mediaType, new FileSystemResource(path)));
+            }
+        }
+        scheduleRenditions(digest);
+        return Optional.empty();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void generateRenditions(String digest) throws IOException {
+        StoredImage original = imageStorageService.load(digest);
+        MediaType outputType = MediaType.IMAGE_JPEG.equalsTypeAndSubtype(original.getContentType())
+                ? MediaType.IMAGE_JPEG : MediaType.IMAGE_PNG;
+
+        BufferedImage source = null;
+        for (ImageRendition rendition : ImageRendition.values()) {
+            if (rendition == ImageRendition.ORIGINAL || Files.exists(renditionPath(digest, rendition, outputType))) {
+                continue;
+            }
+            if (source == null) {
+                source = decode(digest, original);
+                if (source == null) {
+                    unsupported.add(digest);
+                    return;
+                }
+            }
+            write(resize(source, rendition.getMaxSize(), outputType), renditionPath(digest, rendition, outputType), outputType);
+        }
+    }
+
+    /**
+     * Decodes an original subsampled to about the largest rendition, so that a large photo never lives in memory at
+     * full size. Returns null when no reader accepts the content, when it cannot be decoded, or when its header
+     * declares more than {@link #maxPixels} pixels.
+     */
+    private BufferedImage decode(String digest, StoredImage original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.getResource().getFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.warn("Image {} is {}x{} pixels, above the limit of {}, its original is served", digest, width,
+                            height, maxPixels);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / MAX_RENDITION_SIZE);
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not decode image {}, its original is served", digest, e);
+                return null;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source, int maxSize, MediaType outputType) {
+        double scale = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        int type = MediaType.IMAGE_JPEG.equals(outputType) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+
+        BufferedImage target = new BufferedImage(width, height, type);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, Path target, MediaType outputType) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            if (!ImageIO.write(image, outputType.getSubtype(), temporary.toFile())) {
+                throw new ExceptionClass("No ImageIO writer for " + outputType);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Renditions are stored next to the blobs, {@code renditions/thumbnail/ab/cd/abcd....jpeg}.
+     */
+    private Path renditionPath(String digest, ImageRendition rendition, MediaType mediaType) {
+        return Paths.get(storageDirectory, "renditions", rendition.name().toLowerCase(),
+                digest.substring(0, 2), digest.substring(2, 4), digest + "." + mediaType.getSubtype()).toAbsolutePath();
+    }
+}
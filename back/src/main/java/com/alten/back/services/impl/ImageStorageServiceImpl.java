@@ -0,0 +1,324 @@
+package com.alten.back.services.impl;
+
+import com.alten.back.dtos.StoredImage;
+import com.alten.back.entities.ImageBlob;
+import com.alten.back.events.ImageBlobDeletedEvent;
+import com.alten.back.repositories.ImageBlobRepository;
+import com.alten.back.services.ImageStorageService;
+import core.exceptions.ExceptionClass;
+import core.exceptions.NotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+@Service
+public class ImageStorageServiceImpl implements ImageStorageService {
+
+    private static final Pattern DIGEST_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * Directory path for file storage, configurable via the application properties.
+     */
+    @Value("${file.storage.directory}")
+    private String storageDirectory;
+
+    /**
+     * Repository holding one row, with its reference count, per stored digest.
+     */
+    private final ImageBlobRepository imageBlobRepository;
+
+    /**
+     * Runs reference count changes in their own transaction, so that they are visible to concurrent uploads
+     * of the same content as soon as the stripe lock is released.
+     */
+    private final TransactionTemplate requiresNew;
+
+    /**
+     * Notifies the rendition pipeline when a blob is deleted.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Serializes uploads and releases of the same digest inside this instance. These are locks rather than monitors
+     * because they are held across database and file I/O, which would pin a virtual thread to its carrier.
+     */
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Bytes received in uploads, including duplicates, and bytes actually written to the blob store.
+     */
+    private final Counter uploadedBytes;
+    private final Counter writtenBytes;
+
+    public ImageStorageServiceImpl(ImageBlobRepository imageBlobRepository, PlatformTransactionManager transactionManager,
+                                   ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.imageBlobRepository = imageBlobRepository;
+        this.meterRegistry = meterRegistry;
+        this.uploadedBytes = Counter.builder("images.uploaded")
+                .description("Bytes of image content received for storage")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.writtenBytes = Counter.builder("images.written")
+                .description("Bytes of image content written to the blob store")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.eventPublisher = eventPublisher;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Stores an uploaded image under its SHA-256 digest and takes one reference on it.
+     *
+     * <p>The upload is hashed first without writing anything. If a blob with the same digest already exists, only its
+     * reference count is incremented, so duplicate uploads cost no disk write. Otherwise the content is streamed to a
+     * temporary file while being hashed again, checked against the expected digest and atomically moved in place.
+     * The reference is committed immediately, so that concurrent uploads of the same content see it. When called inside
+     * a transaction, it is given back if that transaction rolls back, so a failed save does not leave the blob
+     * over-counted. The reference count runs in its own short transaction, which needs a second pooled connection while
+     * the caller's transaction holds one: callers should store the image before opening their transaction, and release
+     * the digest themselves if they then fail to use it.
+     * Each call is timed as {@code images.store}, tagged with whether the content was written, deduplicated or failed.
+     * </p>
+     *
+     * @param file the MultipartFile representing the uploaded image file
+     * @return the digest identifying the stored image, to be kept in {@code Product.image}
+     * @throws ExceptionClass if an error occurs while hashing, writing or registering the image
+     */
+    @Override
+    public String store(MultipartFile file) throws ExceptionClass {
+        long start = System.nanoTime();
+        String outcome = "failed";
+        try {
+            String digest;
+            try (InputStream inputStream = file.getInputStream()) {
+                digest = digest(inputStream, OutputStream.nullOutputStream());
+            }
+            ReentrantLock lock = lockFor(digest);
+            lock.lock();
+            try {
+                Boolean known = requiresNew.execute(status -> imageBlobRepository.incrementReferenceCount(digest) > 0);
+                outcome = "duplicate";
+                if (!Boolean.TRUE.equals(known)) {
+                    long size = writeBlob(file, digest);
+                    writtenBytes.increment(size);
+                    outcome = "written";
+                    String contentType = contentTypeOf(file).toString();
+                    requiresNew.executeWithoutResult(status ->
+                            imageBlobRepository.save(new ImageBlob(digest, contentType, size, 1, null)));
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_ROLLED_BACK) {
+                            doRelease(digest);
+                        }
+                    }
+                });
+            }
+            uploadedBytes.increment(file.getSize());
+            return digest;
+        } catch (Exception e) {
+            outcome = "failed";
+            throw new ExceptionClass("Error while uploading the file: " + e.getMessage(), e);
+        } finally {
+            record("images.store", "Time taken to hash, deduplicate and store an uploaded image", outcome, start);
+        }
+    }
+
+    /**
+     * Gives back one reference on a stored image.
+     *
+     * <p>When called inside a transaction, the release is deferred until that transaction commits, so a rolled back
+     * update or deletion keeps its image. The blob row and file are deleted once no product references them anymore.
+     * Images uploaded before the content-addressed store are left untouched.
+     * </p>
+     *
+     * @param image the value of {@code Product.image} that is no longer used
+     * @throws ExceptionClass if an error occurs while updating the reference count or deleting the file
+     */
+    @Override
+    public void release(String image) throws ExceptionClass {
+        if (!isDigest(image)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doRelease(image);
+                }
+            });
+        } else {
+            doRelease(image);
+        }
+    }
+
+    /**
+     * Resolves the value of {@code Product.image} to the file to serve.
+     *
+     * <p>Each call is timed as {@code images.load}; the bytes actually sent are counted by the controller serving them.
+     * </p>
+     *
+     * @param image a digest, or the relative path of an image uploaded before the content-addressed store
+     * @return the {@link StoredImage} with its content type and file
+     * @throws ExceptionClass if the image is unknown or its file cannot be read
+     */
+    @Override
+    public StoredImage load(String image) throws ExceptionClass {
+        long start = System.nanoTime();
+        String outcome = "failed";
+        try {
+            if (isDigest(image)) {
+                ImageBlob blob = imageBlobRepository.findById(image)
+                        .orElseThrow(() -> new NotFoundException("Image", image));
+                FileSystemResource resource = new FileSystemResource(blobPath(image));
+                if (!resource.isReadable()) {
+                    throw new NotFoundException("Image file", image);
+                }
+                outcome = "found";
+                return new StoredImage(image, MediaType.parseMediaType(blob.getContentType()), resource);
+            }
+            FileSystemResource resource = new FileSystemResource(Paths.get(image).toAbsolutePath());
+            if (!resource.isReadable()) {
+                throw new NotFoundException("Image file", image);
+            }
+            outcome = "found";
+            return new StoredImage(null, legacyContentType(image), resource);
+        } catch (ExceptionClass e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExceptionClass("Error while loading the image " + image + ": " + e.getMessage(), e);
+        } finally {
+            record("images.load", "Time taken to resolve a stored image to its file", outcome, start);
+        }
+    }
+
+    @Override
+    public boolean isDigest(String image) {
+        return image != null && DIGEST_PATTERN.matcher(image).matches();
+    }
+
+    private void record(String name, String description, String outcome, long start) {
+        Timer.builder(name)
+                .description(description)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void doRelease(String digest) {
+        ReentrantLock lock = lockFor(digest);
+        lock.lock();
+        try {
+            Boolean orphan = requiresNew.execute(status -> imageBlobRepository.decrementReferenceCount(digest) > 0
+                    && imageBlobRepository.deleteIfUnreferenced(digest) > 0);
+            if (Boolean.TRUE.equals(orphan)) {
+                try {
+                    Files.deleteIfExists(blobPath(digest));
+                    eventPublisher.publishEvent(new ImageBlobDeletedEvent(digest));
+                } catch (IOException e) {
+                    throw new ExceptionClass("Error while deleting the image with digest: " + digest, e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long writeBlob(MultipartFile file, String expectedDigest) throws IOException, NoSuchAlgorithmException {
+        Path target = blobPath(expectedDigest);
+        Files.createDirectories(target.getParent());
+        Path temporary = Files.createTempFile(target.getParent(), expectedDigest, ".tmp");
+        try {
+            String digest;
+            try (InputStream inputStream = file.getInputStream(); OutputStream outputStream = Files.newOutputStream(temporary)) {
+                digest = digest(inputStream, outputStream);
+            }
+            if (!digest.equals(expectedDigest)) {
+                throw new ExceptionClass("The uploaded file changed while being stored");
+            }
+            long size = Files.size(temporary);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return size;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private String digest(InputStream inputStream, OutputStream outputStream) throws IOException, NoSuchAlgorithmException {
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+        try (DigestInputStream digestInputStream = new DigestInputStream(inputStream, messageDigest)) {
+            digestInputStream.transferTo(outputStream);
+        }
+        return HexFormat.of().formatHex(messageDigest.digest());
+    }
+
+    /**
+     * Blobs are fanned out over two directory levels, {@code blobs/ab/cd/abcd...}, to keep directories small.
+     */
+    private Path blobPath(String digest) {
+        return Paths.get(storageDirectory, "blobs", digest.substring(0, 2), digest.substring(2, 4), digest).toAbsolutePath();
+    }
+
+    private ReentrantLock lockFor(String digest) {
+        return locks[Math.floorMod(digest.hashCode(), LOCK_STRIPES)];
+    }
+
+    private MediaType contentTypeOf(MultipartFile file) {
+        if (file.getContentType() != null && !file.getContentType().isBlank()) {
+            return MediaType.parseMediaType(file.getContentType());
+        }
+        return MediaTypeFactory.getMediaType(file.getOriginalFilename()).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    private MediaType legacyContentType(String image) {
+        String extension = image.substring(image.lastIndexOf(".") + 1).toLowerCase();
+        return switch (extension) {
+            case "png" -> MediaType.IMAGE_PNG;
+            case "jpg", "jpeg" -> MediaType.IMAGE_JPEG;
+            case "gif" -> MediaType.IMAGE_GIF;
+            case "pdf" -> MediaType.APPLICATION_PDF;
+            default -> MediaType.APPLICATION_OCTET_STREAM;
+        };
+    }
+}
@@ -0,0 +1,152 @@
+package com.alten.back.services.impl;
+
+import com.alten.back.entities.Product;
+import com.alten.back.enums.CatalogFormat;
+import com.alten.back.repositories.ProductRepository;
+import com.alten.back.services.ProductExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import core.exceptions.ExceptionClass;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class ProductExportServiceImpl implements ProductExportService {
+
+    /**
+     * Number of rows written between two flushes of the response stream.
+     */
+    private static final int FLUSH_INTERVAL = 500;
+
+    private static final String CSV_HEADER = "id,code,name,description,image,price,quantity,internalReference,"
+            + "inventoryStatus,rating,shellId,categoryId,createdAt,updatedAt";
+
+    /**
+     * Repository providing the cursor-backed stream over the catalog.
+     */
+    private final ProductRepository productRepository;
+
+    /**
+     * Mapper used to serialize each product as one JSON line.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Persistence context from which exported products are detached once written.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProductExportServiceImpl(ProductRepository productRepository, ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes the whole catalog to the given output stream, one product at a time.
+     *
+     * <p>Products are read through a database cursor and detached from the persistence context as soon as they are
+     * written, so the memory used stays constant whatever the size of the catalog. The output is flushed regularly so
+     * that the client receives data while the export is still running.
+     * </p>
+     *
+     * @param format : the output format, newline-delimited JSON or CSV
+     * @param outputStream : the stream the export is written to; it is flushed but not closed
+     * @throws ExceptionClass if an error occurs while reading the catalog or writing the output
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(CatalogFormat format, OutputStream outputStream) throws ExceptionClass {
+        try (Stream<Product> products = productRepository.streamAllByOrderById()) {
+            if (format == CatalogFormat.CSV) {
+                writeCsv(products.iterator(), outputStream);
+            } else {
+                writeNdjson(products.iterator(), outputStream);
+            }
+        } catch (Exception e) {
+            throw new ExceptionClass("Error while exporting the products: " + e.getMessage(), e);
+        }
+    }
+
+    private void writeNdjson(Iterator<Product> products, OutputStream outputStream) throws IOException {
+        // The mapper flushes after every value and separates root values with a space by default; the lines are
+        // delimited by hand and flushed every FLUSH_INTERVAL rows instead
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        int written = 0;
+        while (products.hasNext()) {
+            Product product = products.next();
+            writer.writeValue(generator, product);
+            generator.writeRaw('\n');
+            entityManager.detach(product);
+            if (++written % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        }
+        generator.close();
+    }
+
+    private void writeCsv(Iterator<Product> products, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        int written = 0;
+        while (products.hasNext()) {
+            Product product = products.next();
+            writeCsvLine(writer, product);
+            entityManager.detach(product);
+            if (++written % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsvLine(Writer writer, Product product) throws IOException {
+        writer.write(String.valueOf(product.getId()));
+        writeCsvField(writer, product.getCode());
+        writeCsvField(writer, product.getName());
+        writeCsvField(writer, product.getDescription());
+        writeCsvField(writer, product.getImage());
+        writeCsvField(writer, product.getPrice());
+        writeCsvField(writer, product.getQuantity());
+        writeCsvField(writer, product.getInternalReference());
+        writeCsvField(writer, product.getInventoryStatus());
+        writeCsvField(writer, product.getRating());
+        writeCsvField(writer, product.getShellId());
+        writeCsvField(writer, product.getCategory() != null ? product.getCategory().getId() : null);
+        writeCsvField(writer, product.getAuditInfo() != null ? product.getAuditInfo().getCreatedAt() : null);
+        writeCsvField(writer, product.getAuditInfo() != null ? product.getAuditInfo().getUpdatedAt() : null);
+        writer.write('\n');
+    }
+
+    private void writeCsvField(Writer writer, Object value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
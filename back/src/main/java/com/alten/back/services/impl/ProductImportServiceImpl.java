@@ -0,0 +1,289 @@
+package com.alten.back.services.impl;
+
+import com.alten.back.dtos.ImportReport;
+import com.alten.back.dtos.ImportRowResult;
+import com.alten.back.dtos.ProductDto;
+import com.alten.back.dtos.mapper.ProductDtoMapper;
+import com.alten.back.entities.Category;
+import com.alten.back.entities.Product;
+import com.alten.back.enums.CatalogFormat;
+import com.alten.back.enums.ImportRowStatus;
+import com.alten.back.enums.InventoryStatus;
+import com.alten.back.events.ProductStockChangedEvent;
+import com.alten.back.repositories.CategoryRepository;
+import com.alten.back.repositories.ProductRepository;
+import com.alten.back.services.ProductImportService;
+import com.alten.back.services.cache.CatalogVersions;
+import com.alten.back.services.search.ProductSearchIndex;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.exceptions.ExceptionClass;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    /**
+     * Number of rows validated and inserted per transaction.
+     */
+    private final int batchSize;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ProductSearchIndex productSearchIndex;
+    private final CatalogVersions catalogVersions;
+
+    /**
+     * Publishes the stock of the inserted products, consumed after commit by the product stream and the category
+     * statistics.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Commits each batch on its own, so a large import neither holds one long transaction nor keeps every inserted
+     * product in the persistence context.
+     */
+    private final TransactionTemplate batchTransaction;
+
+    public ProductImportServiceImpl(ProductRepository productRepository, CategoryRepository categoryRepository,
+                                    ObjectMapper objectMapper, Validator validator, ProductSearchIndex productSearchIndex,
+                                    CatalogVersions catalogVersions, ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${product.import.batch-size:500}") int batchSize) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.productSearchIndex = productSearchIndex;
+        this.catalogVersions = catalogVersions;
+        this.eventPublisher = eventPublisher;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports products from a JSON or CSV stream and reports the outcome of every row.
+     *
+     * <p>Rows are read one at a time and grouped in batches. For each batch, the rows are validated against the
+     * {@link ProductDto} constraints, their categories are resolved with a single query, and codes or internal references
+     * already used in the database or earlier in the input are rejected. The remaining rows are inserted in one
+     * transaction, which Hibernate sends as JDBC batches. A rejected row never prevents the other rows from being
+     * imported.
+     * </p>
+     *
+     * @param format : {@link CatalogFormat#NDJSON} for a JSON array or newline-delimited JSON objects, {@link CatalogFormat#CSV}
+     *               for a CSV file with a header line naming the {@link ProductDto} fields
+     * @param inputStream : the rows to import
+     * @return an {@link ImportReport} with the result of every row
+     * @throws ExceptionClass if the input cannot be read or if a batch cannot be inserted
+     */
+    @Override
+    public ImportReport importProducts(CatalogFormat format, InputStream inputStream) throws ExceptionClass {
+        List<ImportRowResult> results = new ArrayList<>();
+        Set<String> seenCodes = new HashSet<>();
+        Set<String> seenInternalReferences = new HashSet<>();
+        try {
+            List<ParsedRow> batch = new ArrayList<>(batchSize);
+            RowSource rows = format == CatalogFormat.CSV ? csvRows(inputStream) : jsonRows(inputStream);
+            ParsedRow row;
+            while ((row = rows.next()) != null) {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    importBatch(batch, seenCodes, seenInternalReferences, results);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                importBatch(batch, seenCodes, seenInternalReferences, results);
+            }
+        } catch (Exception e) {
+            throw new ExceptionClass("Error while importing the products after " + results.size() + " rows: " + e.getMessage(), e);
+        }
+        long created = results.stream().filter(result -> result.getStatus() == ImportRowStatus.CREATED).count();
+        return ImportReport.builder()
+                .total(results.size())
+                .created(created)
+                .rejected(results.size() - created)
+                .rows(results)
+                .build();
+    }
+
+    private void importBatch(List<ParsedRow> batch, Set<String> seenCodes, Set<String> seenInternalReferences,
+                             List<ImportRowResult> results) {
+        batchTransaction.executeWithoutResult(status -> {
+            Set<Long> categoryIds = batch.stream()
+                    .map(row -> row.dto() != null ? row.dto().getCategoryId() : null)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Map<Long, Category> categories = categoryRepository.findAllById(categoryIds).stream()
+                    .collect(Collectors.toMap(Category::getId, Function.identity()));
+            Set<String> existingCodes = new HashSet<>(productRepository.findExistingCodes(batch.stream()
+                    .filter(row -> row.dto() != null && row.dto().getCode() != null)
+                    .map(row -> row.dto().getCode()).toList()));
+            Set<String> existingInternalReferences = new HashSet<>(productRepository.findExistingInternalReferences(batch.stream()
+                    .filter(row -> row.dto() != null && row.dto().getInternalReference() != null)
+                    .map(row -> row.dto().getInternalReference()).toList()));
+
+            List<Product> products = new ArrayList<>(batch.size());
+            List<ImportRowResult> accepted = new ArrayList<>(batch.size());
+            for (ParsedRow row : batch) {
+                List<String> errors = new ArrayList<>(row.errors());
+                ProductDto dto = row.dto();
+                if (dto != null) {
+                    for (ConstraintViolation<ProductDto> violation : validator.validate(dto)) {
+                        errors.add(violation.getMessage());
+                    }
+                    if (dto.getCategoryId() == null || !categories.containsKey(dto.getCategoryId())) {
+                        errors.add("Category not found: " + dto.getCategoryId());
+                    }
+                    if (existingCodes.contains(dto.getCode()) || seenCodes.contains(dto.getCode())) {
+                        errors.add("Code already used: " + dto.getCode());
+                    }
+                    if (existingInternalReferences.contains(dto.getInternalReference())
+                            || seenInternalReferences.contains(dto.getInternalReference())) {
+                        errors.add("Internal reference already used: " + dto.getInternalReference());
+                    }
+                }
+                ImportRowResult result = ImportRowResult.builder()
+                        .line(row.line())
+                        .code(dto != null ? dto.getCode() : null)
+                        .status(errors.isEmpty() ? ImportRowStatus.CREATED : ImportRowStatus.REJECTED)
+                        .errors(errors)
+                        .build();
+                results.add(result);
+                if (errors.isEmpty()) {
+                    seenCodes.add(dto.getCode());
+                    seenInternalReferences.add(dto.getInternalReference());
+                    products.add(ProductDtoMapper.toProduct(dto, categories.get(dto.getCategoryId())));
+                    accepted.add(result);
+                }
+            }
+
+            productRepository.saveAll(products);
+            productRepository.flush();
+            products.forEach(productSearchIndex::index);
+            if (!products.isEmpty()) {
+                catalogVersions.catalogChanged();
+                eventPublisher.publishEvent(new ProductStockChangedEvent(products.stream()
+                        .map(ProductDtoMapper::toStockUpdate).toList()));
+            }
+            for (int i = 0; i < products.size(); i++) {
+                accepted.get(i).setProductId(products.get(i).getId());
+            }
+        });
+    }
+
+    private RowSource jsonRows(InputStream inputStream) throws IOException {
+        MappingIterator<Map<String, Object>> iterator = objectMapper.readerForMapOf(Object.class).readValues(inputStream);
+        long[] line = {0};
+        return () -> {
+            if (!iterator.hasNextValue()) {
+                return null;
+            }
+            line[0]++;
+            Map<String, Object> values = iterator.nextValue();
+            try {
+                return new ParsedRow(line[0], objectMapper.convertValue(values, ProductDto.class), List.of());
+            } catch (IllegalArgumentException e) {
+                return new ParsedRow(line[0], null, List.of("Invalid row: " + e.getMessage()));
+            }
+        };
+    }
+
+    private RowSource csvRows(InputStream inputStream) throws IOException {
+        CsvRowReader reader = new CsvRowReader(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+        List<String> header = reader.readRow();
+        if (header == null) {
+            return () -> null;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        long[] line = {1};
+        return () -> {
+            List<String> fields = reader.readRow();
+            while (fields != null && fields.size() == 1 && fields.get(0).isBlank()) {
+                line[0]++;
+                fields = reader.readRow();
+            }
+            if (fields == null) {
+                return null;
+            }
+            line[0]++;
+            return parseCsvRow(line[0], columns, fields);
+        };
+    }
+
+    private ParsedRow parseCsvRow(long line, Map<String, Integer> columns, List<String> fields) {
+        List<String> errors = new ArrayList<>();
+        ProductDto dto = ProductDto.builder()
+                .code(field(columns, fields, "code"))
+                .name(field(columns, fields, "name"))
+                .description(field(columns, fields, "description"))
+                .internalReference(field(columns, fields, "internalReference"))
+                .build();
+        parse(columns, fields, "price", errors, value -> dto.setPrice(Double.valueOf(value)));
+        parse(columns, fields, "quantity", errors, value -> dto.setQuantity(Integer.parseInt(value)));
+        parse(columns, fields, "rating", errors, value -> dto.setRating(Double.parseDouble(value)));
+        parse(columns, fields, "categoryId", errors, value -> dto.setCategoryId(Long.valueOf(value)));
+        parse(columns, fields, "inventoryStatus", errors, value -> dto.setInventoryStatus(InventoryStatus.valueOf(value)));
+        return new ParsedRow(line, dto, errors);
+    }
+
+    private String field(Map<String, Integer> columns, List<String> fields, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private void parse(Map<String, Integer> columns, List<String> fields, String name, List<String> errors,
+                       Consumer<String> setter) {
+        String value = field(columns, fields, name);
+        if (value == null) {
+            return;
+        }
+        try {
+            setter.accept(value.trim());
+        } catch (IllegalArgumentException e) {
+            errors.add("Invalid " + name + ": " + value);
+        }
+    }
+
+    /**
+     * A row read from the input, or the errors preventing it from being read.
+     */
+    private record ParsedRow(long line, ProductDto dto, List<String> errors) {
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        ParsedRow next() throws IOException;
+    }
+}
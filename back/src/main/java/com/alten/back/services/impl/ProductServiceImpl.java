@@ -1,34 +1,67 @@
 package com.alten.back.services.impl;
 
+import com.alten.back.dtos.BulkProductUpdate;
+import com.alten.back.dtos.BulkUpdateResult;
+import com.alten.back.dtos.CacheStatistics;
+import com.alten.back.dtos.PageResponse;
+import com.alten.back.dtos.ProductBrowseRequest;
+import com.alten.back.dtos.ProductBrowseResult;
+import com.alten.back.dtos.ProductCursor;
+import com.alten.back.dtos.ProductDetail;
 import com.alten.back.dtos.ProductDto;
+import com.alten.back.dtos.ProductListItem;
+import com.alten.back.dtos.ProductPageRequest;
+import com.alten.back.dtos.ProductStockUpdate;
+import com.alten.back.dtos.StoredImage;
 import com.alten.back.dtos.mapper.ProductDtoMapper;
+import com.alten.back.entities.Category;
 import com.alten.back.entities.Product;
+import com.alten.back.enums.ProductSortField;
+import com.alten.back.events.ProductDeletedEvent;
+import com.alten.back.events.ProductImageStoredEvent;
+import com.alten.back.events.ProductStockChangedEvent;
 import com.alten.back.repositories.CategoryRepository;
 import com.alten.back.repositories.ProductRepository;
+import com.alten.back.repositories.specifications.ProductSpecifications;
+import com.alten.back.services.ImageStorageService;
 import com.alten.back.services.ProductService;
+import com.alten.back.services.ProductSyncService;
+import com.alten.back.services.cache.CatalogVersions;
+import com.alten.back.services.cache.ProductCache;
+import com.alten.back.services.search.ProductColumnStore;
+import com.alten.back.services.search.ProductSearchIndex;
+import com.alten.back.services.writebehind.ProductWriteBuffer;
+import core.exceptions.ConflictException;
 import core.exceptions.ExceptionClass;
+import core.exceptions.NotFoundException;
+import core.exceptions.ValidationException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.net.URI;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.function.Function;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ProductServiceImpl implements ProductService {
 
-    /**
-     * Directory path for file storage, configurable via the application properties.
-     */
-    @Value("${file.storage.directory}")
-    private String storageDirectory;
-
     /**
      * Repository for handling CRUD operations related to Product entities.
      */
@@ -39,46 +72,145 @@ public class ProductServiceImpl implements ProductService {
      */
     private final CategoryRepository categoryRepository;
 
+    /**
+     * Content-addressed store holding the product images.
+     */
+    private final ImageStorageService imageStorageService;
+
+    /**
+     * Publisher of the product change events consumed after commit by the image rendition pipeline, the product stream
+     * and the category statistics.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Read-through cache serving product lookups by id, code and name.
+     */
+    private final ProductCache productCache;
+
+    /**
+     * Inverted index serving the product search, updated after commit by every write.
+     */
+    private final ProductSearchIndex productSearchIndex;
+
+    /**
+     * Columnar copy of the filterable columns serving the faceted browse, updated after commit by every write.
+     */
+    private final ProductColumnStore productColumnStore;
+
+    /**
+     * Records the tombstones of deleted products for delta syncs.
+     */
+    private final ProductSyncService productSyncService;
+
+    /**
+     * Version counters behind the ETags of the product endpoints, bumped by every write.
+     */
+    private final CatalogVersions catalogVersions;
+
+    /**
+     * Opt-in buffer coalescing the quantity and rating updates of hot products.
+     */
+    private final ProductWriteBuffer productWriteBuffer;
+
+    /**
+     * Transaction opened by the image uploads once the image is stored, so that they never hold two pooled connections.
+     */
+    private final TransactionTemplate transaction;
+
+    /**
+     * Persistence context flushed and cleared between the chunks of a bulk update.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Number of products loaded and flushed together by a bulk update.
+     */
+    @Value("${product.bulk.batch-size:500}")
+    private int bulkBatchSize;
+
     /**
      * Constructs a new instance of ProductServiceImpl, initializing the required
      * repositories for handling product and category data.
      *
      * @param productRepository   repository for performing operations on Product entities
      * @param categoryRepository  repository for performing operations on Category entities
+     * @param imageStorageService store in which product images are kept
+     * @param eventPublisher      publisher of product change events
+     * @param productCache        cache of products invalidated by every write
+     * @param productSearchIndex  search index updated by every write
+     * @param productColumnStore  column store serving the faceted browse
+     * @param productSyncService  service recording the deletions for delta syncs
+     * @param catalogVersions     version counters bumped by every write
+     * @param productWriteBuffer  write-behind buffer for quantity and rating updates
+     * @param transactionManager  manager of the transactions opened by the image uploads
      */
-    public ProductServiceImpl(ProductRepository productRepository, CategoryRepository categoryRepository) {
+    public ProductServiceImpl(ProductRepository productRepository, CategoryRepository categoryRepository,
+                              ImageStorageService imageStorageService, ApplicationEventPublisher eventPublisher,
+                              ProductCache productCache, ProductSearchIndex productSearchIndex,
+                              ProductColumnStore productColumnStore, ProductSyncService productSyncService, CatalogVersions catalogVersions,
+                              ProductWriteBuffer productWriteBuffer, PlatformTransactionManager transactionManager) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
+        this.imageStorageService = imageStorageService;
+        this.eventPublisher = eventPublisher;
+        this.productCache = productCache;
+        this.productSearchIndex = productSearchIndex;
+        this.productColumnStore = productColumnStore;
+        this.productSyncService = productSyncService;
+        this.catalogVersions = catalogVersions;
+        this.productWriteBuffer = productWriteBuffer;
+        this.transaction = new TransactionTemplate(transactionManager);
     }
 
     /**
      * Saves a new product along with an uploaded image.
      *
      * <p>This method takes a `MultipartFile` representing the product image and a `ProductDto` containing product details.
-     * It saves the image to the specified location and sets the file path in the `Product` entity.
-     * The product is then mapped from the DTO, assigned a category, and saved in the database.
-     * After saving, it retrieves the product by ID to ensure it was saved successfully.
+     * It stores the image in the content-addressed image store and sets its digest in the `Product` entity.
+     * The product is then mapped from the DTO, assigned a category, and saved in the database; once committed, the
+     * thumbnail and medium renditions of the image are generated in the background.
+     * After saving, it reads the product back as a {@link ProductDetail} to ensure it was saved successfully.
+     * The image is stored before the transaction opens, so that the upload never holds two pooled connections at once;
+     * if the product cannot be saved, the reference taken on the image is given back.
      * </p>
      *
      * @param file : the image file associated with the product
      * @param productDto : the data transfer object containing product details
-     * @return the saved `Product` entity
+     * @return the {@link ProductDetail} of the saved product
      * @throws ExceptionClass if any error occurs during image saving, product mapping, category retrieval,or product saving
      *
      */
     @Override
-    public Product save(MultipartFile file, ProductDto productDto) throws ExceptionClass {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductDetail save(MultipartFile file, ProductDto productDto) throws ExceptionClass {
+        String digest = imageStorageService.store(file);
+        boolean saved = false;
         try {
-            String filePath = saveImage(file);
-
-            Product product = ProductDtoMapper.toProduct(productDto);
-            product.setImage(filePath);
-            product.setCategory(categoryRepository.findById(productDto.getCategoryId())
-                    .orElseThrow(() -> new ExceptionClass("Category not found")));
-            Product savedProduct = productRepository.save(product);
-            return productRepository.findById(savedProduct.getId()).orElseThrow(() -> new ExceptionClass("Error while saving the product"));
+            ProductDetail detail = transaction.execute(status -> {
+                Product product = ProductDtoMapper.toProduct(productDto, categoryOf(productDto.getCategoryId()));
+                product.setImage(digest);
+                Product savedProduct = productRepository.saveAndFlush(product);
+                productCache.invalidate(savedProduct);
+                catalogVersions.productChanged(savedProduct.getId());
+                productSearchIndex.index(savedProduct);
+                eventPublisher.publishEvent(new ProductImageStoredEvent(savedProduct.getId(), digest));
+                eventPublisher.publishEvent(new ProductStockChangedEvent(List.of(ProductDtoMapper.toStockUpdate(savedProduct))));
+                return productRepository.findDetailById(savedProduct.getId()).orElseThrow(() -> new ExceptionClass("Error while saving the product"));
+            });
+            saved = true;
+            return detail;
+        } catch (ExceptionClass e) {
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("The product code or internal reference is already used", e);
         } catch (Exception e) {
             throw new ExceptionClass("Error while saving the product: " + e.getMessage(), e);
+        } finally {
+            if (!saved) {
+                imageStorageService.release(digest);
+            }
         }
     }
 
@@ -86,23 +218,29 @@ public class ProductServiceImpl implements ProductService {
      * Saves a new product without an associated image.
      *
      * <p>This method takes a `ProductDto` containing product details, maps it to a `Product` entity, assigns the specified category to the product, and saves it in the database.
-     * After saving, it retrieves the product by ID to confirm the save operation.
+     * After saving, it reads the product back as a {@link ProductDetail} to confirm the save operation.
      * </p>
      *
      * @param productDto : the data transfer object containing product details
-     * @return the saved `Product` entity
+     * @return the {@link ProductDetail} of the saved product
      * @throws ExceptionClass if the specified category is not found or if an error occurs during the product saving process
      *
      */
     @Override
-    public Product savewithoutImage(ProductDto productDto)  throws ExceptionClass{
+    public ProductDetail savewithoutImage(ProductDto productDto)  throws ExceptionClass{
         try {
-            Product product = ProductDtoMapper.toProduct(productDto);
+            Product product = ProductDtoMapper.toProduct(productDto, categoryOf(productDto.getCategoryId()));
 
-            product.setCategory(categoryRepository.findById(productDto.getCategoryId())
-                    .orElseThrow(() -> new ExceptionClass("Category not found")));
-            Product savedProduct = productRepository.save(product);
-            return productRepository.findById(savedProduct.getId()).orElseThrow(() -> new ExceptionClass("Error while saving the product"));
+            Product savedProduct = productRepository.saveAndFlush(product);
+            productCache.invalidate(savedProduct);
+            catalogVersions.productChanged(savedProduct.getId());
+            productSearchIndex.index(savedProduct);
+            eventPublisher.publishEvent(new ProductStockChangedEvent(List.of(ProductDtoMapper.toStockUpdate(savedProduct))));
+            return productRepository.findDetailById(savedProduct.getId()).orElseThrow(() -> new ExceptionClass("Error while saving the product"));
+        } catch (ExceptionClass e) {
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("The product code or internal reference is already used", e);
         } catch (Exception e) {
             throw new ExceptionClass("Error while saving the product: " + e.getMessage(), e);
         }
@@ -112,19 +250,28 @@ public class ProductServiceImpl implements ProductService {
     /**
      * Retrieves a product by its ID.
      *
-     * <p>This method searches the database for a product with the specified ID.
+     * <p>This method looks the product up in the product cache and, on a miss, reads its {@link ProductDetail} projection,
+     * joined with its category in a single query, and caches it.
+     * No transaction is opened, so a cache hit does not take a database connection.
      * If the product is found, it is returned; otherwise, an `ExceptionClass` is thrown with an appropriate error message.
      * </p>
      *
      * @param id the unique identifier of the product to retrieve
-     * @return the `Product` entity corresponding to the specified ID
+     * @return the {@link ProductDetail} corresponding to the specified ID
      * @throws ExceptionClass if no product is found with the given ID or if an error occurs during the retrieval process
      *
      */
     @Override
-    public Product getProductById(Long id) throws ExceptionClass {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ProductDetail getProductById(Long id) throws ExceptionClass {
         try {
-            return productRepository.findById(id).orElseThrow(() -> new ExceptionClass("Product not found with ID: " + id));
+            ProductDetail product = productCache.getById(id, this::findDetail);
+            if (product == null) {
+                throw new NotFoundException("Product", id);
+            }
+            return productWriteBuffer.overlay(product);
+        } catch (ExceptionClass e) {
+            throw e;
         } catch (Exception e) {
             throw new ExceptionClass("Error while getting the product with ID: " + id, e);
         }
@@ -133,46 +280,243 @@ public class ProductServiceImpl implements ProductService {
     /**
      * Retrieves a product by its name.
      *
-     * <p>This method searches the database for a product with the specified name. If the product is found, it is returned.
+     * <p>This method looks the product up in the product cache and, on a miss, searches the database for a product with the
+     * specified name and caches it. If the product is found, it is returned.
      * If an error occurs during the retrieval process, an `ExceptionClass is thrown with a relevant error message.
      * </p>
      *
      * @param name : the name of the product to retrieve
-     * @return the `Product` entity corresponding to the specified name
+     * @return the {@link ProductDetail} corresponding to the specified name, or {@code null} if there is none
      * @throws ExceptionClass : if an error occurs during the retrieval process
      */
     @Override
-    public Product getProductByName(String name) throws ExceptionClass {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ProductDetail getProductByName(String name) throws ExceptionClass {
         try {
-            return productRepository.findByName(name);
+            return productWriteBuffer.overlay(productCache.getByName(name,
+                    key -> productRepository.findDetailByName(key).orElse(null), this::findDetail));
         } catch (Exception e) {
             throw new ExceptionClass("Error while getting the product with name: " + name, e);
         }
     }
 
+    /**
+     * Retrieves a product by its code.
+     *
+     * <p>This method looks the product up in the product cache and, on a miss, searches the database for a product with the
+     * specified code and caches it. If the product is found, it is returned.
+     * If an error occurs during the retrieval process, an `ExceptionClass is thrown with a relevant error message.
+     * </p>
+     *
+     * @param code : the code of the product to retrieve
+     * @return the {@link ProductDetail} corresponding to the specified code, or {@code null} if there is none
+     * @throws ExceptionClass : if an error occurs during the retrieval process
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ProductDetail getProductByCode(String code) throws ExceptionClass {
+        try {
+            return productWriteBuffer.overlay(productCache.getByCode(code,
+                    key -> productRepository.findDetailByCode(key).orElse(null), this::findDetail));
+        } catch (Exception e) {
+            throw new ExceptionClass("Error while getting the product with code: " + code, e);
+        }
+    }
+
     /**
      * Retrieves a list of all products.
      *
-     *  <p>This method fetches all products from the database.
+     *  <p>This method fetches the listing columns of all products, joined with their category, in a single query.
      *  If an error occurs during the retrieval process, an `ExceptionClass` is thrown with a relevant error message.
      * </p>
      *
-     * @return a list of all `Product` entities
+     * @return a list of {@link ProductListItem}, one per product
      * @throws ExceptionClass if an error occurs during the retrieval process
      */
     @Override
-    public List<Product> getAllProducts() throws ExceptionClass {
+    @Transactional(readOnly = true)
+    public List<ProductListItem> getAllProducts() throws ExceptionClass {
         try {
-            return productRepository.findAll();
+            return productRepository.findAllListItems();
         } catch (Exception e) {
             throw new ExceptionClass("Error while getting the products: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Searches the products by name, description, code and category name.
+     *
+     * <p>This method resolves the query against the in-process search index, where every token of the query must match
+     * the start of a word of the product, and loads the listing columns of the best matches with a single query.
+     * The results are returned from the most to the least relevant.
+     * </p>
+     *
+     * @param query : the free text to search for
+     * @param limit : the maximum number of products returned
+     * @return the matching {@link ProductListItem}, best match first
+     * @throws ExceptionClass if an error occurs during the search
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductListItem> searchProducts(String query, int limit) throws ExceptionClass {
+        try {
+            List<Long> ids = productSearchIndex.search(query, limit);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            Map<Long, ProductListItem> products = productRepository.findListItemsByIds(ids).stream()
+                    .collect(Collectors.toMap(ProductListItem::getId, Function.identity()));
+            return ids.stream().map(products::get).filter(Objects::nonNull).toList();
+        } catch (Exception e) {
+            throw new ExceptionClass("Error while searching the products: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retrieves one page of products using keyset pagination.
+     *
+     * <p>Filters on search text, category, inventory status and price range are applied, then the rows are ordered by the
+     * requested column with the product id as tie-breaker so that the ordering is stable. Instead of an OFFSET, the page
+     * starts strictly after the position encoded in {@code cursor}, which keeps the cost of a page independent of its depth.
+     * One extra row is fetched to know whether a next page exists; when it does, its cursor is returned in the envelope.
+     * The categories are fetched with the rows through an entity graph, so a page always costs two queries: the rows
+     * and the total count.
+     * </p>
+     *
+     * @param pageRequest : the page size, sort, cursor and filters of the listing
+     * @return a {@link PageResponse} holding the {@link ProductListItem} of the page and the cursor of the next one
+     * @throws ExceptionClass if the sort or cursor is invalid or if an error occurs during the retrieval process
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<ProductListItem> getProductsPage(ProductPageRequest pageRequest) throws ExceptionClass {
+        try {
+            int size = pageRequest.resolvedSize();
+            ProductSortField sortField = ProductSortField.ID;
+            Sort.Direction direction = Sort.Direction.ASC;
+            if (pageRequest.getSort() != null && !pageRequest.getSort().isBlank()) {
+                String[] sortParts = pageRequest.getSort().split(",");
+                try {
+                    sortField = ProductSortField.fromAttribute(sortParts[0]);
+                    if (sortParts.length > 1) {
+                        direction = Sort.Direction.fromString(sortParts[1].trim());
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new ValidationException("Invalid sort: " + pageRequest.getSort(), e);
+                }
+            }
+
+            Specification<Product> filter = ProductSpecifications.matching(pageRequest);
+            Specification<Product> window = filter;
+            if (pageRequest.getCursor() != null && !pageRequest.getCursor().isBlank()) {
+                ProductCursor cursor = ProductCursor.decode(pageRequest.getCursor());
+                if (cursor.getSortField() != sortField || cursor.getDirection() != direction) {
+                    throw new ValidationException("The cursor does not match the requested sort: " + pageRequest.getSort());
+                }
+                window = filter.and(ProductSpecifications.after(cursor));
+            }
+
+            Sort sort = Sort.by(direction, sortField.getAttribute());
+            if (sortField != ProductSortField.ID) {
+                sort = sort.and(Sort.by(direction, "id"));
+            }
+            Sort stableSort = sort;
+            List<Product> rows = productRepository.findBy(window, query -> query.sortBy(stableSort).limit(size + 1)
+                    .project("category").all());
+
+            boolean hasNext = rows.size() > size;
+            List<Product> content = hasNext ? rows.subList(0, size) : rows;
+            String nextCursor = hasNext ? ProductCursor.after(content.get(size - 1), sortField, direction).encode() : null;
+            long total = productRepository.count(filter);
+
+            return PageResponse.<ProductListItem>builder()
+                    .content(content.stream().map(ProductDtoMapper::toListItem).toList())
+                    .totalElements(total)
+                    .totalPages((int) ((total + size - 1) / size))
+                    .size(size)
+                    .number(pageRequest.getPage())
+                    .nextCursor(nextCursor)
+                    .build();
+        } catch (ExceptionClass e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExceptionClass("Error while getting the products page: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retrieves one page of products with the facet counts of the whole result, from the in-memory column store.
+     *
+     * <p>The categories, inventory statuses, price and rating ranges are evaluated by the {@link ProductColumnStore}
+     * over primitive columns and bitsets, in parallel on large catalogs, which also counts each facet and sorts the
+     * matches by the requested column with the product id as tie-breaker. Only the ids of the page come out of it; their
+     * rows are then read in one query and returned in the order of the ids. Products deleted in the meantime are left
+     * out of the page. The store is refreshed after commit, so a write shows up once its transaction has committed.
+     * </p>
+     *
+     * @param browseRequest : the page, sort and filters of the browse
+     * @return a {@link ProductBrowseResult} holding the {@link ProductListItem} of the page and the facet counts
+     * @throws ExceptionClass if the sort is invalid or if an error occurs during the retrieval process
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProductBrowseResult browseProducts(ProductBrowseRequest browseRequest) throws ExceptionClass {
+        try {
+            int size = browseRequest.resolvedSize();
+            int page = Math.max(browseRequest.getPage(), 0);
+            if ((long) page * size > Integer.MAX_VALUE - size) {
+                throw new ValidationException("Page out of range: " + page);
+            }
+            ProductSortField sortField = ProductSortField.ID;
+            Sort.Direction direction = Sort.Direction.ASC;
+            if (browseRequest.getSort() != null && !browseRequest.getSort().isBlank()) {
+                String[] sortParts = browseRequest.getSort().split(",");
+                try {
+                    sortField = ProductSortField.fromAttribute(sortParts[0]);
+                    if (sortParts.length > 1) {
+                        direction = Sort.Direction.fromString(sortParts[1].trim());
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new ValidationException("Invalid sort: " + browseRequest.getSort(), e);
+                }
+                if (!ProductColumnStore.isSortable(sortField)) {
+                    throw new ValidationException("Products cannot be browsed by " + sortField.getAttribute());
+                }
+            }
+
+            ProductColumnStore.Selection selection = productColumnStore.select(new ProductColumnStore.Query(
+                    browseRequest.getCategory(), browseRequest.getStatus(), browseRequest.getMinPrice(),
+                    browseRequest.getMaxPrice(), browseRequest.getMinRating(), browseRequest.getMaxRating(), sortField,
+                    direction.isDescending(), page * size, size));
+            List<ProductListItem> content = List.of();
+            if (!selection.ids().isEmpty()) {
+                Map<Long, ProductListItem> products = productRepository.findListItemsByIds(selection.ids()).stream()
+                        .collect(Collectors.toMap(ProductListItem::getId, Function.identity()));
+                content = selection.ids().stream().map(products::get).filter(Objects::nonNull).toList();
+            }
+
+            return ProductBrowseResult.builder()
+                    .content(content)
+                    .totalElements(selection.total())
+                    .totalPages((int) ((selection.total() + size - 1) / size))
+                    .size(size)
+                    .number(page)
+                    .categories(selection.categories())
+                    .statuses(selection.statuses())
+                    .priceBuckets(selection.priceBuckets())
+                    .build();
+        } catch (ExceptionClass e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExceptionClass("Error while browsing the products: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Deletes a product by its unique ID.
      *
-     * <p>This method removes the specified product from the database.
+     * <p>This method removes the specified product from the database, records a tombstone for delta syncs, and gives
+     * back its reference on its image once the deletion is committed. Deleting an unknown ID does nothing.
      * If an error occurs during the deletion process, an `ExceptionClass` is thrown with a relevant error message.
      * </p>
      *
@@ -182,7 +526,17 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public void deleteProductById(Long id) throws ExceptionClass {
         try {
-            productRepository.deleteById(id);
+            productRepository.findById(id).ifPresent(product -> {
+                productCache.invalidate(product);
+                catalogVersions.productChanged(product.getId());
+                productRepository.delete(product);
+                productSearchIndex.remove(product.getId());
+                productSyncService.recordDeletion(product.getId());
+                imageStorageService.release(product.getImage());
+                eventPublisher.publishEvent(new ProductDeletedEvent(product.getId()));
+            });
+        } catch (ExceptionClass e) {
+            throw e;
         } catch (Exception e) {
             throw new ExceptionClass("Error while deleting the product with ID: " + id, e);
         }
@@ -198,111 +552,262 @@ public class ProductServiceImpl implements ProductService {
      *
      * @param productId : the unique identifier of the product to update
      * @param updatedProduct : a {@link ProductDto} object containing the updated product details
-     * @return the updated {@link Product} object after saving changes to the database
+     * @return the {@link ProductDetail} of the updated product after saving changes to the database
      * @throws ExceptionClass if an error occurs during the update process, or if the product with the specified ID is not found
      *
      */
     @Override
-    public Product updateProductById(Long productId, ProductDto updatedProduct) throws ExceptionClass {
+    public ProductDetail updateProductById(Long productId, ProductDto updatedProduct) throws ExceptionClass {
         try {
+            if (productWriteBuffer.isEnabled() && onlyCounterChanges(updatedProduct)) {
+                ProductDetail current = getProductById(productId);
+                if (productWriteBuffer.offer(productId, updatedProduct.getQuantity() != 0 ? updatedProduct.getQuantity() : null,
+                        updatedProduct.getRating() != 0.0 ? updatedProduct.getRating() : null)) {
+                    return productWriteBuffer.overlay(current);
+                }
+            }
+            productWriteBuffer.absorb(List.of(productId));
             Product existingProduct = productRepository.findById(productId)
-                    .orElseThrow(() -> new ExceptionClass("Product not found with ID: " + productId));
-
-            existingProduct.setCode(updatedProduct.getCode() != null ? updatedProduct.getCode() : existingProduct.getCode());
-            existingProduct.setName(updatedProduct.getName() != null ? updatedProduct.getName() : existingProduct.getName());
-            existingProduct.setDescription(updatedProduct.getDescription() != null ? updatedProduct.getDescription() : existingProduct.getDescription());
-            existingProduct.setPrice(updatedProduct.getPrice() != null ? updatedProduct.getPrice() : existingProduct.getPrice());
-            existingProduct.setQuantity(updatedProduct.getQuantity() != 0 ? updatedProduct.getQuantity() : existingProduct.getQuantity());
-            existingProduct.setInternalReference(updatedProduct.getInternalReference() != null ? updatedProduct.getInternalReference() : existingProduct.getInternalReference());
-            existingProduct.setInventoryStatus(updatedProduct.getInventoryStatus() != null ? updatedProduct.getInventoryStatus() : existingProduct.getInventoryStatus());
-            existingProduct.setRating(updatedProduct.getRating() != 0.0 ? updatedProduct.getRating() : existingProduct.getRating());
-            existingProduct.setCategory(updatedProduct.getCategoryId() != null ? categoryRepository.findById(updatedProduct.getCategoryId()).orElseThrow() : existingProduct.getCategory());
-
-            return productRepository.save(existingProduct);
+                    .orElseThrow(() -> new NotFoundException("Product", productId));
+            productCache.invalidate(existingProduct);
+            catalogVersions.productChanged(productId);
+            ProductStockUpdate before = ProductDtoMapper.toStockUpdate(existingProduct);
+
+            applyChanges(existingProduct, updatedProduct, updatedProduct.getCategoryId() != null
+                    ? categoryOf(updatedProduct.getCategoryId()) : null);
+            productSearchIndex.index(existingProduct);
+            productRepository.saveAndFlush(existingProduct);
+            ProductStockUpdate after = ProductDtoMapper.toStockUpdate(existingProduct);
+            if (stockChanged(before, after)) {
+                eventPublisher.publishEvent(new ProductStockChangedEvent(List.of(after)));
+            }
+            return productRepository.findDetailById(productId).orElseThrow(() -> new NotFoundException("Product", productId));
+        } catch (ExceptionClass e) {
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("The product code or internal reference is already used", e);
         } catch (Exception e) {
             throw new ExceptionClass("Error while updating the product with ID: " + productId, e);
         }
     }
 
+    /**
+     * Applies partial changes to many products in one transaction.
+     *
+     * <p>Each {@link BulkProductUpdate} applies the same {@link ProductDto} changes to a list of product IDs, with the same
+     * rules as {@link #updateProductById}: null fields, and zero quantity or rating, are left unchanged.
+     * When the changes only touch price, quantity, rating or inventory status, they are applied with one set-based UPDATE
+     * statement per group of IDs, without loading the products. Otherwise the products are loaded with one IN query per
+     * chunk of {@code product.bulk.batch-size} IDs, modified, and flushed as JDBC batches before the next chunk is loaded.
+     * IDs matching no product are reported and ignored. If any change fails, nothing is updated.
+     * </p>
+     *
+     * @param updates : the changes to apply and the IDs of the products to apply them to
+     * @return a {@link BulkUpdateResult} with the number of updated products and the IDs that were not found
+     * @throws ExceptionClass if a category is not found or if an error occurs during the update process
+     */
+    @Override
+    public BulkUpdateResult bulkUpdateProducts(List<BulkProductUpdate> updates) throws ExceptionClass {
+        try {
+            long requested = 0;
+            long updated = 0;
+            List<Long> notFound = new ArrayList<>();
+            List<ProductStockUpdate> stockUpdates = new ArrayList<>();
+            for (BulkProductUpdate update : updates) {
+                if (update.getIds() == null || update.getIds().isEmpty() || update.getChanges() == null) {
+                    continue;
+                }
+                ProductDto changes = update.getChanges();
+                Category category = changes.getCategoryId() != null ? categoryOf(changes.getCategoryId()) : null;
+                for (int from = 0; from < update.getIds().size(); from += bulkBatchSize) {
+                    List<Long> ids = update.getIds().subList(from, Math.min(from + bulkBatchSize, update.getIds().size()));
+                    requested += ids.size();
+                    productWriteBuffer.absorb(ids);
+                    if (onlyScalarChanges(changes)) {
+                        Set<Long> existingIds = new HashSet<>(productRepository.findExistingIds(ids));
+                        ids.stream().filter(id -> !existingIds.contains(id)).forEach(notFound::add);
+                        if (!existingIds.isEmpty()) {
+                            updated += productRepository.bulkUpdateScalars(existingIds, changes);
+                            if (changes.getPrice() != null || changes.getQuantity() != 0 || changes.getRating() != 0.0
+                                    || changes.getInventoryStatus() != null) {
+                                stockUpdates.addAll(productRepository.findStockUpdates(existingIds));
+                            }
+                        }
+                        existingIds.forEach(productCache::invalidateId);
+                        existingIds.forEach(catalogVersions::productChanged);
+                    } else {
+                        List<Product> products = productRepository.findAllById(ids);
+                        Set<Long> loadedIds = new HashSet<>();
+                        List<ProductStockUpdate> before = new ArrayList<>(products.size());
+                        for (Product product : products) {
+                            productCache.invalidate(product);
+                            catalogVersions.productChanged(product.getId());
+                            before.add(ProductDtoMapper.toStockUpdate(product));
+                            applyChanges(product, changes, category);
+                            productSearchIndex.index(product);
+                            loadedIds.add(product.getId());
+                        }
+                        ids.stream().filter(id -> !loadedIds.contains(id)).forEach(notFound::add);
+                        updated += products.size();
+                        entityManager.flush();
+                        // Read after the flush, which stamps updatedAt
+                        for (int i = 0; i < products.size(); i++) {
+                            ProductStockUpdate after = ProductDtoMapper.toStockUpdate(products.get(i));
+                            if (stockChanged(before.get(i), after)) {
+                                stockUpdates.add(after);
+                            }
+                        }
+                        entityManager.clear();
+                    }
+                }
+            }
+            if (!stockUpdates.isEmpty()) {
+                eventPublisher.publishEvent(new ProductStockChangedEvent(stockUpdates));
+            }
+            return BulkUpdateResult.builder()
+                    .requested(requested)
+                    .updated(updated)
+                    .notFound(notFound)
+                    .build();
+        } catch (ExceptionClass e) {
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("A product code or internal reference is already used", e);
+        } catch (Exception e) {
+            throw new ExceptionClass("Error while updating the products: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Updates the image of an existing product by its unique ID.
      *
      * <p>This method retrieves the product specified by {@code productId} and updates its image based on the provided {@link MultipartFile} object.
-     * If the image upload is successful, the new image path is saved; otherwise, the existing image path is retained.
+     * If the image upload is successful, the new image digest is saved and the reference on the previous image is released
+     * once the update is committed, after which the renditions of the new image are generated in the background;
+     * otherwise, the existing image is retained. As for {@link #save}, the image is stored before the transaction opens,
+     * and its reference is given back if the product cannot be updated.
      * If the product is not found, or if an error occurs during the update process, an `ExceptionClass` is thrown with a relevant error message.
      * </p>
      *
      * @param productId : the unique identifier of the product whose image will be updated
      * @param image : a {@link MultipartFile} containing the new image for the product
-     * @return the updated {@link Product} object with the new image path after saving changes to the database
+     * @return the {@link ProductDetail} of the updated product, with the new image digest
      * @throws ExceptionClass : if an error occurs during the image update process, or if the product with the specified ID is not found
      *
      */
     @Override
-    public Product updateImageProductById(Long productId, MultipartFile image) throws ExceptionClass {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductDetail updateImageProductById(Long productId, MultipartFile image) throws ExceptionClass {
+        String digest = imageStorageService.store(image);
+        boolean saved = false;
         try {
-            Product existingProduct = productRepository.findById(productId)
-                    .orElseThrow(() -> new ExceptionClass("Product not found with ID: " + productId));
+            ProductDetail detail = transaction.execute(status -> {
+                Product existingProduct = productRepository.findById(productId)
+                        .orElseThrow(() -> new NotFoundException("Product", productId));
 
-            String filePath = saveImage(image);
-            existingProduct.setImage(filePath);
-            return productRepository.save(existingProduct);
+                productCache.invalidate(existingProduct);
+                catalogVersions.productChanged(productId);
+                String previousImage = existingProduct.getImage();
+                existingProduct.setImage(digest);
+                Product savedProduct = productRepository.save(existingProduct);
+                imageStorageService.release(previousImage);
+                eventPublisher.publishEvent(new ProductImageStoredEvent(productId, savedProduct.getImage()));
+                return productRepository.findDetailById(productId).orElseThrow(() -> new NotFoundException("Product", productId));
+            });
+            saved = true;
+            return detail;
+        } catch (ExceptionClass e) {
+            throw e;
         } catch (Exception e) {
             throw new ExceptionClass("Error while updating the product image with ID: " + productId, e);
+        } finally {
+            if (!saved) {
+                imageStorageService.release(digest);
+            }
         }
     }
 
     /**
-     * Retrieves the image of a product by its unique ID as a byte array.
+     * Retrieves the image of a product by its unique ID.
      *
-     * <p>This method fetches the product specified by {@code id} and returns the product's image as a byte array.
-     * The image file is read from the path stored in the product's {@code image} attribute.
-     * If the product is not found, or if an error occurs while reading the image file, an `ExceptionClass` is thrown with a relevant error message.
+     * <p>This method fetches the product specified by {@code id} and resolves its {@code image} attribute through the image store.
+     * The file content is not read here, so the caller can stream it, serve byte ranges of it or answer conditional requests
+     * without loading it in memory.
+     * If the product is not found, has no image, or if the image file does not exist, an `ExceptionClass` is thrown with a relevant error message.
      * </p>
      *
      * @param id : the unique identifier of the product whose image is to be retrieved
-     * @return a byte array containing the image data of the specified product
-     * @throws ExceptionClass if the product with the specified ID is not found, or if an error occurs while reading the image file
+     * @return the {@link StoredImage} of the specified product
+     * @throws ExceptionClass if the product with the specified ID is not found, or if its image file cannot be found
      *
      */
     @Override
-    public byte[] getProductImageById(Long id) throws ExceptionClass {
+    @Transactional(readOnly = true)
+    public StoredImage getProductImageById(Long id) throws ExceptionClass {
         try {
-            Product product = productRepository.findById(id).orElseThrow(() -> new ExceptionClass("Product not found with ID: " + id));
-            return Files.readAllBytes(Path.of(URI.create(product.getImage())));
+            Product product = productRepository.findById(id).orElseThrow(() -> new NotFoundException("Product", id));
+            if (product.getImage() == null) {
+                throw new NotFoundException("Product image", id);
+            }
+            return imageStorageService.load(product.getImage());
+        } catch (ExceptionClass e) {
+            throw e;
         } catch (Exception e) {
             throw new ExceptionClass("Error while getting the product image with ID: " + id, e);
         }
     }
 
+    private Category categoryOf(Long categoryId) {
+        if (categoryId == null) {
+            throw new ValidationException("The category of the product is required");
+        }
+        return categoryRepository.findById(categoryId).orElseThrow(() -> new NotFoundException("Category", categoryId));
+    }
+
+    private ProductDetail findDetail(Long id) {
+        return productRepository.findDetailById(id).orElse(null);
+    }
 
     /**
-     * Saves the uploaded image to the specified storage directory.
-     *
-     * <p>
-     * This method creates the storage directory if it does not exist, generates a unique filename
-     * by appending a UUID to the original filename, and saves the file in the storage location.
-     * It then returns the full path of the saved image file.
-     * </p>
-     *
-     * @param file the MultipartFile representing the uploaded image file
-     * @return the relative path to the saved image file within the storage directory
-     * @throws ExceptionClass if an error occurs during file upload, such as directory creation or file saving issues
+     * Returns the hit, miss and eviction counters of the product cache, one entry per key type.
      *
+     * @return the statistics of the id, code and name caches
      */
-    private String saveImage(MultipartFile file) throws ExceptionClass {
-        try {
-            Path folderPath = Paths.get(storageDirectory).toAbsolutePath();
-            if (!Files.exists(folderPath)) {
-                Files.createDirectories(folderPath);
-            }
-            String originalFilename = file.getOriginalFilename();
-            String fileName = UUID.randomUUID() + "_" + originalFilename;
-            Path filePath = folderPath.resolve(fileName);
-            Files.copy(file.getInputStream(), filePath);
-            return storageDirectory + "/" + fileName;
-        } catch (Exception e){
-            throw new ExceptionClass("Error while uploading the file: " + e.getMessage(), e);
-        }
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<CacheStatistics> getCacheStatistics() {
+        return productCache.statistics();
+    }
+
+    /**
+     * Copies the non-null fields of {@code changes} (non-zero for quantity and rating) onto {@code product}.
+     * The category is replaced only when {@code category} is not null.
+     */
+    private void applyChanges(Product product, ProductDto changes, Category category) {
+        product.setCode(changes.getCode() != null ? changes.getCode() : product.getCode());
+        product.setName(changes.getName() != null ? changes.getName() : product.getName());
+        product.setDescription(changes.getDescription() != null ? changes.getDescription() : product.getDescription());
+        product.setPrice(changes.getPrice() != null ? changes.getPrice() : product.getPrice());
+        product.setQuantity(changes.getQuantity() != 0 ? changes.getQuantity() : product.getQuantity());
+        product.setInternalReference(changes.getInternalReference() != null ? changes.getInternalReference() : product.getInternalReference());
+        product.setInventoryStatus(changes.getInventoryStatus() != null ? changes.getInventoryStatus() : product.getInventoryStatus());
+        product.setRating(changes.getRating() != 0.0 ? changes.getRating() : product.getRating());
+        product.setCategory(category != null ? category : product.getCategory());
+    }
+
+    private boolean stockChanged(ProductStockUpdate before, ProductStockUpdate after) {
+        return !Objects.equals(before.getPrice(), after.getPrice()) || before.getQuantity() != after.getQuantity()
+                || before.getInventoryStatus() != after.getInventoryStatus() || before.getRating() != after.getRating()
+                || !Objects.equals(before.getCategoryId(), after.getCategoryId());
+    }
+
+    private boolean onlyCounterChanges(ProductDto changes) {
+        return onlyScalarChanges(changes) && changes.getPrice() == null && changes.getInventoryStatus() == null
+                && (changes.getQuantity() != 0 || changes.getRating() != 0.0);
+    }
+
+    private boolean onlyScalarChanges(ProductDto changes) {
+        return changes.getCode() == null && changes.getName() == null && changes.getDescription() == null
+                && changes.getInternalReference() == null && changes.getCategoryId() == null;
     }
-}
\ No newline at end of file
+}
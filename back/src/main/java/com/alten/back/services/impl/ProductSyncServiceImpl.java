@@ -0,0 +1,117 @@
+package com.alten.back.services.impl;
+
+import com.alten.back.dtos.ProductChanges;
+import com.alten.back.entities.ProductTombstone;
+import com.alten.back.repositories.ProductRepository;
+import com.alten.back.repositories.ProductTombstoneRepository;
+import com.alten.back.services.ProductSyncService;
+import core.exceptions.ExceptionClass;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Service
+public class ProductSyncServiceImpl implements ProductSyncService {
+
+    private final ProductRepository productRepository;
+    private final ProductTombstoneRepository productTombstoneRepository;
+
+    /**
+     * Time a write may take between stamping {@code updatedAt} and committing. The watermark handed out lags the clock
+     * by this margin, so that a change committed late is still newer than the watermark of a sync that ran meanwhile.
+     */
+    private final Duration safetyMargin;
+
+    /**
+     * How long tombstones are kept. Clients whose watermark is older get a full resync.
+     */
+    private final Duration tombstoneRetention;
+
+    /**
+     * Last watermark handed out, so that watermarks never go backwards even if the clock does.
+     */
+    private final AtomicReference<LocalDateTime> lastWatermark = new AtomicReference<>(LocalDateTime.MIN);
+
+    public ProductSyncServiceImpl(ProductRepository productRepository, ProductTombstoneRepository productTombstoneRepository,
+                                  @Value("${product.sync.safety-margin:PT10S}") Duration safetyMargin,
+                                  @Value("${product.sync.tombstone-retention:P30D}") Duration tombstoneRetention) {
+        this.productRepository = productRepository;
+        this.productTombstoneRepository = productTombstoneRepository;
+        this.safetyMargin = safetyMargin;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Returns the products created, updated or deleted since a watermark.
+     *
+     * <p>Changed products are read through the {@code (updated_at, id)} index and deleted products from the tombstones.
+     * The returned watermark is taken before the queries run and lags the clock by {@code product.sync.safety-margin},
+     * so the next sync may return some products again but never misses a change. Without a watermark, or with one older
+     * than the tombstone retention, the whole catalog is returned and flagged as a full resync.
+     * </p>
+     *
+     * @param since : the watermark of the previous sync, or {@code null} for the first one
+     * @return the {@link ProductChanges} since the watermark, with the watermark of the next sync
+     * @throws ExceptionClass if an error occurs during the retrieval process
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProductChanges getChangesSince(LocalDateTime since) throws ExceptionClass {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime candidate = now.minus(safetyMargin);
+            LocalDateTime watermark = lastWatermark.accumulateAndGet(candidate, (previous, next) -> next.isAfter(previous) ? next : previous);
+            if (since == null || since.isBefore(now.minus(tombstoneRetention))) {
+                return ProductChanges.builder()
+                        .full(true)
+                        .changed(productRepository.findAllListItems())
+                        .deleted(List.of())
+                        .watermark(watermark)
+                        .build();
+            }
+            return ProductChanges.builder()
+                    .full(false)
+                    .changed(productRepository.findListItemsUpdatedSince(since))
+                    .deleted(productTombstoneRepository.findDeletedIdsSince(since))
+                    .watermark(watermark)
+                    .build();
+        } catch (Exception e) {
+            throw new ExceptionClass("Error while getting the product changes since " + since + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Records the deletion of a product in the transaction deleting it.
+     *
+     * @param productId : the identifier of the deleted product
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletion(Long productId) {
+        productTombstoneRepository.save(new ProductTombstone(productId, LocalDateTime.now()));
+    }
+
+    /**
+     * Deletes the tombstones older than the retention; clients that have not synced for that long get a full resync.
+     *
+     * @return the number of deleted tombstones
+     */
+    @Override
+    @Scheduled(cron = "${product.sync.tombstone-purge-cron:0 0 3 * * *}")
+    public int purgeTombstones() {
+        int purged = productTombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            log.info("Purged {} product tombstones", purged);
+        }
+        return purged;
+    }
+}
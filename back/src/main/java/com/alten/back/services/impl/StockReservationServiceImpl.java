@@ -0,0 +1,265 @@
+package com.alten.back.services.impl;
+
+import com.alten.back.dtos.ReservationDto;
+import com.alten.back.dtos.ReservationItemDto;
+import com.alten.back.dtos.ReservationRequest;
+import com.alten.back.entities.ReservationLine;
+import com.alten.back.entities.StockReservation;
+import com.alten.back.enums.ReservationStatus;
+import com.alten.back.events.ProductStockChangedEvent;
+import com.alten.back.repositories.ProductRepository;
+import com.alten.back.repositories.StockReservationRepository;
+import com.alten.back.services.StockReservationService;
+import com.alten.back.services.cache.CatalogVersions;
+import com.alten.back.services.cache.ProductCache;
+import com.alten.back.services.writebehind.ProductWriteBuffer;
+import core.exceptions.ConflictException;
+import core.exceptions.ExceptionClass;
+import core.exceptions.NotFoundException;
+import core.exceptions.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@Transactional
+public class StockReservationServiceImpl implements StockReservationService {
+
+    /**
+     * Number of expired reservations released per sweep query.
+     */
+    private static final int EXPIRY_BATCH_SIZE = 100;
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final CatalogVersions catalogVersions;
+
+    /**
+     * Holds buffered quantities, written before the stock is adjusted so that a later flush cannot overwrite it.
+     */
+    private final ProductWriteBuffer productWriteBuffer;
+
+    /**
+     * Publishes the new stock of the reserved or restored products, pushed to the product stream after commit.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Releases each expired reservation in its own transaction, so one failure does not hold back the others.
+     */
+    private final TransactionTemplate expiryTransaction;
+
+    /**
+     * How long reserved stock is held before it is given back.
+     */
+    private final Duration reservationTtl;
+
+    /**
+     * Quantity at or below which a product is {@code LOWSTOCK}.
+     */
+    private final int lowStockThreshold;
+
+    public StockReservationServiceImpl(StockReservationRepository reservationRepository, ProductRepository productRepository,
+                                       ProductCache productCache, CatalogVersions catalogVersions,
+                                       ProductWriteBuffer productWriteBuffer, ApplicationEventPublisher eventPublisher,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${product.reservation.ttl:PT15M}") Duration reservationTtl,
+                                       @Value("${product.stock.low-threshold:10}") int lowStockThreshold) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.catalogVersions = catalogVersions;
+        this.productWriteBuffer = productWriteBuffer;
+        this.eventPublisher = eventPublisher;
+        this.expiryTransaction = new TransactionTemplate(transactionManager);
+        this.reservationTtl = reservationTtl;
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    /**
+     * Reserves stock for the items of a cart.
+     *
+     * <p>The quantity of each product is decremented with one conditional UPDATE that only succeeds if enough stock is
+     * left, and that recomputes the inventory status in the same statement; no product is read beforehand, so concurrent
+     * buyers of the same product are serialized by the row lock alone and none of their decrements is lost. Items of the
+     * same product are merged and products are updated in ascending ID order, so two carts never wait on each other's
+     * locks. If one product lacks stock, the whole reservation is rolled back.
+     * </p>
+     *
+     * @param request : the products and quantities to reserve
+     * @return the {@link ReservationDto} of the active reservation, with its expiry date
+     * @throws ExceptionClass if a product is unknown or does not have enough stock
+     */
+    @Override
+    public ReservationDto reserve(ReservationRequest request) throws ExceptionClass {
+        try {
+            Map<Long, Integer> quantities = new TreeMap<>();
+            for (ReservationItemDto item : request.getItems()) {
+                if (item.getProductId() == null || item.getQuantity() <= 0) {
+                    throw new ValidationException("Invalid reservation item for product: " + item.getProductId());
+                }
+                quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+            productWriteBuffer.absorb(quantities.keySet());
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                if (productRepository.adjustStock(entry.getKey(), -entry.getValue(), lowStockThreshold) == 0) {
+                    throw new ConflictException("Insufficient stock for product with ID: " + entry.getKey());
+                }
+                productCache.invalidateId(entry.getKey());
+                catalogVersions.productChanged(entry.getKey());
+            }
+            eventPublisher.publishEvent(new ProductStockChangedEvent(productRepository.findStockUpdates(quantities.keySet())));
+            StockReservation reservation = StockReservation.builder()
+                    .id(UUID.randomUUID().toString())
+                    .status(ReservationStatus.ACTIVE)
+                    .expiresAt(LocalDateTime.now().plus(reservationTtl))
+                    .lines(quantities.entrySet().stream()
+                            .map(entry -> new ReservationLine(entry.getKey(), entry.getValue()))
+                            .toList())
+                    .build();
+            return toDto(reservationRepository.save(reservation));
+        } catch (ExceptionClass e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExceptionClass("Error while reserving the stock: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retrieves a reservation by its ID.
+     *
+     * @param id : the identifier of the reservation
+     * @return the {@link ReservationDto} of the reservation
+     * @throws ExceptionClass if no reservation is found with the given ID
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationDto getReservation(String id) throws ExceptionClass {
+        return toDto(findReservation(id));
+    }
+
+    /**
+     * Checks out an active reservation.
+     *
+     * <p>The reserved stock was already taken from the products, so checking out only marks the reservation as
+     * {@link ReservationStatus#CHECKED_OUT}. The status change is a conditional UPDATE that only succeeds while the
+     * reservation is active and not expired, so a reservation cannot be both checked out and released.
+     * </p>
+     *
+     * @param id : the identifier of the reservation to check out
+     * @return the {@link ReservationDto} of the checked out reservation
+     * @throws ExceptionClass if the reservation is unknown, expired, released or already checked out
+     */
+    @Override
+    public ReservationDto checkout(String id) throws ExceptionClass {
+        if (reservationRepository.transitionBeforeExpiry(id, ReservationStatus.ACTIVE, ReservationStatus.CHECKED_OUT,
+                LocalDateTime.now()) == 0) {
+            StockReservation reservation = findReservation(id);
+            String state = reservation.getStatus() == ReservationStatus.ACTIVE ? "expired" : reservation.getStatus().name();
+            throw new ConflictException("Reservation " + id + " cannot be checked out, it is " + state);
+        }
+        return toDto(findReservation(id));
+    }
+
+    /**
+     * Releases an active reservation and gives its stock back to the products.
+     *
+     * <p>Releasing a reservation that is no longer active does nothing, so a client may retry safely.
+     * </p>
+     *
+     * @param id : the identifier of the reservation to release
+     * @return the {@link ReservationDto} of the reservation
+     * @throws ExceptionClass if no reservation is found with the given ID
+     */
+    @Override
+    public ReservationDto release(String id) throws ExceptionClass {
+        boolean released = reservationRepository.transition(id, ReservationStatus.ACTIVE, ReservationStatus.RELEASED) == 1;
+        StockReservation reservation = findReservation(id);
+        if (released) {
+            restoreStock(reservation);
+        }
+        return toDto(reservation);
+    }
+
+    /**
+     * Gives back the stock of the reservations whose TTL has elapsed, in batches, each reservation in its own transaction.
+     * A reservation checked out or released meanwhile is skipped by the conditional status change.
+     *
+     * @return the number of expired reservations
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${product.reservation.sweep-interval:PT30S}")
+    @Transactional(propagation = Propagation.NEVER)
+    public int expireReservations() {
+        int expired = 0;
+        List<String> ids;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            ids = reservationRepository.findExpiredIds(ReservationStatus.ACTIVE, now, PageRequest.of(0, EXPIRY_BATCH_SIZE));
+            for (String id : ids) {
+                try {
+                    Boolean done = expiryTransaction.execute(status -> {
+                        if (reservationRepository.transitionAfterExpiry(id, ReservationStatus.ACTIVE,
+                                ReservationStatus.EXPIRED, now) == 0) {
+                            return false;
+                        }
+                        restoreStock(findReservation(id));
+                        return true;
+                    });
+                    if (Boolean.TRUE.equals(done)) {
+                        expired++;
+                    }
+                } catch (Exception e) {
+                    log.warn("Could not expire the reservation {}", id, e);
+                }
+            }
+        } while (ids.size() == EXPIRY_BATCH_SIZE);
+        if (expired > 0) {
+            log.info("Released the stock of {} expired reservations", expired);
+        }
+        return expired;
+    }
+
+    private void restoreStock(StockReservation reservation) {
+        productWriteBuffer.absorb(reservation.getLines().stream().map(ReservationLine::getProductId).toList());
+        for (ReservationLine line : reservation.getLines()) {
+            productRepository.adjustStock(line.getProductId(), line.getQuantity(), lowStockThreshold);
+            productCache.invalidateId(line.getProductId());
+            catalogVersions.productChanged(line.getProductId());
+        }
+        eventPublisher.publishEvent(new ProductStockChangedEvent(productRepository.findStockUpdates(
+                reservation.getLines().stream().map(ReservationLine::getProductId).toList())));
+    }
+
+    private StockReservation findReservation(String id) {
+        return reservationRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Reservation", id));
+    }
+
+    private ReservationDto toDto(StockReservation reservation) {
+        return ReservationDto.builder()
+                .id(reservation.getId())
+                .status(reservation.getStatus())
+                .expiresAt(reservation.getExpiresAt())
+                .items(reservation.getLines().stream()
+                        .map(line -> new ReservationItemDto(line.getProductId(), line.getQuantity()))
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,681 @@
+package com.alten.back.services.search;
+
+import com.alten.back.dtos.ProductBrowseResult;
+import com.alten.back.dtos.ProductStockUpdate;
+import com.alten.back.enums.InventoryStatus;
+import com.alten.back.enums.ProductSortField;
+import com.alten.back.events.ProductDeletedEvent;
+import com.alten.back.events.ProductStockChangedEvent;
+import com.alten.back.repositories.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory columnar copy of the filterable and sortable columns of the products, answering the faceted browse.
+ *
+ * <p>Each product occupies a slot in parallel primitive arrays holding its id, price, quantity, rating, category and
+ * inventory status ordinal; categories are dictionary-encoded as small integer codes. A bitset per category and per
+ * status, plus one of the live slots, turn the category and status filters into word-wise ORs and ANDs. A query scans
+ * the live slots by chunks of 64k products on the common fork-join pool: each chunk evaluates the price and rating
+ * ranges, writes its part of the match bitset and counts its facets, then keeps its best slots for the requested order
+ * in a bounded heap, and the chunk results are merged. Only the ids of the page are returned; the caller reads the rows
+ * to display from the database.
+ *
+ * <p>The store is loaded once the application is ready and kept up to date after commit from the stock events, which
+ * carry the full indexed state of each product, and from the deletion events. Slots of deleted products are reused.
+ * Events may be delivered out of commit order: a state older than the stored {@code updatedAt} of its slot is ignored,
+ * and ids deleted within the last minute are remembered so that a late state cannot bring a product back.
+ * Queries share a read lock and writes take the write lock for a few array stores; a rebuild reads the catalog without
+ * holding it and replays the changes committed meanwhile.
+ */
+@Slf4j
+@Component
+public class ProductColumnStore {
+
+    private static final InventoryStatus[] STATUSES = InventoryStatus.values();
+    private static final Set<ProductSortField> SORTABLE = EnumSet.of(ProductSortField.ID, ProductSortField.PRICE,
+            ProductSortField.QUANTITY, ProductSortField.RATING);
+    private static final byte NO_STATUS = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long DELETION_WINDOW_NANOS = Duration.ofMinutes(1).toNanos();
+
+    /**
+     * Number of 64-slot words scanned by one task, so a catalog below 64k products is scanned on the calling thread.
+     */
+    private static final int CHUNK_WORDS = 1024;
+
+    private final ProductRepository productRepository;
+
+    /**
+     * Ascending lower bounds of the price facet buckets.
+     */
+    private final double[] priceBounds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Serializes rebuilds, which read the catalog without holding {@link #lock}.
+     */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private Columns columns = new Columns(INITIAL_CAPACITY);
+
+    /**
+     * Deleted ids, oldest first, with their {@link System#nanoTime()} of deletion, kept for
+     * {@link #DELETION_WINDOW_NANOS}: a state delivered after the deletion was committed before it, and its listener
+     * runs right after that commit.
+     */
+    private final LinkedHashMap<Long, Long> deleted = new LinkedHashMap<>();
+
+    /**
+     * Changes applied while a rebuild is reading the catalog, or null when no rebuild is running.
+     */
+    private List<Change> replay;
+
+    public ProductColumnStore(ProductRepository productRepository,
+                              @Value("${product.browse.price-buckets:0,10,50,100,500}") double[] priceBounds) {
+        this.productRepository = productRepository;
+        this.priceBounds = priceBounds.clone();
+        Arrays.sort(this.priceBounds);
+    }
+
+    /**
+     * Tells whether {@link #select} can order by this column.
+     */
+    public static boolean isSortable(ProductSortField field) {
+        return SORTABLE.contains(field);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductStockChanged(ProductStockChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (ProductStockUpdate update : event.getUpdates()) {
+                apply(new Change(update.getProductId(), update));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(new Change(event.getProductId(), null));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reloads every column from the database.
+     *
+     * @return the number of products read
+     */
+    public int rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.nanoTime();
+            lock.writeLock().lock();
+            try {
+                replay = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Columns rebuilt;
+            try {
+                List<ProductStockUpdate> products = productRepository.findAllStockUpdates();
+                rebuilt = new Columns(Math.max(INITIAL_CAPACITY, products.size()));
+                products.forEach(rebuilt::put);
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    replay = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                List<Change> missed = replay;
+                replay = null;
+                forgetDeletions();
+                columns = rebuilt;
+                missed.forEach(this::apply);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Loaded the columns of {} products in {} ms", rebuilt.slots.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return rebuilt.slots.size();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Number of products held.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Filters, counts the facets and sorts the products, returning the ids of the requested page.
+     */
+    public Selection select(Query query) {
+        if (!isSortable(query.sortField())) {
+            throw new IllegalArgumentException("Cannot sort by " + query.sortField());
+        }
+        lock.readLock().lock();
+        try {
+            Columns columns = this.columns;
+            int words = (columns.size + 63) >>> 6;
+            long[] live = Arrays.copyOf(columns.live.toLongArray(), words);
+            long[] categoryMask = query.categoryIds() == null || query.categoryIds().isEmpty() ? null
+                    : columns.categoryMask(query.categoryIds(), words);
+            long[] statusMask = query.statuses() == null || query.statuses().isEmpty() ? null
+                    : columns.statusMask(query.statuses(), words);
+            long[] matches = new long[words];
+            int chunks = Math.max(1, (words + CHUNK_WORDS - 1) / CHUNK_WORDS);
+
+            Facets facets = IntStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> scan(columns, query, live, categoryMask, statusMask, matches,
+                            chunk * CHUNK_WORDS, Math.min(words, (chunk + 1) * CHUNK_WORDS)))
+                    .reduce(Facets::merge)
+                    .orElseThrow();
+
+            long end = Math.min(facets.total, (long) query.offset() + query.limit());
+            List<Long> ids = List.of();
+            if (query.offset() < end) {
+                int k = (int) end;
+                SlotOrder order = columns.order(query.sortField(), query.descending());
+                List<TopK> tops = IntStream.range(0, chunks).parallel()
+                        .mapToObj(chunk -> top(matches, chunk * CHUNK_WORDS, Math.min(words, (chunk + 1) * CHUNK_WORDS),
+                                k, order))
+                        .toList();
+                TopK merged = new TopK(k, order);
+                tops.forEach(top -> top.drainTo(merged));
+                int[] sorted = merged.sorted();
+                ids = new ArrayList<>(sorted.length - query.offset());
+                for (int i = query.offset(); i < sorted.length; i++) {
+                    ids.add(columns.ids[sorted[i]]);
+                }
+            }
+            return new Selection(ids, facets.total, columns.categoryCounts(facets.categoryCounts),
+                    statusCounts(facets.statusCounts), priceBuckets(facets.priceCounts));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Change change) {
+        if (replay != null) {
+            replay.add(change);
+        }
+        if (change.state() == null) {
+            forgetDeletions();
+            deleted.put(change.productId(), System.nanoTime());
+            columns.remove(change.productId());
+        } else if (!deleted.containsKey(change.productId())
+                && !change.state().isOlderThan(columns.updatedAt(change.productId()))) {
+            columns.put(change.state());
+        }
+    }
+
+    /**
+     * Evaluates the filters over the words {@code [from, to)}, stores the matching slots in {@code matches} and counts
+     * each facet over the slots passing every other filter.
+     */
+    private Facets scan(Columns columns, Query query, long[] live, long[] categoryMask, long[] statusMask,
+                        long[] matches, int from, int to) {
+        boolean priceFiltered = query.minPrice() != null || query.maxPrice() != null;
+        double minPrice = query.minPrice() != null ? query.minPrice() : Double.NEGATIVE_INFINITY;
+        double maxPrice = query.maxPrice() != null ? query.maxPrice() : Double.POSITIVE_INFINITY;
+        double minRating = query.minRating() != null ? query.minRating() : Double.NEGATIVE_INFINITY;
+        double maxRating = query.maxRating() != null ? query.maxRating() : Double.POSITIVE_INFINITY;
+        Facets facets = new Facets(columns.categoryIds.size(), STATUSES.length, priceBounds.length);
+        for (int word = from; word < to; word++) {
+            long remaining = live[word];
+            long categoryWord = categoryMask != null ? categoryMask[word] : -1L;
+            long statusWord = statusMask != null ? statusMask[word] : -1L;
+            long matched = 0;
+            while (remaining != 0) {
+                long bit = remaining & -remaining;
+                remaining ^= bit;
+                int slot = (word << 6) | Long.numberOfTrailingZeros(bit);
+                double price = columns.prices[slot];
+                double rating = columns.ratings[slot];
+                // Products without a price are left out by a price range, like the SQL comparison would
+                boolean priceOk = !priceFiltered || (price >= minPrice && price <= maxPrice);
+                boolean ratingOk = rating >= minRating && rating <= maxRating;
+                boolean categoryOk = (categoryWord & bit) != 0;
+                boolean statusOk = (statusWord & bit) != 0;
+                if (priceOk && ratingOk) {
+                    if (statusOk) {
+                        facets.categoryCounts[columns.categories[slot]]++;
+                    }
+                    if (categoryOk && columns.statuses[slot] != NO_STATUS) {
+                        facets.statusCounts[columns.statuses[slot]]++;
+                    }
+                    if (categoryOk && statusOk) {
+                        matched |= bit;
+                    }
+                }
+                if (ratingOk && categoryOk && statusOk && !Double.isNaN(price)) {
+                    facets.priceCounts[priceBucketOf(price)]++;
+                }
+            }
+            matches[word] = matched;
+            facets.total += Long.bitCount(matched);
+        }
+        return facets;
+    }
+
+    private static TopK top(long[] matches, int from, int to, int k, SlotOrder order) {
+        TopK top = new TopK(Math.min(k, (to - from) << 6), order);
+        for (int word = from; word < to; word++) {
+            long remaining = matches[word];
+            while (remaining != 0) {
+                top.offer((word << 6) | Long.numberOfTrailingZeros(remaining));
+                remaining &= remaining - 1;
+            }
+        }
+        return top;
+    }
+
+    private int priceBucketOf(double price) {
+        int index = Arrays.binarySearch(priceBounds, price);
+        return Math.max(index >= 0 ? index : -index - 2, 0);
+    }
+
+    private static Map<InventoryStatus, Long> statusCounts(long[] counts) {
+        Map<InventoryStatus, Long> statuses = new EnumMap<>(InventoryStatus.class);
+        for (InventoryStatus status : STATUSES) {
+            statuses.put(status, counts[status.ordinal()]);
+        }
+        return statuses;
+    }
+
+    private List<ProductBrowseResult.PriceBucket> priceBuckets(long[] counts) {
+        List<ProductBrowseResult.PriceBucket> buckets = new ArrayList<>(priceBounds.length);
+        for (int i = 0; i < priceBounds.length; i++) {
+            buckets.add(new ProductBrowseResult.PriceBucket(priceBounds[i],
+                    i + 1 < priceBounds.length ? priceBounds[i + 1] : null, counts[i]));
+        }
+        return buckets;
+    }
+
+    /**
+     * Filters, order and page window of a {@link #select}. Null or empty filters match every product; the price and
+     * rating bounds are inclusive.
+     */
+    public record Query(Collection<Long> categoryIds, Collection<InventoryStatus> statuses, Double minPrice,
+                        Double maxPrice, Double minRating, Double maxRating, ProductSortField sortField,
+                        boolean descending, int offset, int limit) {
+    }
+
+    /**
+     * Ids of the requested page in order, total number of matches and facet counts.
+     */
+    public record Selection(List<Long> ids, long total, List<ProductBrowseResult.CategoryCount> categories,
+                            Map<InventoryStatus, Long> statuses, List<ProductBrowseResult.PriceBucket> priceBuckets) {
+    }
+
+    /**
+     * Forgets the deletions older than the window, called on each deletion and rebuild.
+     */
+    private void forgetDeletions() {
+        long now = System.nanoTime();
+        Iterator<Long> deletedAt = deleted.values().iterator();
+        while (deletedAt.hasNext() && now - deletedAt.next() > DELETION_WINDOW_NANOS) {
+            deletedAt.remove();
+        }
+    }
+
+    /**
+     * New state of a product, or null once it is deleted.
+     */
+    private record Change(Long productId, ProductStockUpdate state) {
+    }
+
+    /**
+     * Compares two slots; a primitive comparator, so that sorting does not box the slot numbers.
+     */
+    private interface SlotOrder {
+        int compare(int left, int right);
+    }
+
+    private static final class Columns {
+        private long[] ids;
+
+        /**
+         * NaN for products without a price, which {@link Double#compare} orders after every price.
+         */
+        private double[] prices;
+        private int[] quantities;
+        private double[] ratings;
+
+        /**
+         * Category code of each slot, an index in {@link #categoryIds}.
+         */
+        private int[] categories;
+        private byte[] statuses;
+
+        /**
+         * Stored modification time of the state held in each slot, which orders the changes.
+         */
+        private LocalDateTime[] updatedAts;
+
+        /**
+         * Number of slots ever used, live or free.
+         */
+        private int size;
+        private int[] freeSlots = new int[16];
+        private int freeCount;
+
+        private final BitSet live = new BitSet();
+        private final BitSet[] byStatus = new BitSet[STATUSES.length];
+        private final List<BitSet> byCategory = new ArrayList<>();
+
+        /**
+         * Category id of each code, with a null id for the products without a category. Codes are never reclaimed,
+         * the categories being few.
+         */
+        private final List<Long> categoryIds = new ArrayList<>();
+        private final Map<Long, Integer> categoryCodes = new HashMap<>();
+        private final Map<Long, Integer> slots = new HashMap<>();
+
+        Columns(int capacity) {
+            ids = new long[capacity];
+            prices = new double[capacity];
+            quantities = new int[capacity];
+            ratings = new double[capacity];
+            categories = new int[capacity];
+            statuses = new byte[capacity];
+            updatedAts = new LocalDateTime[capacity];
+            for (int i = 0; i < byStatus.length; i++) {
+                byStatus[i] = new BitSet();
+            }
+        }
+
+        void put(ProductStockUpdate product) {
+            Integer existing = slots.get(product.getProductId());
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                unindex(slot);
+            } else {
+                slot = allocate();
+                ids[slot] = product.getProductId();
+                slots.put(product.getProductId(), slot);
+                live.set(slot);
+            }
+            prices[slot] = product.getPrice() != null ? product.getPrice() : Double.NaN;
+            quantities[slot] = product.getQuantity();
+            ratings[slot] = product.getRating();
+            updatedAts[slot] = product.getUpdatedAt();
+            int category = categoryCodes.computeIfAbsent(product.getCategoryId(), id -> {
+                categoryIds.add(id);
+                byCategory.add(new BitSet());
+                return categoryIds.size() - 1;
+            });
+            categories[slot] = category;
+            byCategory.get(category).set(slot);
+            if (product.getInventoryStatus() != null) {
+                statuses[slot] = (byte) product.getInventoryStatus().ordinal();
+                byStatus[product.getInventoryStatus().ordinal()].set(slot);
+            } else {
+                statuses[slot] = NO_STATUS;
+            }
+        }
+
+        void remove(Long productId) {
+            Integer slot = slots.remove(productId);
+            if (slot == null) {
+                return;
+            }
+            unindex(slot);
+            live.clear(slot);
+            updatedAts[slot] = null;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+
+        /**
+         * Stored modification time of a product, or null when it is not held.
+         */
+        LocalDateTime updatedAt(Long productId) {
+            Integer slot = slots.get(productId);
+            return slot != null ? updatedAts[slot] : null;
+        }
+
+        long[] categoryMask(Collection<Long> selected, int words) {
+            BitSet mask = new BitSet();
+            for (Long categoryId : selected) {
+                Integer code = categoryCodes.get(categoryId);
+                if (code != null) {
+                    mask.or(byCategory.get(code));
+                }
+            }
+            return Arrays.copyOf(mask.toLongArray(), words);
+        }
+
+        long[] statusMask(Collection<InventoryStatus> selected, int words) {
+            BitSet mask = new BitSet();
+            for (InventoryStatus status : selected) {
+                mask.or(byStatus[status.ordinal()]);
+            }
+            return Arrays.copyOf(mask.toLongArray(), words);
+        }
+
+        List<ProductBrowseResult.CategoryCount> categoryCounts(long[] counts) {
+            List<ProductBrowseResult.CategoryCount> result = new ArrayList<>();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) {
+                    result.add(new ProductBrowseResult.CategoryCount(categoryIds.get(code), counts[code]));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Orders by the column, then by id, both in the requested direction, as the paged listing does.
+         */
+        SlotOrder order(ProductSortField field, boolean descending) {
+            long[] ids = this.ids;
+            SlotOrder byColumn = switch (field) {
+                case PRICE -> {
+                    double[] prices = this.prices;
+                    yield (left, right) -> Double.compare(prices[left], prices[right]);
+                }
+                case QUANTITY -> {
+                    int[] quantities = this.quantities;
+                    yield (left, right) -> Integer.compare(quantities[left], quantities[right]);
+                }
+                case RATING -> {
+                    double[] ratings = this.ratings;
+                    yield (left, right) -> Double.compare(ratings[left], ratings[right]);
+                }
+                default -> (left, right) -> 0;
+            };
+            return (left, right) -> {
+                int result = byColumn.compare(left, right);
+                if (result == 0) {
+                    result = Long.compare(ids[left], ids[right]);
+                }
+                return descending ? -result : result;
+            };
+        }
+
+        private void unindex(int slot) {
+            byCategory.get(categories[slot]).clear(slot);
+            if (statuses[slot] != NO_STATUS) {
+                byStatus[statuses[slot]].clear(slot);
+            }
+        }
+
+        private int allocate() {
+            if (freeCount > 0) {
+                return freeSlots[--freeCount];
+            }
+            if (size == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+                ratings = Arrays.copyOf(ratings, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+                updatedAts = Arrays.copyOf(updatedAts, capacity);
+            }
+            return size++;
+        }
+    }
+
+    /**
+     * Counts gathered by the scan of one chunk, then summed over the chunks.
+     */
+    private static final class Facets {
+        private long total;
+        private final long[] categoryCounts;
+        private final long[] statusCounts;
+        private final long[] priceCounts;
+
+        Facets(int categories, int statuses, int priceBuckets) {
+            categoryCounts = new long[categories];
+            statusCounts = new long[statuses];
+            priceCounts = new long[priceBuckets];
+        }
+
+        Facets merge(Facets other) {
+            total += other.total;
+            add(categoryCounts, other.categoryCounts);
+            add(statusCounts, other.statusCounts);
+            add(priceCounts, other.priceCounts);
+            return this;
+        }
+
+        private static void add(long[] target, long[] source) {
+            for (int i = 0; i < target.length; i++) {
+                target[i] += source[i];
+            }
+        }
+    }
+
+    /**
+     * The {@code k} first slots offered, in a binary max-heap whose root is the last of them, so that each offer costs
+     * at most O(log k).
+     */
+    private static final class TopK {
+        private final int[] heap;
+        private final SlotOrder order;
+        private int size;
+
+        TopK(int k, SlotOrder order) {
+            this.heap = new int[k];
+            this.order = order;
+        }
+
+        void offer(int slot) {
+            if (size < heap.length) {
+                int child = size++;
+                heap[child] = slot;
+                while (child > 0) {
+                    int parent = (child - 1) >>> 1;
+                    if (order.compare(heap[child], heap[parent]) <= 0) {
+                        break;
+                    }
+                    swap(child, parent);
+                    child = parent;
+                }
+            } else if (size > 0 && order.compare(slot, heap[0]) < 0) {
+                heap[0] = slot;
+                siftDown(size);
+            }
+        }
+
+        void drainTo(TopK target) {
+            for (int i = 0; i < size; i++) {
+                target.offer(heap[i]);
+            }
+        }
+
+        /**
+         * Returns the slots in order, emptying the heap.
+         */
+        int[] sorted() {
+            int[] sorted = new int[size];
+            for (int end = size - 1; end >= 0; end--) {
+                sorted[end] = heap[0];
+                heap[0] = heap[end];
+                siftDown(end);
+            }
+            size = 0;
+            return sorted;
+        }
+
+        private void siftDown(int length) {
+            int parent = 0;
+            while (true) {
+                int largest = parent;
+                int left = 2 * parent + 1;
+                int right = left + 1;
+                if (left < length && order.compare(heap[left], heap[largest]) > 0) {
+                    largest = left;
+                }
+                if (right < length && order.compare(heap[right], heap[largest]) > 0) {
+                    largest = right;
+                }
+                if (largest == parent) {
+                    return;
+                }
+                swap(parent, largest);
+                parent = largest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int slot = heap[i];
+            heap[i] = heap[j];
+            heap[j] = slot;
+        }
+    }
+}
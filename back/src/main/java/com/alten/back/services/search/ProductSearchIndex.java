@@ -0,0 +1,298 @@
+package com.alten.back.services.search;
+
+import com.alten.back.dtos.ProductListItem;
+import com.alten.back.entities.Product;
+import com.alten.back.repositories.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over the name, description, code and category name of the products.
+ *
+ * <p>Terms are kept in a sorted map, so a query token matches every term it prefixes with a range scan, and each term
+ * points to the products containing it with a weight depending on the field it was found in. A search only touches the
+ * postings of its tokens, whatever the size of the catalog. Documents are matched when they contain every query token,
+ * and ranked by the sum of their term weights times the inverse document frequency of the terms, exact terms counting
+ * twice as much as prefix matches.
+ * <p>The index is built in parallel once the application is ready. Writers call {@link #index(Product)} and
+ * {@link #remove(Long)}; inside a transaction the change is applied after the commit, so a rolled back write never
+ * shows up in search results.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int CODE_WEIGHT = 4;
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_FACTOR = 0.5;
+
+    /**
+     * Number of tokenized documents inserted per acquisition of the write lock while the index is being built.
+     */
+    private static final int BUILD_CHUNK_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+
+    /**
+     * Postings: term to product id to weight of the term in that product.
+     */
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+
+    /**
+     * Indexed documents, used to remove the previous terms of a product when it changes.
+     */
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    /**
+     * Products removed while the index was being built, which the build must not add back.
+     */
+    private final Set<Long> removedDuringBuild = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Serializes writers; a lock rather than a monitor so that request threads waiting for it never pin their carrier.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Loads the catalog and tokenizes it on the common fork-join pool. Documents indexed or removed by writes
+     * that happened meanwhile are left as the writes set them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        List<ProductListItem> products = productRepository.findAllListItems();
+        List<Document> tokenized = products.parallelStream()
+                .map(product -> Document.of(product.getId(), product.getCode(), product.getName(),
+                        product.getDescription(), product.getCategoryId(), product.getCategoryName()))
+                .toList();
+        for (int from = 0; from < tokenized.size(); from += BUILD_CHUNK_SIZE) {
+            List<Document> chunk = tokenized.subList(from, Math.min(from + BUILD_CHUNK_SIZE, tokenized.size()));
+            writeLock.lock();
+            try {
+                for (Document document : chunk) {
+                    if (!documents.containsKey(document.id()) && !removedDuringBuild.contains(document.id())) {
+                        add(document);
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        writeLock.lock();
+        try {
+            ready = true;
+            removedDuringBuild.clear();
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Indexed {} products for search in {} ms", tokenized.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Indexes the current state of a product, after the current transaction commits.
+     * The category, if any, must be loaded or loadable.
+     */
+    public void index(Product product) {
+        Document document = Document.of(product.getId(), product.getCode(), product.getName(), product.getDescription(),
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getCategory() != null ? product.getCategory().getName() : null);
+        afterCommit(() -> replace(document));
+    }
+
+    /**
+     * Removes a product from the index, after the current transaction commits.
+     */
+    public void remove(Long id) {
+        afterCommit(() -> {
+            writeLock.lock();
+            try {
+                Document previous = documents.remove(id);
+                if (previous != null) {
+                    removePostings(previous);
+                }
+                if (!ready) {
+                    removedDuringBuild.add(id);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Re-indexes the products of a renamed category.
+     */
+    public void renameCategory(Long categoryId, String name) {
+        afterCommit(() -> {
+            List<Document> affected = documents.values().stream()
+                    .filter(document -> categoryId.equals(document.categoryId()))
+                    .map(document -> Document.of(document.id(), document.code(), document.name(), document.description(),
+                            categoryId, name))
+                    .toList();
+            affected.forEach(this::replace);
+        });
+    }
+
+    /**
+     * Returns the ids of the best matching products, best first.
+     *
+     * @param query free text; every token must match the start of a term of the product
+     * @param limit maximum number of ids returned
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int total = Math.max(1, documents.size());
+        Map<Long, Double> scores = null;
+        for (String token : new HashSet<>(tokens)) {
+            Map<Long, Double> tokenScores = new HashMap<>();
+            NavigableMap<String, Map<Long, Integer>> matches = postings.subMap(token, true, token + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Map<Long, Integer>> match : matches.entrySet()) {
+                Map<Long, Integer> products = match.getValue();
+                double idf = Math.log(1.0 + (double) total / Math.max(1, products.size()));
+                double factor = match.getKey().equals(token) ? 1.0 : PREFIX_FACTOR;
+                products.forEach((id, weight) -> tokenScores.merge(id, weight * idf * factor, Math::max));
+            }
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                Map<Long, Double> previous = scores;
+                scores = new HashMap<>();
+                for (Map.Entry<Long, Double> entry : tokenScores.entrySet()) {
+                    Double score = previous.get(entry.getKey());
+                    if (score != null) {
+                        scores.put(entry.getKey(), score + entry.getValue());
+                    }
+                }
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Lower-cases the text, strips accents and splits it on everything but letters and digits.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void replace(Document document) {
+        writeLock.lock();
+        try {
+            Document previous = documents.get(document.id());
+            if (previous != null) {
+                removePostings(previous);
+            }
+            add(document);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void add(Document document) {
+        documents.put(document.id(), document);
+        document.terms().forEach((term, weight) ->
+                postings.computeIfAbsent(term, key -> new ConcurrentHashMap<>()).put(document.id(), weight));
+    }
+
+    private void removePostings(Document document) {
+        for (String term : document.terms().keySet()) {
+            postings.computeIfPresent(term, (key, products) -> {
+                products.remove(document.id());
+                return products.isEmpty() ? null : products;
+            });
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * The indexed fields of a product and the weight of each of its terms.
+     */
+    private record Document(Long id, String code, String name, String description, Long categoryId,
+                            Map<String, Integer> terms) {
+
+        static Document of(Long id, String code, String name, String description, Long categoryId, String categoryName) {
+            Map<String, Integer> terms = new HashMap<>();
+            addTerms(terms, code, CODE_WEIGHT);
+            addTerms(terms, name, NAME_WEIGHT);
+            addTerms(terms, categoryName, CATEGORY_WEIGHT);
+            addTerms(terms, description, DESCRIPTION_WEIGHT);
+            return new Document(id, code, name, description, categoryId, terms);
+        }
+
+        private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+            for (String token : tokenize(text)) {
+                terms.merge(token, weight, Integer::sum);
+            }
+        }
+    }
+}
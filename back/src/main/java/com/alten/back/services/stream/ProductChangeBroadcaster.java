@@ -0,0 +1,183 @@
+package com.alten.back.services.stream;
+
+import com.alten.back.dtos.ProductStockUpdate;
+import com.alten.back.events.ProductStockChangedEvent;
+import core.exceptions.ExceptionClass;
+import core.exceptions.UnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Fans committed stock and price changes out to server-sent event subscribers.
+ *
+ * <p>Each committed transaction becomes a single {@code stock} event per subscriber, holding the array of the changed
+ * products it follows, so an import batch or a bulk update takes one buffer slot rather than one per product, and the
+ * committing thread does work proportional to the number of updates plus the number of subscribers. Publishing never
+ * blocks: the event is offered to the bounded buffer of every matching subscriber and a drain of that buffer is
+ * scheduled on a small worker pool, which serializes the updates and performs the actual socket writes. A subscriber
+ * whose buffer of transactions is full is too slow to keep up and is disconnected; it can reconnect and resync. A heartbeat comment is queued
+ * periodically so that disconnected clients are detected even when nothing changes.
+ */
+@Slf4j
+@Component
+public class ProductChangeBroadcaster {
+
+    private static final String STOCK_EVENT = "stock";
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+
+    public ProductChangeBroadcaster(@Value("${product.stream.buffer-size:256}") int bufferSize,
+                                    @Value("${product.stream.max-subscribers:1000}") int maxSubscribers,
+                                    @Value("${product.stream.timeout:PT30M}") Duration timeout,
+                                    @Value("${product.stream.workers:4}") int workers) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "product-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a stream of the changes of the products of one category, or of every product when {@code categoryId}
+     * is {@code null}.
+     *
+     * @throws UnavailableException if the maximum number of subscribers is reached
+     */
+    public SseEmitter subscribe(Long categoryId) throws ExceptionClass {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new UnavailableException("Too many product stream subscribers, retry later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, categoryId, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> drop(subscriber));
+        emitter.onError(error -> drop(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Forwards committed changes, one event per transaction and subscriber; changes of a rolled back transaction are
+     * never published. The updates are grouped by category once, and the lists are shared by the subscribers.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductStockChanged(ProductStockChangedEvent event) {
+        if (subscribers.isEmpty() || event.getUpdates().isEmpty()) {
+            return;
+        }
+        List<ProductStockUpdate> updates = List.copyOf(event.getUpdates());
+        Map<Long, List<ProductStockUpdate>> byCategory = null;
+        for (Subscriber subscriber : subscribers) {
+            List<ProductStockUpdate> matching;
+            if (subscriber.categoryId() == null) {
+                matching = updates;
+            } else {
+                if (byCategory == null) {
+                    byCategory = updates.stream()
+                            .filter(update -> Objects.nonNull(update.getCategoryId()))
+                            .collect(Collectors.groupingBy(ProductStockUpdate::getCategoryId));
+                }
+                matching = byCategory.get(subscriber.categoryId());
+            }
+            if (matching != null) {
+                enqueue(subscriber, SseEmitter.event().name(STOCK_EVENT).data(matching, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+        subscribers.clear();
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.buffer().offer(event)) {
+            log.debug("Dropping a product stream subscriber whose buffer of {} events is full", bufferSize);
+            drop(subscriber);
+            return;
+        }
+        if (subscriber.draining().compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                drop(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Sends the buffered events of a subscriber. Only one drain per subscriber runs at a time; the flag is rechecked
+     * after being cleared so that an event queued meanwhile is not left behind.
+     */
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.buffer().poll()) != null) {
+                try {
+                    subscriber.emitter().send(event);
+                } catch (Exception e) {
+                    drop(subscriber);
+                    return;
+                }
+            }
+            subscriber.draining().set(false);
+        } while (!subscriber.buffer().isEmpty() && subscriber.draining().compareAndSet(false, true));
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.buffer().clear();
+            subscriber.emitter().complete();
+        }
+    }
+
+    private record Subscriber(SseEmitter emitter, Long categoryId, BlockingQueue<SseEmitter.SseEventBuilder> buffer,
+                              AtomicBoolean draining) {
+        Subscriber(SseEmitter emitter, Long categoryId, BlockingQueue<SseEmitter.SseEventBuilder> buffer) {
+            this(emitter, categoryId, buffer, new AtomicBoolean());
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.alten.back.services.writebehind;
+
+import com.alten.back.dtos.ProductCounterUpdate;
+import com.alten.back.dtos.ProductDetail;
+import com.alten.back.events.ProductStockChangedEvent;
+import com.alten.back.repositories.ProductRepository;
+import com.alten.back.services.cache.CatalogVersions;
+import com.alten.back.services.cache.ProductCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Opt-in write-behind buffer for the quantity and rating of products, enabled with {@code product.write-behind.enabled}.
+ *
+ * <p>Scanners update the same hot products many times per second. Instead of loading and saving the product on every
+ * update, the new values are merged per product in a concurrent map, where the latest value of each field wins, and
+ * written on a background thread as one JDBC batch, every {@code flush-interval} or as soon as {@code flush-threshold}
+ * products are pending. Until then, {@link #overlay(ProductDetail)} applies the pending values to the reads of the
+ * product, and its ETag is bumped when the update is accepted. The list and search endpoints read the database and
+ * pick the values up after the flush. Other writers of these columns, such as a full update or a stock reservation,
+ * first {@link #absorb} the pending values of their products in their own transaction.
+ *
+ * <p>An entry only leaves the map once it has been committed, and only if no newer update replaced it meanwhile, so a
+ * failed flush is retried on the next one. On shutdown the buffer stops accepting updates, which then go through the
+ * regular update path, and flushes what is left before the data source is closed. Pending values live in this
+ * instance only: they are lost if the process is killed without a shutdown.
+ */
+@Slf4j
+@Component
+public class ProductWriteBuffer {
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final CatalogVersions catalogVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final int flushThreshold;
+    private final ScheduledExecutorService flusher;
+    private final Map<Long, ProductCounterUpdate> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    /**
+     * Read-locked by the writers, write-locked once by the shutdown, so that no update is accepted after the last flush.
+     */
+    private final ReentrantReadWriteLock closing = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+
+    public ProductWriteBuffer(ProductRepository productRepository, ProductCache productCache, CatalogVersions catalogVersions,
+                              ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                              @Value("${product.write-behind.enabled:false}") boolean enabled,
+                              @Value("${product.write-behind.flush-interval:PT0.5S}") Duration flushInterval,
+                              @Value("${product.write-behind.flush-threshold:1000}") int flushThreshold) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.catalogVersions = catalogVersions;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.flushThreshold = flushThreshold;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            long intervalMillis = flushInterval.toMillis();
+            flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Tells whether updates are currently buffered. The caller still has to check the result of {@link #offer}, since
+     * the buffer may close in between.
+     */
+    public boolean isEnabled() {
+        return enabled && !closed;
+    }
+
+    /**
+     * Buffers a new quantity and rating for a product, either of which may be null to leave it unchanged.
+     *
+     * @return {@code false} if the buffer is disabled or shutting down, in which case the caller writes the update itself
+     */
+    public boolean offer(Long productId, Integer quantity, Double rating) {
+        if (!enabled) {
+            return false;
+        }
+        closing.readLock().lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            pending.merge(productId, new ProductCounterUpdate(productId, quantity, rating), ProductCounterUpdate::mergedWith);
+        } finally {
+            closing.readLock().unlock();
+        }
+        catalogVersions.productChanged(productId);
+        if (pending.size() >= flushThreshold && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the product with its pending quantity and rating applied, or the product itself when nothing is pending.
+     * Cached products are shared, so a copy is returned rather than modifying it.
+     */
+    public ProductDetail overlay(ProductDetail product) {
+        if (product == null || pending.isEmpty()) {
+            return product;
+        }
+        ProductCounterUpdate update = pending.get(product.getId());
+        if (update == null) {
+            return product;
+        }
+        return ProductDetail.builder()
+                .id(product.getId())
+                .code(product.getCode())
+                .name(product.getName())
+                .description(product.getDescription())
+                .image(product.getImage())
+                .price(product.getPrice())
+                .quantity(update.getQuantity() != null ? update.getQuantity() : product.getQuantity())
+                .internalReference(product.getInternalReference())
+                .inventoryStatus(product.getInventoryStatus())
+                .rating(update.getRating() != null ? update.getRating() : product.getRating())
+                .shellId(product.getShellId())
+                .categoryId(product.getCategoryId())
+                .categoryName(product.getCategoryName())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Writes the pending updates of these products in the caller's transaction, before it changes them through another
+     * path. Otherwise a later flush would overwrite the newer values of a regular update or stock adjustment with the
+     * older buffered ones. The entries leave the buffer once the transaction commits.
+     */
+    public void absorb(Collection<Long> productIds) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<ProductCounterUpdate> updates = productIds.stream().map(pending::get).filter(Objects::nonNull).toList();
+        if (updates.isEmpty()) {
+            return;
+        }
+        productRepository.batchUpdateCounters(updates);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    updates.forEach(update -> pending.remove(update.getProductId(), update));
+                }
+            });
+        } else {
+            updates.forEach(update -> pending.remove(update.getProductId(), update));
+        }
+    }
+
+    /**
+     * Number of products whose update has not been written yet.
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes every pending update in one transaction. Runs on the flusher thread, or on the shutdown thread once the
+     * flusher has stopped, so two flushes never overlap.
+     */
+    void flush() {
+        flushRequested.set(false);
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<ProductCounterUpdate> batch = new ArrayList<>(pending.values());
+        try {
+            transaction.executeWithoutResult(status -> {
+                productRepository.batchUpdateCounters(batch);
+                List<Long> ids = new ArrayList<>(batch.size());
+                for (ProductCounterUpdate update : batch) {
+                    ids.add(update.getProductId());
+                    productCache.invalidateId(update.getProductId());
+                    catalogVersions.productChanged(update.getProductId());
+                }
+                eventPublisher.publishEvent(new ProductStockChangedEvent(productRepository.findStockUpdates(ids)));
+                log.debug("Flushed the pending updates of {} products", ids.size());
+            });
+            // Entries replaced by a newer update while the batch was written stay for the next flush
+            for (ProductCounterUpdate update : batch) {
+                pending.remove(update.getProductId(), update);
+            }
+        } catch (Exception e) {
+            log.error("Could not flush the pending updates of {} products, retrying on the next flush", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closing.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closing.writeLock().unlock();
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(30, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (!pending.isEmpty()) {
+            log.error("Lost the pending updates of {} products on shutdown: {}", pending.size(), pending.values());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package core.exceptions;
+
+import java.io.Serial;
+
+/**
+ * Raised when a change conflicts with the current state, for example a code already used by another product.
+ */
+public class ConflictException extends ExceptionClass {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public ConflictException(String message) {
+        super(message);
+    }
+
+    public ConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
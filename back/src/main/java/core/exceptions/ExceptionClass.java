@@ -14,4 +14,11 @@ public class ExceptionClass extends RuntimeException{
     public ExceptionClass(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * For exceptions raised on expected client errors, which can skip filling in their stack trace.
+     */
+    protected ExceptionClass(String message, Throwable cause, boolean writableStackTrace) {
+        super(message, cause, false, writableStackTrace);
+    }
 }
@@ -0,0 +1,35 @@
+package core.exceptions;
+
+import java.io.Serial;
+
+/**
+ * Raised when a requested resource does not exist. Unknown ids are routine, so this exception captures no stack trace
+ * and only builds its message when it is read.
+ */
+public class NotFoundException extends ExceptionClass {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String resource;
+    private final transient Object id;
+
+    public NotFoundException(String resource, Object id) {
+        super(null, null, false);
+        this.resource = resource;
+        this.id = id;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public Object getId() {
+        return id;
+    }
+
+    @Override
+    public String getMessage() {
+        return resource + " not found with ID: " + id;
+    }
+}
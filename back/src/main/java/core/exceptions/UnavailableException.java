@@ -0,0 +1,17 @@
+package core.exceptions;
+
+import java.io.Serial;
+
+/**
+ * Raised when a request is refused because a capacity limit is reached, such as the number of stream subscribers.
+ * The client may retry later. Like {@link ValidationException}, it captures no stack trace.
+ */
+public class UnavailableException extends ExceptionClass {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public UnavailableException(String message) {
+        super(message, null, false);
+    }
+}
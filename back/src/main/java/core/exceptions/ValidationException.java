@@ -0,0 +1,21 @@
+package core.exceptions;
+
+import java.io.Serial;
+
+/**
+ * Raised when a request carries invalid input, such as a malformed cursor or a missing field. Like
+ * {@link NotFoundException}, it captures no stack trace since the request, not the code, is at fault.
+ */
+public class ValidationException extends ExceptionClass {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public ValidationException(String message) {
+        super(message, null, false);
+    }
+
+    public ValidationException(String message, Throwable cause) {
+        super(message, cause, false);
+    }
+}
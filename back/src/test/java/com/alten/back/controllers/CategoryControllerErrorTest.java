@@ -0,0 +1,86 @@
+package com.alten.back.controllers;
+
+import com.alten.back.controllers.support.ApiExceptionHandler;
+import com.alten.back.entities.Category;
+import com.alten.back.services.CategoryServices;
+import com.alten.back.services.cache.CatalogVersions;
+import core.exceptions.ConflictException;
+import core.exceptions.ExceptionClass;
+import core.exceptions.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CategoryControllerErrorTest {
+
+	private final CategoryServices categoryService = mock(CategoryServices.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.standaloneSetup(new CategoryController(categoryService, new CatalogVersions()))
+				.setControllerAdvice(new ApiExceptionHandler(meterRegistry))
+				.build();
+	}
+
+	@Test
+	void unknownCategoryIsAProblemDetailWithoutStackTrace() throws Exception {
+		NotFoundException notFound = new NotFoundException("Category", 42L);
+		when(categoryService.getCategoryById(42L)).thenThrow(notFound);
+
+		mockMvc.perform(get("/categories/42"))
+				.andExpect(status().isNotFound())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+				.andExpect(jsonPath("$.status").value(404))
+				.andExpect(jsonPath("$.detail").value("Category not found with ID: 42"));
+
+		assertEquals(0, notFound.getStackTrace().length);
+		assertEquals(1, meterRegistry.get("api.errors").tag("status", "404")
+				.tag("exception", "NotFoundException").counter().count());
+	}
+
+	@Test
+	void categoryWithProductsCannotBeDeleted() throws Exception {
+		doThrow(new ConflictException("The category with ID 1 still has products"))
+				.when(categoryService).deleteCategory(1L);
+
+		mockMvc.perform(delete("/categories/1"))
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.detail").value("The category with ID 1 still has products"));
+	}
+
+	@Test
+	void serviceFailureDoesNotLeakItsMessage() throws Exception {
+		when(categoryService.getAllCategories()).thenThrow(new ExceptionClass("Error while getting the all the categories"));
+
+		mockMvc.perform(get("/categories").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isInternalServerError())
+				.andExpect(jsonPath("$.detail").value("The request could not be processed"));
+	}
+
+	@Test
+	void categoryIsReturnedWhenFound() throws Exception {
+		Category category = new Category();
+		category.setId(1L);
+		category.setName("Shoes");
+		when(categoryService.getCategoryById(1L)).thenReturn(category);
+
+		mockMvc.perform(get("/categories/1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Shoes"));
+	}
+}
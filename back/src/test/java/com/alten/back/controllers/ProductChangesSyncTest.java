@@ -0,0 +1,172 @@
+package com.alten.back.controllers;
+
+import com.alten.back.dtos.ProductChanges;
+import com.alten.back.dtos.ProductDto;
+import com.alten.back.dtos.ProductListItem;
+import com.alten.back.entities.Category;
+import com.alten.back.entities.Product;
+import com.alten.back.enums.InventoryStatus;
+import com.alten.back.repositories.CategoryRepository;
+import com.alten.back.repositories.ProductRepository;
+import com.alten.back.services.CategoryServices;
+import com.alten.back.services.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"product.sync.safety-margin=PT2S",
+		"product.sync.tombstone-retention=P1D",
+		"spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class ProductChangesSyncTest {
+
+	private static final Duration SAFETY_MARGIN = Duration.ofSeconds(2);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CategoryServices categoryService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Category category;
+	private final List<Long> ids = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		Category newCategory = new Category();
+		newCategory.setName("Watches");
+		newCategory.setDescription("Watches");
+		category = categoryRepository.save(newCategory);
+		for (int i = 1; i <= 4; i++) {
+			ids.add(productRepository.save(Product.builder()
+					.code("sync-" + i).name("Watch " + i).description("Product Description").price(10.0 * i)
+					.quantity(i).internalReference("REF-SYNC-" + i).inventoryStatus(InventoryStatus.INSTOCK)
+					.rating(3.0).category(category).build()).getId());
+		}
+		// Written long before the syncs below
+		jdbcTemplate.update("update product set updated_at = ? where category_id = ?",
+				LocalDateTime.now().minusHours(1), category.getId());
+	}
+
+	@AfterEach
+	void tearDown() {
+		productRepository.deleteAllById(ids.stream().filter(productRepository::existsById).toList());
+		categoryRepository.deleteById(category.getId());
+	}
+
+	@Test
+	void firstSyncAndExpiredWatermarksGetTheWholeCatalog() throws Exception {
+		LocalDateTime before = LocalDateTime.now();
+		ProductChanges first = sync(null);
+		LocalDateTime after = LocalDateTime.now();
+
+		assertTrue(first.isFull());
+		assertTrue(ids(first).containsAll(ids));
+		assertTrue(first.getDeleted().isEmpty());
+		// The watermark lags the clock by the safety margin
+		assertFalse(first.getWatermark().isBefore(before.minus(SAFETY_MARGIN)));
+		assertFalse(first.getWatermark().isAfter(after.minus(SAFETY_MARGIN)));
+
+		ProductChanges expired = sync(LocalDateTime.now().minusDays(2));
+		assertTrue(expired.isFull());
+		assertTrue(ids(expired).containsAll(ids));
+		assertFalse(expired.getWatermark().isBefore(first.getWatermark()));
+	}
+
+	@Test
+	void deltaHasTheUpdatesAndDeletionsBetweenTwoSyncs() throws Exception {
+		ProductChanges first = sync(null);
+		LocalDateTime watermark = first.getWatermark();
+
+		// Stamped before the first sync returned but committed after it: inside the safety margin, so not missed
+		jdbcTemplate.update("update product set updated_at = ? where id = ?", watermark.plusSeconds(1), ids.get(2));
+		productService.updateProductById(ids.get(0), ProductDto.builder().price(99.0).build());
+		productService.deleteProductById(ids.get(1));
+
+		ProductChanges delta = sync(watermark);
+
+		assertFalse(delta.isFull());
+		assertEquals(List.of(ids.get(0), ids.get(2)), ids(delta).stream().filter(ids::contains).sorted().toList());
+		assertEquals(99.0, byId(delta).get(ids.get(0)).getPrice());
+		assertEquals(List.of(ids.get(1)), delta.getDeleted().stream().filter(ids::contains).toList());
+		assertFalse(delta.getWatermark().isBefore(watermark));
+
+		ProductChanges next = sync(delta.getWatermark());
+		assertFalse(next.isFull());
+		assertFalse(ids(next).contains(ids.get(3)));
+	}
+
+	@Test
+	void categoryRenameReachesTheDeltaOfEveryProduct() throws Exception {
+		LocalDateTime watermark = sync(null).getWatermark();
+
+		Category rename = new Category();
+		rename.setId(category.getId());
+		rename.setName("Timepieces");
+		categoryService.updateCategory(rename);
+
+		ProductChanges delta = sync(watermark);
+		Map<Long, ProductListItem> changed = byId(delta);
+		assertFalse(delta.isFull());
+		for (Long id : ids) {
+			assertEquals("Timepieces", changed.get(id).getCategoryName());
+		}
+	}
+
+	private ProductChanges sync(LocalDateTime since) throws Exception {
+		MockHttpServletRequestBuilder request = get("/products/changes");
+		if (since != null) {
+			request.param("since", since.toString());
+		}
+		String body = mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readValue(body, ProductChanges.class);
+	}
+
+	private static List<Long> ids(ProductChanges changes) {
+		return changes.getChanged().stream().map(ProductListItem::getId).toList();
+	}
+
+	private static Map<Long, ProductListItem> byId(ProductChanges changes) {
+		return changes.getChanged().stream().collect(Collectors.toMap(ProductListItem::getId, Function.identity()));
+	}
+}
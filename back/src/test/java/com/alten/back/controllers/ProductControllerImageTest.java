@@ -0,0 +1,81 @@
+package com.alten.back.controllers;
+
+import com.alten.back.dtos.StoredImage;
+import com.alten.back.enums.ImageRendition;
+import com.alten.back.services.ImageRenditionService;
+import com.alten.back.services.ImageStorageService;
+import com.alten.back.services.ProductExportService;
+import com.alten.back.services.ProductImportService;
+import com.alten.back.services.ProductService;
+import com.alten.back.services.ProductSyncService;
+import com.alten.back.services.cache.CatalogSnapshot;
+import com.alten.back.services.cache.CatalogVersions;
+import com.alten.back.services.stream.ProductChangeBroadcaster;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProductControllerImageTest {
+
+	private static final String DIGEST = "d".repeat(64);
+
+	@TempDir
+	private Path storage;
+
+	private final ProductService productService = mock(ProductService.class);
+	private final ImageStorageService imageStorageService = mock(ImageStorageService.class);
+	private final ImageRenditionService imageRenditionService = mock(ImageRenditionService.class);
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		mockMvc = MockMvcBuilders.standaloneSetup(new ProductController(productService, mock(ProductExportService.class),
+						imageStorageService, imageRenditionService, mock(ProductImportService.class),
+						mock(ProductSyncService.class), mock(ProductChangeBroadcaster.class), new CatalogVersions(),
+						mock(CatalogSnapshot.class), new SimpleMeterRegistry()))
+				.build();
+		Path original = Files.write(storage.resolve("original.png"), new byte[]{1, 2, 3, 4});
+		when(productService.getProductImageById(1L))
+				.thenReturn(new StoredImage(DIGEST, MediaType.IMAGE_PNG, new FileSystemResource(original)));
+	}
+
+	@Test
+	void originalIsServedUncachedWhileTheRenditionIsPending() throws Exception {
+		when(imageRenditionService.findRendition(DIGEST, ImageRendition.THUMBNAIL)).thenReturn(Optional.empty());
+
+		mockMvc.perform(get("/products/productImage/1").param("size", "THUMBNAIL"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"" + DIGEST + "\""))
+				.andExpect(header().string("Cache-Control", "no-cache"))
+				.andExpect(content().bytes(new byte[]{1, 2, 3, 4}));
+	}
+
+	@Test
+	void renditionHasItsOwnETag() throws Exception {
+		Path thumbnail = Files.write(storage.resolve("thumbnail.png"), new byte[]{5, 6});
+		when(imageRenditionService.findRendition(DIGEST, ImageRendition.THUMBNAIL))
+				.thenReturn(Optional.of(new StoredImage(DIGEST, MediaType.IMAGE_PNG, new FileSystemResource(thumbnail))));
+
+		mockMvc.perform(get("/products/productImage/1").param("size", "THUMBNAIL"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"" + DIGEST + "-thumbnail\""))
+				.andExpect(header().string("Cache-Control", "max-age=86400, must-revalidate, public"))
+				.andExpect(content().bytes(new byte[]{5, 6}));
+	}
+}
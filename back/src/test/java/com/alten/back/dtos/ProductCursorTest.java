@@ -0,0 +1,39 @@
+package com.alten.back.dtos;
+
+import com.alten.back.entities.Product;
+import com.alten.back.enums.ProductSortField;
+import core.exceptions.ExceptionClass;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductCursorTest {
+
+	@Test
+	void encodedCursorDecodesToTheSamePosition() {
+		Product product = Product.builder().id(42L).name("Bamboo: Watch").price(65.0).build();
+
+		ProductCursor cursor = ProductCursor.decode(ProductCursor.after(product, ProductSortField.NAME, Sort.Direction.DESC).encode());
+
+		assertEquals(ProductSortField.NAME, cursor.getSortField());
+		assertEquals(Sort.Direction.DESC, cursor.getDirection());
+		assertEquals(42L, cursor.getId());
+		assertEquals("Bamboo: Watch", cursor.getValue());
+	}
+
+	@Test
+	void numericColumnsKeepTheirType() {
+		Product product = Product.builder().id(7L).price(19.99).build();
+
+		ProductCursor cursor = ProductCursor.decode(ProductCursor.after(product, ProductSortField.PRICE, Sort.Direction.ASC).encode());
+
+		assertEquals(19.99, cursor.getValue());
+	}
+
+	@Test
+	void malformedCursorIsRejected() {
+		assertThrows(ExceptionClass.class, () -> ProductCursor.decode("not-a-cursor"));
+	}
+}
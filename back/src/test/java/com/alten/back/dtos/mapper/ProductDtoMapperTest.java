@@ -0,0 +1,50 @@
+package com.alten.back.dtos.mapper;
+
+import com.alten.back.dtos.ProductDto;
+import com.alten.back.entities.Category;
+import com.alten.back.entities.Product;
+import com.alten.back.enums.InventoryStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ProductDtoMapperTest {
+
+	@Test
+	void roundTripKeepsEveryFieldIncludingTheCategory() {
+		Category category = new Category();
+		category.setId(7L);
+		ProductDto dto = ProductDto.builder()
+				.code("P1")
+				.name("Wireless Speaker")
+				.description("Loud")
+				.price(49.9)
+				.quantity(12)
+				.internalReference("REF-1")
+				.inventoryStatus(InventoryStatus.INSTOCK)
+				.rating(4.5)
+				.categoryId(7L)
+				.build();
+
+		Product product = ProductDtoMapper.toProduct(dto, category);
+		ProductDto mapped = ProductDtoMapper.fromProduct(product);
+
+		assertSame(category, product.getCategory());
+		assertEquals("P1", mapped.getCode());
+		assertEquals("Wireless Speaker", mapped.getName());
+		assertEquals("Loud", mapped.getDescription());
+		assertEquals(49.9, mapped.getPrice());
+		assertEquals(12, mapped.getQuantity());
+		assertEquals("REF-1", mapped.getInternalReference());
+		assertEquals(InventoryStatus.INSTOCK, mapped.getInventoryStatus());
+		assertEquals(4.5, mapped.getRating());
+		assertEquals(7L, mapped.getCategoryId());
+	}
+
+	@Test
+	void productWithoutCategoryHasNoCategoryId() {
+		assertNull(ProductDtoMapper.fromProduct(new Product()).getCategoryId());
+	}
+}
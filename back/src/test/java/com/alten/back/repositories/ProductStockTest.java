@@ -0,0 +1,86 @@
+package com.alten.back.repositories;
+
+import com.alten.back.dtos.ProductStockUpdate;
+import com.alten.back.dtos.mapper.ProductDtoMapper;
+import com.alten.back.entities.Product;
+import com.alten.back.enums.InventoryStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductStockTest {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void concurrentBuyersNeverOversellOneProduct() throws Exception {
+		Product product = productRepository.save(Product.builder()
+				.code("f230fh0g3").name("Bamboo Watch").description("Product Description").price(65.0)
+				.quantity(100).internalReference("REF-123-456").inventoryStatus(InventoryStatus.INSTOCK).build());
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+		ExecutorService executor = Executors.newFixedThreadPool(32);
+		List<Future<Integer>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < 300; i++) {
+				Callable<Integer> buyer = () -> transaction.execute(status -> productRepository.adjustStock(product.getId(), -1, 10));
+				results.add(executor.submit(buyer));
+			}
+			int sold = 0;
+			for (Future<Integer> result : results) {
+				sold += result.get();
+			}
+			assertEquals(100, sold);
+		} finally {
+			executor.shutdown();
+		}
+
+		Product soldOut = productRepository.findById(product.getId()).orElseThrow();
+		assertEquals(0, soldOut.getQuantity());
+		assertEquals(InventoryStatus.OUTOFSTOCK, soldOut.getInventoryStatus());
+
+		transaction.executeWithoutResult(status -> productRepository.adjustStock(product.getId(), 5, 10));
+		assertEquals(InventoryStatus.LOWSTOCK, productRepository.findById(product.getId()).orElseThrow().getInventoryStatus());
+		productRepository.deleteById(product.getId());
+	}
+
+	@Test
+	void stockUpdatesCarryTheStoredUpdateTime() {
+		Product product = productRepository.saveAndFlush(Product.builder()
+				.code("nvklal433").name("Black Watch").description("Product Description").price(72.0)
+				.quantity(61).internalReference("REF-123-457").inventoryStatus(InventoryStatus.INSTOCK).build());
+		ProductStockUpdate created = ProductDtoMapper.toStockUpdate(product);
+		assertNotNull(created.getUpdatedAt());
+
+		new TransactionTemplate(transactionManager)
+				.executeWithoutResult(status -> productRepository.adjustStock(product.getId(), -1, 10));
+		ProductStockUpdate adjusted = productRepository.findStockUpdates(List.of(product.getId())).get(0);
+
+		assertEquals(60, adjusted.getQuantity());
+		assertFalse(adjusted.isOlderThan(created.getUpdatedAt()));
+		assertTrue(created.isOlderThan(adjusted.getUpdatedAt().plusNanos(1_000)));
+		productRepository.deleteById(product.getId());
+	}
+}
@@ -0,0 +1,25 @@
+package com.alten.back.services.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CatalogSnapshotTest {
+
+	private final CatalogSnapshot.Snapshot snapshot = new CatalogSnapshot.Snapshot("\"catalog-1\"",
+			new byte[]{1, 2, 3}, new byte[]{1}, new byte[]{2});
+
+	@Test
+	void prefersGzipThenDeflate() {
+		assertEquals(CatalogSnapshot.GZIP, snapshot.select("deflate, gzip, br").encoding());
+		assertEquals(CatalogSnapshot.DEFLATE, snapshot.select("deflate").encoding());
+		assertEquals(CatalogSnapshot.GZIP, snapshot.select("*").encoding());
+	}
+
+	@Test
+	void honoursRefusedEncodings() {
+		assertEquals(CatalogSnapshot.DEFLATE, snapshot.select("gzip;q=0, deflate;q=0.5").encoding());
+		assertEquals(CatalogSnapshot.IDENTITY, snapshot.select("GZIP; q=0").encoding());
+		assertEquals(CatalogSnapshot.IDENTITY, snapshot.select(null).encoding());
+	}
+}
@@ -0,0 +1,38 @@
+package com.alten.back.services.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CatalogVersionsTest {
+
+	@Test
+	void productChangeOnlyInvalidatesThatProductAndTheCatalog() {
+		CatalogVersions versions = new CatalogVersions();
+		String catalog = versions.catalogETag();
+		String changed = versions.productETag(1L);
+		String untouched = versions.productETag(2L);
+		String categories = versions.categoriesETag();
+
+		versions.productChanged(1L);
+
+		assertNotEquals(catalog, versions.catalogETag());
+		assertNotEquals(changed, versions.productETag(1L));
+		assertEquals(untouched, versions.productETag(2L));
+		assertEquals(categories, versions.categoriesETag());
+	}
+
+	@Test
+	void categoryChangeInvalidatesEveryProduct() {
+		CatalogVersions versions = new CatalogVersions();
+		versions.productChanged(1L);
+		String first = versions.productETag(1L);
+		String second = versions.productETag(2L);
+
+		versions.categoriesChanged();
+
+		assertNotEquals(first, versions.productETag(1L));
+		assertNotEquals(second, versions.productETag(2L));
+	}
+}
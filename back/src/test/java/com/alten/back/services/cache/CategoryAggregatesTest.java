@@ -0,0 +1,109 @@
+package com.alten.back.services.cache;
+
+import com.alten.back.dtos.CategoryStatistics;
+import com.alten.back.dtos.ProductStockUpdate;
+import com.alten.back.enums.InventoryStatus;
+import com.alten.back.events.ProductDeletedEvent;
+import com.alten.back.events.ProductStockChangedEvent;
+import com.alten.back.repositories.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CategoryAggregatesTest {
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private final CategoryAggregates aggregates = new CategoryAggregates(productRepository);
+
+	@Test
+	void rebuildSumsTheProductsOfEachCategory() {
+		when(productRepository.findAllStockUpdates()).thenReturn(List.of(
+				stock(1L, 10L, 2.5, 4, InventoryStatus.LOWSTOCK),
+				stock(2L, 10L, 10.0, 20, InventoryStatus.INSTOCK),
+				stock(3L, 20L, 1.0, 0, InventoryStatus.OUTOFSTOCK)));
+
+		assertEquals(3, aggregates.rebuild());
+
+		CategoryStatistics first = byCategory().get(10L);
+		assertEquals(2, first.getProductCount());
+		assertEquals(24, first.getStockUnits());
+		assertEquals(210.0, first.getStockValue());
+		assertEquals(1L, first.getStatusCounts().get(InventoryStatus.LOWSTOCK));
+		assertEquals(1L, first.getStatusCounts().get(InventoryStatus.INSTOCK));
+		assertEquals(0L, first.getStatusCounts().get(InventoryStatus.OUTOFSTOCK));
+		assertEquals(1, byCategory().get(20L).getProductCount());
+	}
+
+	@Test
+	void changesMoveTheContributionOfAProduct() {
+		aggregates.onProductStockChanged(new ProductStockChangedEvent(List.of(
+				stock(1L, 10L, 0.1, 3, InventoryStatus.INSTOCK),
+				stock(2L, 10L, 5.0, 1, InventoryStatus.LOWSTOCK))));
+
+		// Moved to another category with a new quantity
+		aggregates.onProductStockChanged(new ProductStockChangedEvent(List.of(
+				stock(1L, 20L, 0.1, 7, InventoryStatus.INSTOCK))));
+
+		CategoryStatistics first = byCategory().get(10L);
+		assertEquals(1, first.getProductCount());
+		assertEquals(1, first.getStockUnits());
+		assertEquals(5.0, first.getStockValue());
+		assertEquals(0L, first.getStatusCounts().get(InventoryStatus.INSTOCK));
+		CategoryStatistics second = byCategory().get(20L);
+		assertEquals(7, second.getStockUnits());
+		assertEquals(0.7, second.getStockValue(), 1e-12);
+
+		aggregates.onProductDeleted(new ProductDeletedEvent(2L));
+
+		assertFalse(byCategory().containsKey(10L));
+		assertEquals(1, aggregates.statistics().size());
+	}
+
+	@Test
+	void statesDeliveredOutOfCommitOrderAreIgnored() {
+		LocalDateTime created = LocalDateTime.of(2024, 5, 1, 12, 0);
+		when(productRepository.findAllStockUpdates()).thenReturn(List.of(
+				stock(1L, 10L, 1.0, 5, InventoryStatus.INSTOCK, created.plusSeconds(2))));
+		aggregates.rebuild();
+
+		// Committed before the state read by the rebuild, delivered after it
+		aggregates.onProductStockChanged(new ProductStockChangedEvent(List.of(
+				stock(1L, 20L, 1.0, 9, InventoryStatus.INSTOCK, created.plusSeconds(1)))));
+		assertEquals(5, byCategory().get(10L).getStockUnits());
+		assertFalse(byCategory().containsKey(20L));
+
+		aggregates.onProductStockChanged(new ProductStockChangedEvent(List.of(
+				stock(1L, 20L, 1.0, 3, InventoryStatus.LOWSTOCK, created.plusSeconds(3)))));
+		assertFalse(byCategory().containsKey(10L));
+		assertEquals(3, byCategory().get(20L).getStockUnits());
+
+		// The creation of a product delivered after its deletion
+		aggregates.onProductDeleted(new ProductDeletedEvent(2L));
+		aggregates.onProductStockChanged(new ProductStockChangedEvent(List.of(
+				stock(2L, 20L, 1.0, 4, InventoryStatus.INSTOCK, created))));
+		assertEquals(1, byCategory().get(20L).getProductCount());
+	}
+
+	private Map<Long, CategoryStatistics> byCategory() {
+		return aggregates.statistics().stream()
+				.collect(Collectors.toMap(CategoryStatistics::getCategoryId, Function.identity()));
+	}
+
+	private static ProductStockUpdate stock(Long id, Long categoryId, double price, int quantity, InventoryStatus status) {
+		return stock(id, categoryId, price, quantity, status, null);
+	}
+
+	private static ProductStockUpdate stock(Long id, Long categoryId, double price, int quantity, InventoryStatus status,
+											LocalDateTime updatedAt) {
+		return new ProductStockUpdate(id, categoryId, price, quantity, status, 0.0, updatedAt);
+	}
+}
@@ -0,0 +1,63 @@
+package com.alten.back.services.cache;
+
+import com.alten.back.dtos.ProductDetail;
+import com.alten.back.entities.Product;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProductCacheTest {
+
+	private final ProductCache cache = new ProductCache(100, Duration.ofMinutes(10));
+
+	@Test
+	void lookupByCodeRacingAWriteDoesNotCacheTheOldState() {
+		AtomicReference<ProductDetail> committed = new AtomicReference<>(detail(1L, "f230fh0g3", 65.0));
+
+		// The write commits and evicts while the lookup by code is still reading the previous state
+		ProductDetail stale = cache.getByCode("f230fh0g3", code -> {
+			ProductDetail read = committed.get();
+			committed.set(detail(1L, "f230fh0g3", 70.0));
+			cache.invalidate(Product.builder().id(1L).code("f230fh0g3").name("Bamboo Watch").build());
+			return read;
+		}, id -> committed.get());
+
+		assertEquals(65.0, stale.getPrice());
+		assertEquals(70.0, cache.getById(1L, id -> committed.get()).getPrice());
+		assertEquals(70.0, cache.getByCode("f230fh0g3", code -> committed.get(), id -> committed.get()).getPrice());
+	}
+
+	@Test
+	void lookupByIdRacingAWriteDiscardsItsLoad() {
+		AtomicReference<ProductDetail> committed = new AtomicReference<>(detail(1L, "f230fh0g3", 65.0));
+
+		cache.getById(1L, id -> {
+			ProductDetail read = committed.get();
+			committed.set(detail(1L, "f230fh0g3", 70.0));
+			cache.invalidateId(1L);
+			return read;
+		});
+
+		assertEquals(70.0, cache.getById(1L, id -> committed.get()).getPrice());
+	}
+
+	@Test
+	void renamedCodeIsNoLongerServedFromTheIndex() {
+		AtomicReference<ProductDetail> committed = new AtomicReference<>(detail(1L, "f230fh0g3", 65.0));
+		cache.getByCode("f230fh0g3", code -> committed.get(), id -> committed.get());
+
+		committed.set(detail(1L, "nvklal433", 65.0));
+		cache.invalidateId(1L);
+
+		assertNull(cache.getByCode("f230fh0g3", code -> null, id -> committed.get()));
+		assertEquals(1L, cache.getByCode("nvklal433", code -> committed.get(), id -> committed.get()).getId());
+	}
+
+	private ProductDetail detail(Long id, String code, double price) {
+		return ProductDetail.builder().id(id).code(code).name("Bamboo Watch").price(price).build();
+	}
+}
@@ -0,0 +1,31 @@
+package com.alten.back.services.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CsvRowReaderTest {
+
+	@Test
+	void readsPlainAndQuotedFields() throws IOException {
+		CsvRowReader reader = new CsvRowReader(new StringReader("code,name\r\nf230fh0g3,\"Bamboo, \"\"Watch\"\"\"\nnvklal433,\"Black\nWatch\"\n"));
+
+		assertEquals(List.of("code", "name"), reader.readRow());
+		assertEquals(List.of("f230fh0g3", "Bamboo, \"Watch\""), reader.readRow());
+		assertEquals(List.of("nvklal433", "Black\nWatch"), reader.readRow());
+		assertNull(reader.readRow());
+	}
+
+	@Test
+	void keepsEmptyFields() throws IOException {
+		CsvRowReader reader = new CsvRowReader(new StringReader("a,,c"));
+
+		assertEquals(List.of("a", "", "c"), reader.readRow());
+		assertNull(reader.readRow());
+	}
+}
@@ -0,0 +1,114 @@
+package com.alten.back.services.impl;
+
+import com.alten.back.dtos.StoredImage;
+import com.alten.back.enums.ImageRendition;
+import com.alten.back.services.ImageStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.MediaType;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageRenditionServiceImplTest {
+
+	private static final String PHOTO = "a".repeat(64);
+	private static final String HUGE = "b".repeat(64);
+	private static final String BROKEN = "c".repeat(64);
+
+	@TempDir
+	private Path storage;
+
+	private final ImageStorageService imageStorageService = mock(ImageStorageService.class);
+	private ImageRenditionServiceImpl renditions;
+
+	@AfterEach
+	void tearDown() {
+		renditions.shutdown();
+	}
+
+	@Test
+	void renditionsAreGeneratedInTheBackground() throws Exception {
+		renditions = new ImageRenditionServiceImpl(imageStorageService, storage.toString(), 1, 4, 50_000_000);
+		stored(PHOTO, MediaType.IMAGE_PNG, png(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB)));
+
+		assertTrue(renditions.findRendition(PHOTO, ImageRendition.THUMBNAIL).isEmpty());
+
+		Optional<StoredImage> thumbnail = await(PHOTO, ImageRendition.THUMBNAIL);
+		assertTrue(thumbnail.isPresent());
+		BufferedImage image = ImageIO.read(thumbnail.get().getResource().getFile());
+		assertEquals(160, image.getWidth());
+		assertEquals(80, image.getHeight());
+		assertEquals(480, ImageIO.read(await(PHOTO, ImageRendition.MEDIUM).orElseThrow()
+				.getResource().getFile()).getWidth());
+	}
+
+	@Test
+	void imagesThatCannotBeDecodedAreOnlyReadOnce() throws Exception {
+		renditions = new ImageRenditionServiceImpl(imageStorageService, storage.toString(), 1, 4, 1_000_000);
+		// The header declares 50000x50000 pixels, nothing is decoded
+		stored(HUGE, MediaType.IMAGE_PNG, declaredSize(png(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB)), 50_000, 50_000));
+		stored(BROKEN, MediaType.IMAGE_JPEG, "not an image".getBytes());
+
+		for (String digest : new String[]{HUGE, BROKEN}) {
+			renditions.findRendition(digest, ImageRendition.THUMBNAIL);
+			verify(imageStorageService, timeout(5_000)).load(digest);
+			for (int i = 0; i < 20; i++) {
+				Thread.sleep(25);
+				assertTrue(renditions.findRendition(digest, ImageRendition.THUMBNAIL).isEmpty());
+			}
+			verify(imageStorageService, times(1)).load(digest);
+		}
+	}
+
+	private Optional<StoredImage> await(String digest, ImageRendition rendition) throws InterruptedException {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		Optional<StoredImage> found = renditions.findRendition(digest, rendition);
+		while (found.isEmpty() && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+			found = renditions.findRendition(digest, rendition);
+		}
+		return found;
+	}
+
+	private void stored(String digest, MediaType contentType, byte[] content) throws Exception {
+		Path blob = Files.write(storage.resolve(digest), content);
+		when(imageStorageService.isDigest(anyString())).thenReturn(true);
+		when(imageStorageService.load(digest)).thenReturn(new StoredImage(digest, contentType, new FileSystemResource(blob)));
+	}
+
+	private static byte[] png(BufferedImage image) throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", output);
+		return output.toByteArray();
+	}
+
+	/**
+	 * Rewrites the size in the IHDR chunk, which follows the 8-byte signature, and its CRC.
+	 */
+	private static byte[] declaredSize(byte[] png, int width, int height) {
+		ByteBuffer buffer = ByteBuffer.wrap(png);
+		buffer.putInt(16, width).putInt(20, height);
+		CRC32 crc = new CRC32();
+		crc.update(png, 12, 17);
+		buffer.putInt(29, (int) crc.getValue());
+		return png;
+	}
+}
@@ -0,0 +1,72 @@
+package com.alten.back.services.impl;
+
+import com.alten.back.entities.ImageBlob;
+import com.alten.back.repositories.ImageBlobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImageStorageServiceImplTest {
+
+	@Autowired
+	private ImageBlobRepository imageBlobRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@TempDir
+	private Path storageDirectory;
+
+	private ImageStorageServiceImpl imageStorageService;
+
+	@BeforeEach
+	void setUp() {
+		imageBlobRepository.deleteAll();
+		imageStorageService = new ImageStorageServiceImpl(imageBlobRepository, transactionManager,
+				mock(ApplicationEventPublisher.class), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(imageStorageService, "storageDirectory", storageDirectory.toString());
+	}
+
+	@Test
+	void referenceIsGivenBackWhenTheCallerRollsBack() {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		String kept = transaction.execute(status -> imageStorageService.store(image("kept")));
+		String duplicate = transaction.execute(status -> {
+			String digest = imageStorageService.store(image("kept"));
+			status.setRollbackOnly();
+			return digest;
+		});
+		String discarded = transaction.execute(status -> {
+			String digest = imageStorageService.store(image("discarded"));
+			status.setRollbackOnly();
+			return digest;
+		});
+
+		assertEquals(kept, duplicate);
+		assertEquals(1, imageBlobRepository.findById(kept).map(ImageBlob::getReferenceCount).orElseThrow());
+		assertTrue(imageBlobRepository.findById(discarded).isEmpty());
+	}
+
+	private MockMultipartFile image(String content) {
+		return new MockMultipartFile("image", "image.png", "image/png", content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,165 @@
+package com.alten.back.services.impl;
+
+import com.alten.back.dtos.BulkProductUpdate;
+import com.alten.back.dtos.BulkUpdateResult;
+import com.alten.back.dtos.ProductDto;
+import com.alten.back.dtos.ProductStockUpdate;
+import com.alten.back.entities.Category;
+import com.alten.back.entities.Product;
+import com.alten.back.enums.InventoryStatus;
+import com.alten.back.events.ProductStockChangedEvent;
+import com.alten.back.repositories.CategoryRepository;
+import com.alten.back.repositories.ProductRepository;
+import com.alten.back.services.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"product.bulk.batch-size=2",
+		"spring.jpa.show-sql=false"
+})
+@RecordApplicationEvents
+class ProductBulkUpdateTest {
+
+	private static final long MISSING_ID = 999_999L;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ApplicationEvents events;
+
+	private Category watches;
+	private Category jewels;
+	private final List<Product> products = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		watches = category("Watches");
+		jewels = category("Jewels");
+		for (int i = 1; i <= 5; i++) {
+			products.add(productRepository.save(Product.builder()
+					.code("bulk-" + i).name("Watch " + i).description("Product Description").price(10.0 * i)
+					.quantity(i).internalReference("REF-BULK-" + i).inventoryStatus(InventoryStatus.INSTOCK)
+					.rating(3.0).category(watches).build()));
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		productRepository.deleteAllById(ids());
+		categoryRepository.deleteById(watches.getId());
+		categoryRepository.deleteById(jewels.getId());
+	}
+
+	@Test
+	void scalarChangesAreSetBasedAndClearTheContext() {
+		ProductDto changes = ProductDto.builder().price(99.0).quantity(7).build();
+		List<Long> ids = new ArrayList<>(ids());
+		ids.add(MISSING_ID);
+
+		Product[] loaded = new Product[2];
+		BulkUpdateResult result = new TransactionTemplate(transactionManager).execute(status -> {
+			loaded[0] = productRepository.findById(ids.get(0)).orElseThrow();
+			BulkUpdateResult updated = productService.bulkUpdateProducts(List.of(new BulkProductUpdate(ids, changes)));
+			// The entity loaded before the update statement is not served again from the persistence context
+			loaded[1] = productRepository.findById(ids.get(0)).orElseThrow();
+			return updated;
+		});
+
+		assertEquals(6, result.getRequested());
+		assertEquals(5, result.getUpdated());
+		assertEquals(List.of(MISSING_ID), result.getNotFound());
+		assertEquals(10.0, loaded[0].getPrice());
+		assertEquals(99.0, loaded[1].getPrice());
+		for (Product product : productRepository.findAllById(ids())) {
+			Product before = byId(product.getId());
+			assertEquals(99.0, product.getPrice());
+			assertEquals(7, product.getQuantity());
+			assertEquals(3.0, product.getRating());
+			assertTrue(product.getAuditInfo().getUpdatedAt().isAfter(before.getAuditInfo().getUpdatedAt()));
+		}
+
+		List<ProductStockUpdate> updates = stockUpdates();
+		assertEquals(ids(), updates.stream().map(ProductStockUpdate::getProductId).toList());
+		updates.forEach(update -> {
+			assertEquals(99.0, update.getPrice());
+			assertEquals(7, update.getQuantity());
+			assertEquals(watches.getId(), update.getCategoryId());
+			assertNotNull(update.getUpdatedAt());
+		});
+	}
+
+	@Test
+	void categoryChangesLoadTheProductsChunkByChunk() {
+		ProductDto changes = ProductDto.builder().categoryId(jewels.getId()).name("Jewel").build();
+		List<Long> ids = new ArrayList<>(ids().subList(0, 2));
+		ids.add(MISSING_ID);
+		ids.addAll(ids().subList(2, 5));
+
+		BulkUpdateResult result = productService.bulkUpdateProducts(List.of(new BulkProductUpdate(ids, changes)));
+
+		assertEquals(6, result.getRequested());
+		assertEquals(5, result.getUpdated());
+		assertEquals(List.of(MISSING_ID), result.getNotFound());
+		for (Product product : productRepository.findAllById(ids())) {
+			assertEquals("Jewel", product.getName());
+			assertEquals(jewels.getId(), productRepository.findDetailById(product.getId()).orElseThrow().getCategoryId());
+			assertEquals(byId(product.getId()).getPrice(), product.getPrice());
+		}
+
+		List<ProductStockUpdate> updates = stockUpdates();
+		assertEquals(ids(), updates.stream().map(ProductStockUpdate::getProductId).toList());
+		updates.forEach(update -> {
+			assertEquals(jewels.getId(), update.getCategoryId());
+			assertNotNull(update.getUpdatedAt());
+		});
+	}
+
+	private List<ProductStockUpdate> stockUpdates() {
+		List<ProductStockChangedEvent> published = events.stream(ProductStockChangedEvent.class).toList();
+		assertEquals(1, published.size());
+		return published.get(0).getUpdates().stream()
+				.sorted(Comparator.comparing(ProductStockUpdate::getProductId))
+				.toList();
+	}
+
+	private Category category(String name) {
+		Category category = new Category();
+		category.setName(name);
+		category.setDescription(name);
+		return categoryRepository.save(category);
+	}
+
+	private Product byId(Long id) {
+		return products.stream().filter(product -> product.getId().equals(id)).findFirst().orElseThrow();
+	}
+
+	private List<Long> ids() {
+		return products.stream().map(Product::getId).sorted().toList();
+	}
+}
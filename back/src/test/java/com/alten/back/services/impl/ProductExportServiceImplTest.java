@@ -0,0 +1,65 @@
+package com.alten.back.services.impl;
+
+import com.alten.back.entities.Product;
+import com.alten.back.enums.CatalogFormat;
+import com.alten.back.enums.InventoryStatus;
+import com.alten.back.repositories.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductExportServiceImplTest {
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+	@Test
+	void ndjsonHasOneProductPerLineAndIsFlushedInBatches() throws Exception {
+		List<Product> products = LongStream.rangeClosed(1, 3).mapToObj(this::product).toList();
+		when(productRepository.streamAllByOrderById()).thenReturn(products.stream());
+		ProductExportServiceImpl exportService = new ProductExportServiceImpl(productRepository, objectMapper);
+		ReflectionTestUtils.setField(exportService, "entityManager", mock(EntityManager.class));
+		CountingOutputStream output = new CountingOutputStream();
+
+		exportService.exportProducts(CatalogFormat.NDJSON, output);
+
+		String body = output.toString(StandardCharsets.UTF_8);
+		assertTrue(body.endsWith("\n"));
+		List<Long> ids = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			assertTrue(line.startsWith("{"), line);
+			JsonNode product = objectMapper.readTree(line);
+			ids.add(product.get("id").asLong());
+		}
+		assertEquals(List.of(1L, 2L, 3L), ids);
+		assertTrue(output.flushes <= 1, "flushed " + output.flushes + " times");
+	}
+
+	private Product product(long id) {
+		return Product.builder().id(id).code("code-" + id).name("Product " + id).description("Description")
+				.price(10.0).quantity(5).internalReference("ref-" + id).inventoryStatus(InventoryStatus.INSTOCK).build();
+	}
+
+	private static final class CountingOutputStream extends ByteArrayOutputStream {
+		private int flushes;
+
+		@Override
+		public void flush() {
+			flushes++;
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.alten.back.services.search;
+
+import com.alten.back.dtos.ProductBrowseResult;
+import com.alten.back.dtos.ProductStockUpdate;
+import com.alten.back.enums.InventoryStatus;
+import com.alten.back.enums.ProductSortField;
+import com.alten.back.events.ProductDeletedEvent;
+import com.alten.back.events.ProductStockChangedEvent;
+import com.alten.back.repositories.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductColumnStoreTest {
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private final ProductColumnStore store = new ProductColumnStore(productRepository, new double[]{0, 10, 50});
+
+	@Test
+	void facetsIgnoreTheirOwnFilter() {
+		when(productRepository.findAllStockUpdates()).thenReturn(List.of(
+				stock(1L, 10L, 5.0, InventoryStatus.INSTOCK, 4.0),
+				stock(2L, 10L, 20.0, InventoryStatus.LOWSTOCK, 3.0),
+				stock(3L, 20L, 60.0, InventoryStatus.INSTOCK, 5.0),
+				stock(4L, null, null, InventoryStatus.INSTOCK, 1.0)));
+		store.rebuild();
+
+		ProductColumnStore.Selection selection = store.select(new ProductColumnStore.Query(List.of(10L),
+				List.of(InventoryStatus.INSTOCK), null, null, 2.0, null, ProductSortField.ID, false, 0, 10));
+
+		assertEquals(List.of(1L), selection.ids());
+		assertEquals(1, selection.total());
+		assertEquals(Map.of(10L, 1L, 20L, 1L), selection.categories().stream()
+				.collect(Collectors.toMap(ProductBrowseResult.CategoryCount::getCategoryId, ProductBrowseResult.CategoryCount::getCount)));
+		assertEquals(1L, selection.statuses().get(InventoryStatus.INSTOCK));
+		assertEquals(1L, selection.statuses().get(InventoryStatus.LOWSTOCK));
+		assertEquals(List.of(1L, 0L, 0L), selection.priceBuckets().stream().map(ProductBrowseResult.PriceBucket::getCount).toList());
+
+		ProductColumnStore.Selection priced = store.select(new ProductColumnStore.Query(null, null, 10.0, null, null, null,
+				ProductSortField.PRICE, true, 0, 10));
+		assertEquals(List.of(3L, 2L), priced.ids());
+		assertEquals(List.of(1L, 1L, 1L), priced.priceBuckets().stream().map(ProductBrowseResult.PriceBucket::getCount).toList());
+	}
+
+	@Test
+	void writesAreAppliedIncrementally() {
+		when(productRepository.findAllStockUpdates()).thenReturn(List.of(
+				stock(1L, 10L, 5.0, InventoryStatus.INSTOCK, 4.0),
+				stock(2L, 10L, 20.0, InventoryStatus.INSTOCK, 3.0)));
+		store.rebuild();
+
+		store.onProductDeleted(new ProductDeletedEvent(1L));
+		store.onProductStockChanged(new ProductStockChangedEvent(List.of(
+				stock(2L, 20L, 20.0, InventoryStatus.OUTOFSTOCK, 3.0),
+				stock(3L, 10L, 1.0, InventoryStatus.INSTOCK, 2.0))));
+
+		ProductColumnStore.Selection inCategory = store.select(new ProductColumnStore.Query(List.of(10L), null, null, null,
+				null, null, ProductSortField.ID, false, 0, 10));
+		assertEquals(List.of(3L), inCategory.ids());
+		assertEquals(1L, inCategory.statuses().get(InventoryStatus.INSTOCK));
+		assertEquals(0L, inCategory.statuses().get(InventoryStatus.OUTOFSTOCK));
+		assertEquals(2, store.size());
+	}
+
+	@Test
+	void statesDeliveredOutOfCommitOrderAreIgnored() {
+		LocalDateTime created = LocalDateTime.of(2024, 5, 1, 12, 0);
+		when(productRepository.findAllStockUpdates()).thenReturn(List.of(
+				stock(1L, 10L, 5.0, InventoryStatus.INSTOCK, 4.0, created.plusSeconds(2))));
+		store.rebuild();
+
+		store.onProductStockChanged(new ProductStockChangedEvent(List.of(
+				stock(1L, 20L, 5.0, InventoryStatus.OUTOFSTOCK, 4.0, created.plusSeconds(1)))));
+		assertEquals(List.of(1L), store.select(new ProductColumnStore.Query(List.of(10L), List.of(InventoryStatus.INSTOCK),
+				null, null, null, null, ProductSortField.ID, false, 0, 10)).ids());
+
+		store.onProductStockChanged(new ProductStockChangedEvent(List.of(
+				stock(1L, 20L, 5.0, InventoryStatus.OUTOFSTOCK, 4.0, created.plusSeconds(3)))));
+		assertEquals(List.of(1L), store.select(new ProductColumnStore.Query(List.of(20L), List.of(InventoryStatus.OUTOFSTOCK),
+				null, null, null, null, ProductSortField.ID, false, 0, 10)).ids());
+
+		// The creation of a product delivered after its deletion
+		store.onProductDeleted(new ProductDeletedEvent(2L));
+		store.onProductStockChanged(new ProductStockChangedEvent(List.of(
+				stock(2L, 20L, 1.0, InventoryStatus.INSTOCK, 2.0, created))));
+		assertEquals(1, store.size());
+	}
+
+	@Test
+	void largeCatalogsAreScannedAndSortedInChunks() {
+		List<ProductStockUpdate> products = new ArrayList<>();
+		for (long id = 1; id <= 200_000; id++) {
+			InventoryStatus status = InventoryStatus.values()[(int) (id % InventoryStatus.values().length)];
+			products.add(stock(id, id % 7, (double) (id * 31 % 1000), status, id % 5));
+		}
+		when(productRepository.findAllStockUpdates()).thenReturn(products);
+		store.rebuild();
+
+		ProductColumnStore.Selection selection = store.select(new ProductColumnStore.Query(List.of(1L, 3L),
+				List.of(InventoryStatus.INSTOCK), 100.0, 800.0, null, null, ProductSortField.PRICE, true, 40, 20));
+
+		List<ProductStockUpdate> expected = products.stream()
+				.filter(p -> Set.of(1L, 3L).contains(p.getCategoryId()) && p.getInventoryStatus() == InventoryStatus.INSTOCK
+						&& p.getPrice() >= 100.0 && p.getPrice() <= 800.0)
+				.sorted(Comparator.comparing(ProductStockUpdate::getPrice).thenComparing(ProductStockUpdate::getProductId).reversed())
+				.toList();
+		assertEquals(expected.size(), selection.total());
+		assertEquals(expected.subList(40, 60).stream().map(ProductStockUpdate::getProductId).toList(), selection.ids());
+	}
+
+	private ProductStockUpdate stock(Long id, Long categoryId, Double price, InventoryStatus status, double rating) {
+		return stock(id, categoryId, price, status, rating, null);
+	}
+
+	private ProductStockUpdate stock(Long id, Long categoryId, Double price, InventoryStatus status, double rating,
+									 LocalDateTime updatedAt) {
+		return new ProductStockUpdate(id, categoryId, price, 1, status, rating, updatedAt);
+	}
+}
@@ -0,0 +1,58 @@
+package com.alten.back.services.search;
+
+import com.alten.back.entities.Category;
+import com.alten.back.entities.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTest {
+
+	private final Category accessories = new Category(1L, "Accessories", null, null, null);
+	private final Category fitness = new Category(2L, "Fitness", null, null, null);
+
+	@Test
+	void tokensMatchByPrefixIgnoringCaseAndAccents() {
+		ProductSearchIndex index = new ProductSearchIndex(null);
+		index.index(product(1L, "f230fh0g3", "Bamboo Watch", "Montre en bambou élégante", accessories));
+		index.index(product(2L, "nvklal433", "Black Watch", "Product Description", accessories));
+
+		assertEquals(List.of(1L), index.search("BAMB eleg", 10));
+		assertEquals(List.of(2L), index.search("black wat", 10));
+		assertTrue(index.search("bamboo black", 10).isEmpty());
+	}
+
+	@Test
+	void nameMatchesRankAboveDescriptionMatches() {
+		ProductSearchIndex index = new ProductSearchIndex(null);
+		index.index(product(1L, "a1", "Yoga Mat", "Goes well with a blue band", fitness));
+		index.index(product(2L, "a2", "Blue Band", "Elastic band", fitness));
+
+		assertEquals(List.of(2L, 1L), index.search("blue band", 10));
+	}
+
+	@Test
+	void removedAndRenamedProductsAreReindexed() {
+		ProductSearchIndex index = new ProductSearchIndex(null);
+		index.index(product(1L, "a1", "Yoga Mat", "Mat", fitness));
+		index.index(product(2L, "a2", "Gaming Set", "Set", fitness));
+		index.index(product(3L, "a3", "Gaming Mouse", "Mouse", accessories));
+
+		index.remove(1L);
+		index.index(product(2L, "a2", "Running Shoes", "Shoes", fitness));
+		index.renameCategory(2L, "Sport");
+
+		assertTrue(index.search("yoga", 10).isEmpty());
+		assertEquals(List.of(3L), index.search("gaming", 10));
+		assertEquals(List.of(2L), index.search("sport runn", 10));
+		assertTrue(index.search("fitness", 10).isEmpty());
+		assertEquals(2, index.size());
+	}
+
+	private Product product(Long id, String code, String name, String description, Category category) {
+		return Product.builder().id(id).code(code).name(name).description(description).category(category).build();
+	}
+}
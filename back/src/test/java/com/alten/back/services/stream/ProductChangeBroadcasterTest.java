@@ -0,0 +1,100 @@
+package com.alten.back.services.stream;
+
+import com.alten.back.dtos.ProductStockUpdate;
+import com.alten.back.enums.InventoryStatus;
+import com.alten.back.events.ProductStockChangedEvent;
+import core.exceptions.UnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class ProductChangeBroadcasterTest {
+
+	private static final int BUFFER_SIZE = 4;
+
+	private final ProductChangeBroadcaster broadcaster = new ProductChangeBroadcaster(BUFFER_SIZE, 2, Duration.ofMinutes(1), 2);
+	private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StreamController()).build();
+
+	@AfterEach
+	void tearDown() {
+		broadcaster.shutdown();
+	}
+
+	@Test
+	void bulkChangesAreSentAsOneEventPerTransaction() throws Exception {
+		MockHttpServletResponse all = subscribe(null);
+		MockHttpServletResponse category = subscribe(2L);
+
+		for (int transaction = 0; transaction < BUFFER_SIZE; transaction++) {
+			broadcaster.onProductStockChanged(new ProductStockChangedEvent(LongStream.rangeClosed(1, 1000)
+					.mapToObj(id -> new ProductStockUpdate(id, id % 4, 10.0, 5, InventoryStatus.INSTOCK, 4.0, null))
+					.toList()));
+		}
+
+		assertEquals(2, broadcaster.subscriberCount());
+		List<String> allEvents = awaitEvents(all, BUFFER_SIZE);
+		List<String> categoryEvents = awaitEvents(category, BUFFER_SIZE);
+		assertEquals(1000, count(allEvents.get(0), "\"productId\""));
+		assertEquals(250, count(categoryEvents.get(0), "\"productId\""));
+		assertEquals(250, count(categoryEvents.get(0), "\"categoryId\":2"));
+	}
+
+	@Test
+	void subscribersBeyondTheLimitAreRefused() throws Exception {
+		subscribe(null);
+		subscribe(null);
+
+		assertThrows(UnavailableException.class, () -> broadcaster.subscribe(null));
+	}
+
+	private MockHttpServletResponse subscribe(Long categoryId) throws Exception {
+		return mockMvc.perform(categoryId != null ? get("/stream").param("categoryId", categoryId.toString()) : get("/stream"))
+				.andReturn().getResponse();
+	}
+
+	private List<String> awaitEvents(MockHttpServletResponse response, int expected) throws Exception {
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		while (true) {
+			List<String> events = List.of(response.getContentAsString().split("\n\n")).stream()
+					.filter(event -> event.startsWith("event:stock"))
+					.toList();
+			if (events.size() >= expected || System.nanoTime() > deadline) {
+				assertEquals(expected, events.size());
+				assertTrue(events.get(0).contains("data:["));
+				return events;
+			}
+			Thread.sleep(10);
+		}
+	}
+
+	private int count(String text, String token) {
+		int count = 0;
+		for (int index = text.indexOf(token); index >= 0; index = text.indexOf(token, index + 1)) {
+			count++;
+		}
+		return count;
+	}
+
+	@RestController
+	class StreamController {
+		@GetMapping("/stream")
+		SseEmitter stream(@RequestParam(value = "categoryId", required = false) Long categoryId) {
+			return broadcaster.subscribe(categoryId);
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.alten.back.services.writebehind;
+
+import com.alten.back.dtos.ProductDto;
+import com.alten.back.entities.Category;
+import com.alten.back.entities.Product;
+import com.alten.back.enums.InventoryStatus;
+import com.alten.back.repositories.CategoryRepository;
+import com.alten.back.repositories.ProductRepository;
+import com.alten.back.services.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+		"product.write-behind.enabled=true",
+		"product.write-behind.flush-interval=PT1H",
+		"spring.jpa.show-sql=false"
+})
+class ProductWriteBufferTest {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductWriteBuffer productWriteBuffer;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	private Category category;
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		Category newCategory = new Category();
+		newCategory.setName("Accessories");
+		newCategory.setDescription("Accessories");
+		category = categoryRepository.save(newCategory);
+		product = productRepository.save(Product.builder()
+				.code("wb-watch").name("Bamboo Watch").description("Product Description").price(65.0)
+				.quantity(100).internalReference("REF-WB-1").inventoryStatus(InventoryStatus.INSTOCK)
+				.rating(3.0).category(category).build());
+	}
+
+	@AfterEach
+	void tearDown() {
+		productWriteBuffer.flush();
+		productRepository.deleteById(product.getId());
+		categoryRepository.deleteById(category.getId());
+	}
+
+	@Test
+	void updatesAreMergedAndVisibleBeforeTheyAreWritten() {
+		productService.updateProductById(product.getId(), ProductDto.builder().quantity(90).build());
+		productService.updateProductById(product.getId(), ProductDto.builder().rating(4.5).build());
+		productService.updateProductById(product.getId(), ProductDto.builder().quantity(80).build());
+
+		assertEquals(1, productWriteBuffer.pendingCount());
+		assertEquals(80, productService.getProductById(product.getId()).getQuantity());
+		assertEquals(4.5, productService.getProductById(product.getId()).getRating());
+		assertEquals(100, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+
+		productWriteBuffer.flush();
+
+		assertEquals(0, productWriteBuffer.pendingCount());
+		Product written = productRepository.findById(product.getId()).orElseThrow();
+		assertEquals(80, written.getQuantity());
+		assertEquals(4.5, written.getRating());
+		assertEquals(80, productService.getProductById(product.getId()).getQuantity());
+	}
+
+	@Test
+	void otherUpdatesWriteThePendingValuesFirst() {
+		productService.updateProductById(product.getId(), ProductDto.builder().quantity(42).build());
+		productService.updateProductById(product.getId(), ProductDto.builder().price(70.0).build());
+
+		assertEquals(0, productWriteBuffer.pendingCount());
+		Product written = productRepository.findById(product.getId()).orElseThrow();
+		assertEquals(42, written.getQuantity());
+		assertEquals(70.0, written.getPrice());
+	}
+}
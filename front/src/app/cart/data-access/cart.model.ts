@@ -4,3 +4,15 @@ export interface Cart{
   product: Product;
   quantity: number;
 }
+
+export interface ReservationItem {
+  productId: number;
+  quantity: number;
+}
+
+export interface Reservation {
+  id: string;
+  status: "ACTIVE" | "CHECKED_OUT" | "RELEASED" | "EXPIRED";
+  expiresAt: string;
+  items: ReservationItem[];
+}
@@ -1,12 +1,18 @@
-import { Injectable } from '@angular/core';
-import {BehaviorSubject} from "rxjs";
+import { Injectable, inject } from '@angular/core';
+import { HttpClient } from "@angular/common/http";
+import {BehaviorSubject, Observable} from "rxjs";
 import {Product} from "../../products/data-access/product.model";
+import {Reservation} from "./cart.model";
+import {environment} from "../../../environments/environment";
 
 @Injectable({
   providedIn: 'root'
 })
 export class CartService {
 
+  private readonly http = inject(HttpClient);
+  private readonly path = "/api/reservations";
+
   private items: Product[] = [];
   private cartItems = new BehaviorSubject<Product[]>([]);
 
@@ -46,4 +52,17 @@ export class CartService {
     return this.items.length;
   }
 
+  reserve(): Observable<Reservation> {
+    const items = this.items.map(item => ({ productId: item.id, quantity: item.quantity }));
+    return this.http.post<Reservation>(`${environment.backendHost}${this.path}`, { items });
+  }
+
+  checkout(reservationId: string): Observable<Reservation> {
+    return this.http.post<Reservation>(`${environment.backendHost}${this.path}/${reservationId}/checkout`, {});
+  }
+
+  release(reservationId: string): Observable<Reservation> {
+    return this.http.delete<Reservation>(`${environment.backendHost}${this.path}/${reservationId}`);
+  }
+
 }
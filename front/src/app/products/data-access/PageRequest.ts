@@ -5,4 +5,7 @@ export interface PageRequest {
   search?: string;
   category?: number;
   status?: string;
+  minPrice?: number;
+  maxPrice?: number;
+  cursor?: string;
 }
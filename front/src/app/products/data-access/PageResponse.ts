@@ -4,4 +4,5 @@ export interface PageResponse<T> {
   totalPages: number;
   size: number;
   number: number;
+  nextCursor?: string;
 }
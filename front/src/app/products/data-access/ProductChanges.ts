@@ -0,0 +1,8 @@
+import { Product } from "./product.model";
+
+export interface ProductChanges {
+  full: boolean;
+  changed: Product[];
+  deleted: number[];
+  watermark: string;
+}
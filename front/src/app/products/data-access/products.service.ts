@@ -3,6 +3,7 @@ import { Product } from "./product.model";
 import { HttpClient } from "@angular/common/http";
 import {catchError, map, Observable, of, tap} from "rxjs";
 import {environment} from "../../../environments/environment";
+import { ProductChanges } from "./ProductChanges";
 
 @Injectable({
     providedIn: "root"
@@ -15,6 +16,8 @@ import {environment} from "../../../environments/environment";
 
     public readonly products = this._products.asReadonly();
 
+    private watermark?: string;
+
     public get(): Observable<Product[]> {
         return this.http.get<Product[]>(`${environment.backendHost}${this.path}`).pipe(
             catchError((error) => {
@@ -24,6 +27,24 @@ import {environment} from "../../../environments/environment";
         );
     }
 
+    public sync(): Observable<Product[]> {
+        const since = this.watermark ? `?since=${encodeURIComponent(this.watermark)}` : "";
+        return this.http.get<ProductChanges>(`${environment.backendHost}${this.path}/changes${since}`).pipe(
+            map((changes) => {
+                this.watermark = changes.watermark;
+                if (changes.full) {
+                    this._products.set(changes.changed);
+                } else {
+                    const removed = new Set([...changes.deleted, ...changes.changed.map(p => p.id)]);
+                    this._products.update(products => [...products.filter(p => !removed.has(p.id)), ...changes.changed]
+                        .sort((a, b) => a.id - b.id));
+                }
+                return this._products();
+            }),
+            catchError(() => this.get()),
+        );
+    }
+
   public getProductById(id: number): Observable<Product> {
     return this.http.get<Product>(`${environment.backendHost}${this.path}/${id}`);
   }
@@ -83,8 +104,8 @@ import {environment} from "../../../environments/environment";
     );
   }
 
-    public getProductImage(productId: number){
-      const url = `${environment.backendHost}${this.path}/productImage/${productId}`;
+    public getProductImage(productId: number, size: "ORIGINAL" | "MEDIUM" | "THUMBNAIL" = "ORIGINAL"){
+      const url = `${environment.backendHost}${this.path}/productImage/${productId}?size=${size}`;
       return this.http.get(url, { responseType: 'blob' }).pipe(
         map(blob => URL.createObjectURL(blob))
       );
@@ -99,11 +99,11 @@ export class ProductListComponent implements OnInit {
   }
 
   loadProducts(): void {
-    this.productsService.get().subscribe({
+    this.productsService.sync().subscribe({
       next: products => {
         this.products = products;
         this.products.forEach((product: Product) => {
-          this.productsService.getProductImage(product.id).subscribe(imageUrl => {
+          this.productsService.getProductImage(product.id, "THUMBNAIL").subscribe(imageUrl => {
             product.image = imageUrl;
             this.quantities[product.id] = 1;
           });